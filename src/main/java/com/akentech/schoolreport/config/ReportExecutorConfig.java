@@ -0,0 +1,114 @@
+package com.akentech.schoolreport.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded thread pools for report work: one for tasks that fan out per class (school summaries,
+ * batch generation) and one for pure in-memory per-student computation inside a single class.
+ * Keeping them apart means a class-level task never waits on a pool its own subtasks need.
+ * Background report jobs get a third, small pool so queued whole-class jobs cannot take the
+ * threads interactive requests fan out on. Student PDFs of batch exports render on a fourth pool
+ * sized to the processors, since rendering is CPU-bound. Background refreshes (average records, rank
+ * indexes, trend data) run on a last, small pool that never borrows the submitting thread: past its
+ * queue a refresh is dropped.
+ * <p>
+ * Declaring these executors switches off Spring Boot's {@code applicationTaskExecutor}, so the
+ * streamed responses of Spring MVC get their own bounded pool here as well (see {@link WebConfig}).
+ * Scheduling is enabled for housekeeping of finished report jobs.
+ */
+@Configuration
+@EnableScheduling
+public class ReportExecutorConfig {
+
+    @Bean(name = "reportTaskExecutor")
+    public ThreadPoolTaskExecutor reportTaskExecutor(
+            @Value("${reports.executor.pool-size:4}") int poolSize,
+            @Value("${reports.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        // A school summary submits one task per class; past the queue the caller computes the class itself
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("report-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "reportComputeExecutor")
+    public ThreadPoolTaskExecutor reportComputeExecutor(
+            @Value("${reports.compute.pool-size:0}") int poolSize) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("report-compute-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "reportJobExecutor")
+    public ThreadPoolTaskExecutor reportJobExecutor(
+            @Value("${reports.jobs.max-concurrent:2}") int maxConcurrent,
+            @Value("${reports.jobs.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-job-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "pdfRenderExecutor")
+    public ThreadPoolTaskExecutor pdfRenderExecutor(
+            @Value("${reports.render.pool-size:0}") int poolSize,
+            @Value("${reports.render.queue-capacity:50}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        // A full queue slows the submitting export down instead of failing it
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("pdf-render-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "reportRefreshExecutor")
+    public ThreadPoolTaskExecutor reportRefreshExecutor(
+            @Value("${reports.refresh.pool-size:2}") int poolSize,
+            @Value("${reports.refresh.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        // Default abort policy: the submitter catches the rejection and drops that refresh
+        executor.setThreadNamePrefix("report-refresh-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "mvcAsyncExecutor")
+    public ThreadPoolTaskExecutor mvcAsyncExecutor(
+            @Value("${reports.async.pool-size:8}") int poolSize,
+            @Value("${reports.async.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        // A burst of downloads writes on the request thread instead of failing
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -7,11 +7,11 @@ import com.akentech.schoolreport.repository.ClassRoomRepository;
 import com.akentech.schoolreport.repository.StudentRepository;
 import com.akentech.schoolreport.service.*;
 import com.lowagie.text.*;
-import com.lowagie.text.Font;
-import com.lowagie.text.pdf.PdfWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,17 +23,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.awt.*;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 @Controller
 @RequestMapping("/reports")
@@ -51,6 +49,14 @@ public class ReportController {
     private final StudentRepository studentRepository;
     private final AssessmentRepository assessmentRepository;
     private final StudentService studentService;
+    private final ReportCache reportCache;
+    private final ReportJobService reportJobService;
+    private final TermPublicationService termPublicationService;
+    private final ClassReportStreamService classReportStreamService;
+    private final ClassPerformanceSummaryService classPerformanceSummaryService;
+    private final TrendAnalyticsService trendAnalyticsService;
+    private final BatchReportExportService batchReportExportService;
+    private final PdfRenderPool pdfRenderPool;
 
     @GetMapping("/select")
     public String selectView(Model model) {
@@ -211,6 +217,221 @@ public class ReportController {
         }
     }
 
+    @GetMapping("/api/cache/stats")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getReportCacheStats() {
+        return ResponseEntity.ok(reportCache.getStats());
+    }
+
+    @GetMapping("/api/render/stats")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getPdfRenderStats() {
+        return ResponseEntity.ok(pdfRenderPool.getStats());
+    }
+
+    // ====== PUBLISHED TERM RESULTS ======
+
+    @PostMapping("/api/published")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> publishTermResults(
+            @RequestParam Long classId,
+            @RequestParam Integer term,
+            @RequestParam(required = false) String academicYear,
+            @RequestParam(required = false) String publishedBy) {
+
+        String effectiveAcademicYear = academicYear != null && !academicYear.isEmpty()
+                ? academicYear : "2025-2026";
+
+        return ResponseEntity.ok(toPublicationResponse(
+                termPublicationService.publish(classId, term, effectiveAcademicYear, publishedBy)));
+    }
+
+    @PostMapping("/api/published/republish")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> republishTermResults(
+            @RequestParam Long classId,
+            @RequestParam Integer term,
+            @RequestParam(required = false) String academicYear,
+            @RequestParam(required = false) String publishedBy,
+            @RequestParam String reason) {
+
+        String effectiveAcademicYear = academicYear != null && !academicYear.isEmpty()
+                ? academicYear : "2025-2026";
+
+        return ResponseEntity.ok(toPublicationResponse(
+                termPublicationService.republish(classId, term, effectiveAcademicYear, publishedBy, reason)));
+    }
+
+    @GetMapping("/api/published/audit")
+    @ResponseBody
+    public ResponseEntity<List<TermPublicationAudit>> getTermPublicationAudit(
+            @RequestParam Long classId,
+            @RequestParam Integer term,
+            @RequestParam(required = false) String academicYear) {
+
+        String effectiveAcademicYear = academicYear != null && !academicYear.isEmpty()
+                ? academicYear : "2025-2026";
+
+        return ResponseEntity.ok(termPublicationService.getAuditTrail(classId, term, effectiveAcademicYear));
+    }
+
+    @GetMapping("/api/trends/students/{studentId}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getStudentTrend(@PathVariable Long studentId) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("studentId", studentId);
+        response.put("terms", trendAnalyticsService.getStudentTrend(studentId));
+        response.put("subjects", trendAnalyticsService.getStudentSubjectTrends(studentId));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Mean term average per academic year and term for the students in the class that year,
+     * or for the whole school without a class ID.
+     */
+    @GetMapping("/api/trends/classes")
+    @ResponseBody
+    public ResponseEntity<List<TrendPoint>> getClassTrend(@RequestParam(required = false) Long classId) {
+        return ResponseEntity.ok(trendAnalyticsService.getGroupTrend(classId));
+    }
+
+    /**
+     * Students who improved (or declined) the most between two terms, the last two terms with scores by default.
+     */
+    @GetMapping("/api/trends/changes")
+    @ResponseBody
+    public ResponseEntity<List<TrendChange>> getTrendChanges(
+            @RequestParam(required = false) Long classId,
+            @RequestParam(defaultValue = "improvement") String direction,
+            @RequestParam(required = false) String fromAcademicYear,
+            @RequestParam(required = false) Integer fromTerm,
+            @RequestParam(required = false) String toAcademicYear,
+            @RequestParam(required = false) Integer toTerm,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        boolean improvements = !"decline".equalsIgnoreCase(direction);
+        return ResponseEntity.ok(trendAnalyticsService.getChanges(classId, fromAcademicYear, fromTerm,
+                toAcademicYear, toTerm, improvements, limit));
+    }
+
+    private Map<String, Object> toPublicationResponse(PublishedTermResult result) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("classId", result.getClassId());
+        response.put("term", result.getTerm());
+        response.put("academicYear", result.getAcademicYearStart() + "-" + result.getAcademicYearEnd());
+        response.put("version", result.getVersion());
+        response.put("studentCount", result.getStudentCount());
+        response.put("payloadBytes", result.getPayload().length);
+        response.put("publishedAt", result.getPublishedAt());
+        response.put("publishedBy", result.getPublishedBy());
+        return response;
+    }
+
+    // ====== STREAMED CLASS REPORTS ======
+
+    /**
+     * Streams a class's term reports as NDJSON: a class line, one rank line per student, then each
+     * student's full report in rank order as it is built, with the same ranks and subject positions
+     * as the class's other reports, and a closing end (or error) line.
+     */
+    @GetMapping(value = "/api/class/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamClassTermReports(
+            @RequestParam Long classId,
+            @RequestParam Integer term,
+            @RequestParam(required = false) String academicYear) {
+
+        String effectiveAcademicYear = academicYear != null && !academicYear.isEmpty()
+                ? academicYear : "2025-2026";
+
+        classReportStreamService.validate(classId, term, effectiveAcademicYear);
+
+        StreamingResponseBody body = out -> classReportStreamService.streamTermReports(
+                classId, term, effectiveAcademicYear, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(body);
+    }
+
+    // ====== BACKGROUND REPORT JOBS ======
+
+    @PostMapping("/api/jobs")
+    @ResponseBody
+    public ResponseEntity<ReportJobStatus> submitReportJob(
+            @RequestParam Long classId,
+            @RequestParam Integer term,
+            @RequestParam(required = false) String academicYear) {
+
+        String effectiveAcademicYear = academicYear != null && !academicYear.isEmpty()
+                ? academicYear : "2025-2026";
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(reportJobService.submit(classId, term, effectiveAcademicYear));
+    }
+
+    @PostMapping("/api/jobs/batch-zip")
+    @ResponseBody
+    public ResponseEntity<ReportJobStatus> submitBatchZipJob(
+            @RequestParam Long classId,
+            @RequestParam String reportType,
+            @RequestParam(required = false) Integer term,
+            @RequestParam(required = false) String academicYear) {
+
+        String effectiveAcademicYear = academicYear != null && !academicYear.isEmpty()
+                ? academicYear : "2025-2026";
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(reportJobService.submitBatchZip(classId, reportType, term, effectiveAcademicYear));
+    }
+
+    @GetMapping("/api/jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<ReportJobStatus> getReportJobStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.getStatus(jobId));
+    }
+
+    @PostMapping("/api/jobs/{jobId}/cancel")
+    @ResponseBody
+    public ResponseEntity<ReportJobStatus> cancelReportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.cancel(jobId));
+    }
+
+    @GetMapping("/api/jobs/{jobId}/zip")
+    public ResponseEntity<Resource> downloadReportJobZip(@PathVariable String jobId) {
+        Path zip = reportJobService.getZipResult(jobId);
+        String filename = reportJobService.getZipFilename(jobId);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(zip));
+    }
+
+    @GetMapping("/api/jobs/{jobId}/pdf")
+    public ResponseEntity<byte[]> downloadReportJobPdf(@PathVariable String jobId)
+            throws IOException, DocumentException {
+
+        ReportJobStatus status = reportJobService.getStatus(jobId);
+        List<ReportDTO> reports = reportJobService.getResult(jobId);
+
+        ClassRoom classRoom = classRoomRepository.findById(status.getClassId())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid class ID: " + status.getClassId()));
+
+        byte[] pdfBytes = classTermReportPdfService.generateClassTermReportPdf(
+                reports, classRoom, status.getTerm(), status.getAcademicYear());
+
+        String filename = String.format("Class_Term_%d_Report_%s_%s.pdf",
+                status.getTerm(),
+                classRoom.getName().replace(" ", "_"),
+                status.getAcademicYear());
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(pdfBytes);
+    }
+
     // ====== PDF DOWNLOAD ENDPOINTS ======
 
     @GetMapping("/pdf/student/term")
@@ -361,11 +582,11 @@ public class ReportController {
     }
 
     @GetMapping("/batch/pdf")
-    public ResponseEntity<byte[]> downloadBatchPdf(
+    public ResponseEntity<StreamingResponseBody> downloadBatchPdf(
             @RequestParam Long classId,
             @RequestParam String reportType,
             @RequestParam(required = false) Integer term,
-            @RequestParam String academicYear) throws IOException, DocumentException {
+            @RequestParam String academicYear) {
 
         log.info("Generating batch PDF for class {} - Type: {}, Term: {}, Year: {}",
                 classId, reportType, term, academicYear);
@@ -373,125 +594,38 @@ public class ReportController {
         String effectiveAcademicYear = academicYear != null && !academicYear.isEmpty()
                 ? academicYear : "2025-2026";
 
-        List<Student> students = studentRepository.findByClassRoomId(classId);
-        ClassRoom classRoom = classRoomRepository.findById(classId)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid class ID: " + classId));
-
-        log.info("Found {} students in class {}", students.size(), classRoom.getName());
+        ClassRoom classRoom = batchReportExportService.validate(classId, reportType, term);
+        String zipFilename = batchReportExportService.getZipFilename(classRoom, reportType, term, effectiveAcademicYear);
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (ZipOutputStream zipOut = new ZipOutputStream(baos)) {
-
-            int processedCount = 0;
-            int errorCount = 0;
-
-            for (Student student : students) {
-                log.debug("Processing student: {} (ID: {})", student.getFullName(), student.getId());
-                byte[] pdfBytes;
-                String filename;
-
-                try {
-                    if ("yearly".equals(reportType)) {
-                        YearlyReportDTO report = reportService.getYearlyReportForStudentAndYear(
-                                student.getId(), effectiveAcademicYear);
-
-                        pdfBytes = yearlyReportPdfService.generateYearlyReportPdf(report);
-                        filename = String.format("%s_%s_Yearly_%s.pdf",
-                                student.getRollNumber(),
-                                student.getFullName().replace(" ", "_"),
-                                effectiveAcademicYear);
-                    } else {
-                        if (term == null) {
-                            throw new IllegalArgumentException("Term is required for term reports");
-                        }
-
-                        ReportDTO report = reportService.getTermReportForStudentAndYear(
-                                student.getId(), term, effectiveAcademicYear);
-
-                        pdfBytes = termReportPdfService.generateTermReportPdf(report);
-                        filename = String.format("%s_%s_Term_%d_%s.pdf",
-                                student.getRollNumber(),
-                                student.getFullName().replace(" ", "_"),
-                                term,
-                                effectiveAcademicYear);
-                    }
-
-                    ZipEntry zipEntry = new ZipEntry(filename);
-                    zipOut.putNextEntry(zipEntry);
-                    zipOut.write(pdfBytes);
-                    zipOut.closeEntry();
-                    processedCount++;
-
-                } catch (Exception e) {
-                    log.error("Error generating report for student {} (ID: {}): {}",
-                            student.getFullName(), student.getId(), e.getMessage(), e);
-                    errorCount++;
-
-                    byte[] errorPdf = createErrorPdf(student, reportType, term, effectiveAcademicYear, e);
-                    String errorFilename = String.format("ERROR_%s_%s_%s.pdf",
-                            student.getRollNumber(),
-                            student.getFullName().replace(" ", "_"),
-                            effectiveAcademicYear);
-                    ZipEntry zipEntry = new ZipEntry(errorFilename);
-                    zipOut.putNextEntry(zipEntry);
-                    zipOut.write(errorPdf);
-                    zipOut.closeEntry();
-                }
-            }
-
-            log.info("Batch PDF generation completed: Processed={}, Errors={}, Total={}",
-                    processedCount, errorCount, students.size());
-
-        }
-
-        String zipFilename = String.format("Batch_Reports_%s_%s_%s.zip",
-                classRoom.getName().replace(" ", "_"),
-                "yearly".equals(reportType) ? "Yearly" : "Term_" + term,
-                effectiveAcademicYear);
+        StreamingResponseBody body = out -> batchReportExportService.writeZip(
+                classId, reportType, term, effectiveAcademicYear, out, ReportProgressListener.NONE);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + zipFilename + "\"")
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(baos.toByteArray());
+                .body(body);
     }
 
-    private byte[] createErrorPdf(Student student, String reportType, Integer term,
-                                  String academicYear, Exception exception)
-            throws DocumentException, IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        Document document = new Document();
-        PdfWriter.getInstance(document, outputStream);
-
-        document.open();
-
-        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16, Color.RED);
-        Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, Color.BLACK);
-        Font contentFont = FontFactory.getFont(FontFactory.HELVETICA, 10, Color.BLACK);
-
-        document.add(new Paragraph("ERROR GENERATING REPORT", titleFont));
-        document.add(new Paragraph("\n"));
-
-        document.add(new Paragraph("Student Details:", headerFont));
-        document.add(new Paragraph("Name: " + student.getFullName(), contentFont));
-        document.add(new Paragraph("Roll Number: " + student.getRollNumber(), contentFont));
-        document.add(new Paragraph("Student ID: " + student.getStudentId(), contentFont));
-        document.add(new Paragraph("Academic Year: " + academicYear, contentFont));
-        document.add(new Paragraph("\n"));
+    @GetMapping("/batch/booklet")
+    public ResponseEntity<StreamingResponseBody> downloadClassBooklet(
+            @RequestParam Long classId,
+            @RequestParam String reportType,
+            @RequestParam(required = false) Integer term,
+            @RequestParam(required = false) String academicYear) {
 
-        document.add(new Paragraph("Report Details:", headerFont));
-        document.add(new Paragraph("Report Type: " + reportType, contentFont));
-        document.add(new Paragraph("Academic Year: " + academicYear, contentFont));
-        if (term != null) {
-            document.add(new Paragraph("Term: " + term, contentFont));
-        }
-        document.add(new Paragraph("\n"));
+        String effectiveAcademicYear = academicYear != null && !academicYear.isEmpty()
+                ? academicYear : "2025-2026";
 
-        document.add(new Paragraph("Error Information:", headerFont));
-        document.add(new Paragraph("Error Message: " + exception.getMessage(), contentFont));
+        ClassRoom classRoom = batchReportExportService.validateBooklet(classId, reportType, term);
+        String filename = batchReportExportService.getBookletFilename(classRoom, reportType, term, effectiveAcademicYear);
 
-        document.close();
+        StreamingResponseBody body = out -> batchReportExportService.writeBooklet(
+                classId, reportType, term, effectiveAcademicYear, out, ReportProgressListener.NONE);
 
-        return outputStream.toByteArray();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(body);
     }
 
     @GetMapping("/class")
@@ -698,70 +832,20 @@ public class ReportController {
         String effectiveAcademicYear = academicYear != null && !academicYear.isEmpty()
                 ? academicYear : "2025-2026";
 
-        List<ReportDTO> reports = reportService.getTermReportsForClassAndYear(
+        ClassPerformanceSummary summary = classPerformanceSummaryService.getSummary(
                 classId, term, effectiveAcademicYear);
 
-        double classAverage = reports.stream()
-                .filter(r -> r.getTermAverage() != null)
-                .mapToDouble(ReportDTO::getTermAverage)
-                .average()
-                .orElse(0.0);
-
-        long passedStudents = reports.stream()
-                .filter(ReportDTO::getPassed)
-                .count();
-
-        double passRate = !reports.isEmpty() ? (passedStudents * 100.0) / reports.size() : 0.0;
-
-        List<ReportDTO> topStudents = reports.stream()
-                .sorted((r1, r2) -> {
-                    Double avg1 = r1.getTermAverage() != null ? r1.getTermAverage() : 0.0;
-                    Double avg2 = r2.getTermAverage() != null ? r2.getTermAverage() : 0.0;
-                    return avg2.compareTo(avg1);
-                })
-                .limit(5)
-                .collect(Collectors.toList());
-
-        List<ReportDTO> bottomStudents = reports.stream()
-                .sorted((r1, r2) -> {
-                    Double avg1 = r1.getTermAverage() != null ? r1.getTermAverage() : 0.0;
-                    Double avg2 = r2.getTermAverage() != null ? r2.getTermAverage() : 0.0;
-                    return avg1.compareTo(avg2);
-                })
-                .limit(5)
-                .collect(Collectors.toList());
-
-        Map<String, Double> subjectAverages = new HashMap<>();
-        if (!reports.isEmpty() && reports.getFirst().getSubjectReports() != null) {
-            for (SubjectReport subject : reports.getFirst().getSubjectReports()) {
-                String subjectName = subject.getSubjectName();
-                double average = reports.stream()
-                        .map(r -> {
-                            SubjectReport sr = r.getSubjectReports().stream()
-                                    .filter(s -> s.getSubjectName().equals(subjectName))
-                                    .findFirst()
-                                    .orElse(null);
-                            return sr != null ? sr.getSubjectAverage() : null;
-                        })
-                        .filter(Objects::nonNull)
-                        .mapToDouble(d -> d)
-                        .average()
-                        .orElse(0.0);
-                subjectAverages.put(subjectName, average);
-            }
-        }
-
         model.addAttribute("classRoom", classRoom);
         model.addAttribute("term", term);
         model.addAttribute("academicYear", effectiveAcademicYear);
-        model.addAttribute("reports", reports);
-        model.addAttribute("classAverage", classAverage);
-        model.addAttribute("totalStudents", reports.size());
-        model.addAttribute("passedStudents", passedStudents);
-        model.addAttribute("passRate", passRate);
-        model.addAttribute("topStudents", topStudents);
-        model.addAttribute("bottomStudents", bottomStudents);
-        model.addAttribute("subjectAverages", subjectAverages);
+        model.addAttribute("summary", summary);
+        model.addAttribute("classAverage", summary.getClassAverage());
+        model.addAttribute("totalStudents", summary.getTotalStudents());
+        model.addAttribute("passedStudents", summary.getPassedStudents());
+        model.addAttribute("passRate", summary.getPassRate());
+        model.addAttribute("topStudents", summary.getTopStudents());
+        model.addAttribute("bottomStudents", summary.getBottomStudents());
+        model.addAttribute("subjectAverages", summary.getSubjectAverages());
 
         return "class_performance_summary";
     }
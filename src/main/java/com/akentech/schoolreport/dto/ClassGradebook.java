@@ -0,0 +1,250 @@
+package com.akentech.schoolreport.dto;
+
+import com.akentech.schoolreport.model.Assessment;
+import com.akentech.schoolreport.model.Student;
+import com.akentech.schoolreport.model.StudentSubject;
+import com.akentech.schoolreport.model.Subject;
+import com.akentech.schoolreport.model.enums.AssessmentType;
+
+import java.util.*;
+
+/**
+ * Dense score matrix for one class and term: scores are stored in a single {@code double[]}
+ * indexed by student x subject x assessment type of the term, with {@code NaN} marking a missing score.
+ * Subject and term averages follow the same rules as {@code GradeService} but are computed
+ * straight from the matrix, without building intermediate objects per cell.
+ */
+public class ClassGradebook {
+
+    private final Integer term;
+    private final AssessmentType[] termTypes;
+    private final Map<Long, Integer> studentIndex;
+    private final List<Subject> subjects;
+    private final int[] coefficients;
+    // Subject indexes per student, in enrollment order
+    private final int[][] enrolledSubjects;
+    private final double[] scores;
+
+    private ClassGradebook(Integer term, AssessmentType[] termTypes, Map<Long, Integer> studentIndex,
+                           List<Subject> subjects, int[][] enrolledSubjects, double[] scores) {
+        this.term = term;
+        this.termTypes = termTypes;
+        this.studentIndex = studentIndex;
+        this.subjects = subjects;
+        this.enrolledSubjects = enrolledSubjects;
+        this.scores = scores;
+
+        this.coefficients = new int[subjects.size()];
+        for (int j = 0; j < coefficients.length; j++) {
+            Integer coefficient = subjects.get(j).getCoefficient();
+            coefficients[j] = coefficient != null ? coefficient : 1;
+        }
+    }
+
+    /**
+     * Builds the gradebook for the given students. Only enrolled subjects are tracked and only
+     * assessments of the given term are read. When a type was entered more than once the earliest
+     * saved score (lowest ID) wins, as in the report mapper and the weighted average query.
+     */
+    public static ClassGradebook of(Integer term, List<Student> students,
+                                    List<StudentSubject> enrollments, List<Assessment> assessments) {
+        AssessmentType[] termTypes = AssessmentType.getAssessmentsForTerm(term);
+
+        Map<Long, Integer> studentIndex = new HashMap<>(students.size() * 2);
+        for (Student student : students) {
+            studentIndex.putIfAbsent(student.getId(), studentIndex.size());
+        }
+
+        Map<Long, Integer> subjectIndex = new HashMap<>();
+        List<Subject> subjects = new ArrayList<>();
+        List<List<Integer>> enrolled = new ArrayList<>(studentIndex.size());
+        for (int i = 0; i < studentIndex.size(); i++) {
+            enrolled.add(new ArrayList<>());
+        }
+
+        for (StudentSubject enrollment : enrollments) {
+            Integer s = studentIndex.get(enrollment.getStudent().getId());
+            if (s == null) {
+                continue;
+            }
+            Subject subject = enrollment.getSubject();
+            Integer j = subjectIndex.get(subject.getId());
+            if (j == null) {
+                j = subjects.size();
+                subjectIndex.put(subject.getId(), j);
+                subjects.add(subject);
+            }
+            List<Integer> studentSubjects = enrolled.get(s);
+            if (!studentSubjects.contains(j)) {
+                studentSubjects.add(j);
+            }
+        }
+
+        int[][] enrolledSubjects = new int[enrolled.size()][];
+        for (int s = 0; s < enrolledSubjects.length; s++) {
+            enrolledSubjects[s] = enrolled.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Only the term's own types get a slot: two per cell in terms 1 and 2, one in term 3
+        double[] scores = new double[studentIndex.size() * subjects.size() * termTypes.length];
+        Arrays.fill(scores, Double.NaN);
+        Assessment[] kept = new Assessment[scores.length];
+
+        for (Assessment assessment : assessments) {
+            if (!term.equals(assessment.getTerm()) || assessment.getType() == null || assessment.getScore() == null) {
+                continue;
+            }
+            int slot = slotOf(termTypes, assessment.getType());
+            Integer s = studentIndex.get(assessment.getStudent().getId());
+            Integer j = subjectIndex.get(assessment.getSubject().getId());
+            if (slot < 0 || s == null || j == null) {
+                continue;
+            }
+            int cell = cell(subjects.size(), termTypes.length, s, j, slot);
+            if (Double.isNaN(scores[cell]) || isEarlier(assessment, kept[cell])) {
+                scores[cell] = assessment.getScore();
+                kept[cell] = assessment;
+            }
+        }
+
+        return new ClassGradebook(term, termTypes, studentIndex, subjects, enrolledSubjects, scores);
+    }
+
+    /**
+     * Builds the gradebook tracking, per student, the subjects they have a score in for the term rather
+     * than their enrollments, which only describe the current academic year.
+     */
+    public static ClassGradebook ofScoredSubjects(Integer term, List<Student> students, List<Assessment> assessments) {
+        Set<List<Long>> seen = new HashSet<>();
+        List<StudentSubject> scored = new ArrayList<>();
+        for (Assessment assessment : assessments) {
+            if (term.equals(assessment.getTerm())
+                    && seen.add(List.of(assessment.getStudent().getId(), assessment.getSubject().getId()))) {
+                scored.add(StudentSubject.builder()
+                        .student(assessment.getStudent())
+                        .subject(assessment.getSubject())
+                        .build());
+            }
+        }
+        return of(term, students, scored, assessments);
+    }
+
+    public Integer getTerm() {
+        return term;
+    }
+
+    public int getStudentCount() {
+        return enrolledSubjects.length;
+    }
+
+    /**
+     * Row of the student in this gradebook, or -1 if the student is not part of it.
+     */
+    public int indexOf(Long studentId) {
+        Integer s = studentIndex.get(studentId);
+        return s != null ? s : -1;
+    }
+
+    public int[] subjectsOf(int s) {
+        return enrolledSubjects[s];
+    }
+
+    public Subject getSubject(int j) {
+        return subjects.get(j);
+    }
+
+    public int getSubjectCount() {
+        return subjects.size();
+    }
+
+    /**
+     * Every student's average in the subject by row, NaN for students without a score in it.
+     */
+    public double[] subjectColumn(int j) {
+        double[] column = new double[getStudentCount()];
+        Arrays.fill(column, Double.NaN);
+        for (int s = 0; s < column.length; s++) {
+            for (int enrolled : enrolledSubjects[s]) {
+                if (enrolled == j) {
+                    column[s] = subjectAverage(s, j);
+                    break;
+                }
+            }
+        }
+        return column;
+    }
+
+    /**
+     * Score of the given type for the cell; NaN when missing or when the type belongs to another term.
+     */
+    public double score(int s, int j, AssessmentType type) {
+        int slot = slotOf(termTypes, type);
+        return slot >= 0 ? scores[cell(subjects.size(), termTypes.length, s, j, slot)] : Double.NaN;
+    }
+
+    /**
+     * First and second assessment of the term for the cell (the second is always NaN in term 3).
+     */
+    public double firstScore(int s, int j) {
+        return scores[cell(subjects.size(), termTypes.length, s, j, 0)];
+    }
+
+    public double secondScore(int s, int j) {
+        return termTypes.length > 1 ? scores[cell(subjects.size(), termTypes.length, s, j, 1)] : Double.NaN;
+    }
+
+    public boolean hasData(int s, int j) {
+        return !Double.isNaN(firstScore(s, j)) || !Double.isNaN(secondScore(s, j));
+    }
+
+    /**
+     * Subject average out of 20 for the term, or NaN when the student has no score in it.
+     */
+    public double subjectAverage(int s, int j) {
+        double first = firstScore(s, j);
+        double second = secondScore(s, j);
+
+        if (term == 3) {
+            return first;
+        }
+        if (!Double.isNaN(first) && !Double.isNaN(second)) {
+            return (first * 0.5) + (second * 0.5);
+        }
+        return !Double.isNaN(first) ? first : second;
+    }
+
+    /**
+     * Coefficient-weighted term average over the student's subjects with data; 0.0 when there are none.
+     */
+    public double weightedAverage(int s) {
+        double totalWeightedScore = 0.0;
+        int totalCoefficient = 0;
+
+        for (int j : enrolledSubjects[s]) {
+            double average = subjectAverage(s, j);
+            if (!Double.isNaN(average)) {
+                totalWeightedScore += average * coefficients[j];
+                totalCoefficient += coefficients[j];
+            }
+        }
+
+        return totalCoefficient > 0 ? totalWeightedScore / totalCoefficient : 0.0;
+    }
+
+    private static int cell(int subjectCount, int slotCount, int s, int j, int slot) {
+        return (s * subjectCount + j) * slotCount + slot;
+    }
+
+    private static boolean isEarlier(Assessment assessment, Assessment kept) {
+        return assessment.getId() != null && (kept.getId() == null || assessment.getId() < kept.getId());
+    }
+
+    private static int slotOf(AssessmentType[] termTypes, AssessmentType type) {
+        for (int slot = 0; slot < termTypes.length; slot++) {
+            if (termTypes[slot] == type) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,52 @@
+package com.akentech.schoolreport.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate behind the class performance summary page, computed in one pass over a class's term reports:
+ * class average and pass rate, subject averages and pass counts, top and bottom students, and the
+ * distribution of term averages. Immutable so it can be cached and shared between requests.
+ */
+@Getter
+@Builder
+public class ClassPerformanceSummary {
+
+    private final Long classId;
+    private final Integer term;
+    private final String academicYear;
+
+    private final int totalStudents;
+    private final double classAverage;
+    private final int passedStudents;
+    private final double passRate;
+
+    // Best first / weakest first, at most five each
+    private final List<StudentPerformance> topStudents;
+    private final List<StudentPerformance> bottomStudents;
+
+    // Keyed by subject name, in name order
+    private final Map<String, Double> subjectAverages;
+    private final Map<String, Integer> subjectPassCounts;
+
+    // Students per band: excellent (>= 18), good (>= 15), average (>= 10), poor (>= 5), fail (< 5)
+    private final int excellentCount;
+    private final int goodCount;
+    private final int averageCount;
+    private final int poorCount;
+    private final int failCount;
+
+    @Value
+    public static class StudentPerformance {
+        Long studentId;
+        String studentFullName;
+        String rollNumber;
+        double termAverage;
+        String formattedAverage;
+        String remarks;
+    }
+}
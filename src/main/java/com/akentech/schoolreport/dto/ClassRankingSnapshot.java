@@ -0,0 +1,54 @@
+package com.akentech.schoolreport.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable class/term/academic-year ranking computed in one batched pass.
+ * Holds every student's weighted term average together with class, department and specialty ranks
+ * and subject positions in rank order, and is what paginated and streamed class reports slice.
+ */
+@Getter
+public class ClassRankingSnapshot {
+
+    private final Long classId;
+    private final Integer term;
+    private final String academicYear;
+    private final Map<Long, Entry> entries;
+    // Subject ID -> number of ranked students with an average in it
+    private final Map<Long, Integer> subjectCounts;
+
+    public ClassRankingSnapshot(Long classId, Integer term, String academicYear, Map<Long, Entry> entries,
+                                Map<Long, Integer> subjectCounts) {
+        this.classId = classId;
+        this.term = term;
+        this.academicYear = academicYear;
+        this.entries = Collections.unmodifiableMap(entries);
+        this.subjectCounts = Collections.unmodifiableMap(subjectCounts);
+    }
+
+    public int getTotalStudents() {
+        return entries.size();
+    }
+
+    @Value
+    @Builder
+    public static class Entry {
+        Long studentId;
+        String studentFullName;
+        String rollNumber;
+        Long departmentId;
+        String specialty;
+        double average;
+        int rankInClass;
+        Integer rankInDepartment;
+        Integer rankInSpecialty;
+        // Subject ID -> subject average and position, for subjects the student has an average in
+        Map<Long, Double> subjectAverages;
+        Map<Long, Integer> subjectPositions;
+    }
+}
@@ -0,0 +1,38 @@
+package com.akentech.schoolreport.dto;
+
+import com.akentech.schoolreport.model.ClassRoom;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Class-level fields printed on every report of a class. Built once per class list and shared
+ * by all of its reports instead of being copied from the class entity into each one.
+ */
+@Value
+@Builder
+@Jacksonized
+public class ClassReportHeader {
+
+    public static final ClassReportHeader NONE = ClassReportHeader.builder()
+            .className("")
+            .classTeacher("Not Assigned")
+            .build();
+
+    Long classId;
+    String className;
+    String classTeacher;
+    String academicYear;
+
+    public static ClassReportHeader from(ClassRoom classRoom) {
+        if (classRoom == null) {
+            return NONE;
+        }
+        return ClassReportHeader.builder()
+                .classId(classRoom.getId())
+                .className(classRoom.getName())
+                .classTeacher(classRoom.getClassTeacher() != null ? classRoom.getClassTeacher() : "Not Assigned")
+                .academicYear(classRoom.getAcademicYear())
+                .build();
+    }
+}
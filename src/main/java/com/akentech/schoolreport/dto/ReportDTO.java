@@ -1,23 +1,23 @@
 package com.akentech.schoolreport.dto;
 
-import com.akentech.schoolreport.model.Student;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.time.LocalDate;
 import java.time.Year;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ReportDTO {
     private Long id;
-    private Student student;
+    private ReportStudent student;
     private String studentFullName;
     private String rollNumber;
     private String className;
@@ -28,18 +28,31 @@ public class ReportDTO {
     private String formattedAverage;
     private Integer rankInClass;
     private Integer rankInDepartment;
+    private Integer rankInSpecialty;
     private Integer totalStudentsInClass;
     private String remarks;
     private List<SubjectReport> subjectReports;
     private String academicYear;
     private String action;
-    private String classTeacher;
+    // Shared by all reports of a class list
+    private ClassReportHeader classHeader;
 
     // Added fields for pass rate and subjects passed
     private Double passRate;
     private Integer subjectsPassed;
     private Integer totalSubjects;
 
+    /**
+     * Copy with its own subject rows, for handing out a report that is also kept in a cache.
+     */
+    public ReportDTO copy() {
+        return toBuilder()
+                .subjectReports(subjectReports != null
+                        ? subjectReports.stream().map(SubjectReport::copy).collect(Collectors.toCollection(ArrayList::new))
+                        : null)
+                .build();
+    }
+
     /**
      * Get formatted term average
      */
@@ -58,7 +71,7 @@ public class ReportDTO {
             return studentFullName;
         }
         if (student != null) {
-            return student.getFirstName() + " " + student.getLastName();
+            return student.getFullName();
         }
         return "Unknown Student";
     }
@@ -72,16 +85,9 @@ public class ReportDTO {
             return academicYear.trim();
         }
 
-        // Try to get from student's class
-        if (student != null && student.getClassRoom() != null &&
-                student.getClassRoom().getAcademicYear() != null) {
-            return student.getClassRoom().getAcademicYear();
-        }
-
-        // Try to get from student's academic year fields
-        if (student != null && student.getAcademicYearStart() != null &&
-                student.getAcademicYearEnd() != null) {
-            return student.getAcademicYearStart() + "-" + student.getAcademicYearEnd();
+        // Try to get from the class
+        if (classHeader != null && classHeader.getAcademicYear() != null) {
+            return classHeader.getAcademicYear();
         }
 
         // Default to current academic year
@@ -93,12 +99,8 @@ public class ReportDTO {
      * Get class teacher name
      */
     public String getClassTeacher() {
-        if (classTeacher != null && !classTeacher.isEmpty()) {
-            return classTeacher;
-        }
-        if (student != null && student.getClassRoom() != null) {
-            return student.getClassRoom().getClassTeacher() != null ?
-                    student.getClassRoom().getClassTeacher() : "Not Assigned";
+        if (classHeader != null && classHeader.getClassTeacher() != null) {
+            return classHeader.getClassTeacher();
         }
         return "Not Assigned";
     }
@@ -153,8 +155,8 @@ public class ReportDTO {
         if (className != null && !className.isEmpty()) {
             return className;
         }
-        if (student != null && student.getClassRoom() != null) {
-            return student.getClassRoom().getName();
+        if (classHeader != null && classHeader.getClassName() != null && !classHeader.getClassName().isEmpty()) {
+            return classHeader.getClassName();
         }
         return "N/A";
     }
@@ -167,7 +169,7 @@ public class ReportDTO {
             return department;
         }
         if (student != null && student.getDepartment() != null) {
-            return student.getDepartment().getName();
+            return student.getDepartment();
         }
         return "N/A";
     }
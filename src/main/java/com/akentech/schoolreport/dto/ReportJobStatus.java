@@ -0,0 +1,40 @@
+package com.akentech.schoolreport.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobStatus {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    public enum Kind {
+        CLASS_REPORT, BATCH_ZIP
+    }
+
+    private String jobId;
+    private Kind kind;
+    // "term" or "yearly" for batch ZIP jobs
+    private String reportType;
+    private Long classId;
+    private Integer term;
+    private String academicYear;
+    private State state;
+    private int totalStudents;
+    private int processedStudents;
+    private double progressPercent;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;
+    private String error;
+}
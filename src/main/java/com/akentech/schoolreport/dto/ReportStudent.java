@@ -0,0 +1,43 @@
+package com.akentech.schoolreport.dto;
+
+import com.akentech.schoolreport.model.Student;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDate;
+
+/**
+ * Scalar student fields shown on a report. Replaces the {@link Student} entity on report DTOs so
+ * report lists never hold (or serialize) the entity graph behind it.
+ */
+@Value
+@Builder
+@Jacksonized
+public class ReportStudent {
+    Long id;
+    String studentId;
+    String firstName;
+    String lastName;
+    String fullName;
+    String rollNumber;
+    String gender;
+    LocalDate dateOfBirth;
+    String department;
+    String specialty;
+
+    public static ReportStudent from(Student student) {
+        return ReportStudent.builder()
+                .id(student.getId())
+                .studentId(student.getStudentId())
+                .firstName(student.getFirstName())
+                .lastName(student.getLastName())
+                .fullName(student.getFullName())
+                .rollNumber(student.getRollNumber())
+                .gender(student.getGender() != null ? student.getGender().toString() : null)
+                .dateOfBirth(student.getDateOfBirth())
+                .department(student.getDepartment() != null ? student.getDepartment().getName() : null)
+                .specialty(student.getSpecialty())
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.akentech.schoolreport.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read model behind the student profile page: term and yearly averages, ranks, completion status and
+ * subject scores per term for one student. Built for a whole class at once and kept until scores or
+ * class membership change, so it is shared between requests and must not be modified.
+ */
+@Getter
+@Builder
+public class StudentProfile {
+
+    private final Long studentId;
+    private final Long classId;
+    private final String studentName;
+    private final int totalAssessments;
+    private final int totalSubjects;
+    private final double yearlyAverage;
+    private final Integer yearlyRank;
+
+    // Keyed by term 1 to 3
+    private final Map<Integer, Double> termAverages;
+    private final Map<Integer, Integer> termRanks;
+    private final Map<Integer, Integer> termAssessmentCounts;
+    private final Map<Integer, Integer> termCompletedSubjects;
+    private final Map<Integer, List<TermAssessmentDTO>> termAssessments;
+
+    public Integer getTermRank(Integer term) {
+        return termRanks.get(term);
+    }
+
+    /**
+     * New summary for the profile header with the rank of the given term and the yearly rank as class rank.
+     */
+    public StudentAssessmentSummaryDTO toSummary(Integer term) {
+        return StudentAssessmentSummaryDTO.builder()
+                .studentId(studentId)
+                .studentName(studentName)
+                .totalAssessments(totalAssessments)
+                .term1Assessments(termAssessmentCounts.get(1))
+                .term2Assessments(termAssessmentCounts.get(2))
+                .term3Assessments(termAssessmentCounts.get(3))
+                .term1Average(termAverages.get(1))
+                .term2Average(termAverages.get(2))
+                .term3Average(termAverages.get(3))
+                .yearlyAverage(yearlyAverage)
+                .totalSubjects(totalSubjects)
+                .term1CompletedSubjects(termCompletedSubjects.get(1))
+                .term2CompletedSubjects(termCompletedSubjects.get(2))
+                .term3CompletedSubjects(termCompletedSubjects.get(3))
+                .term1Completed(isTermCompleted(1))
+                .term2Completed(isTermCompleted(2))
+                .term3Completed(isTermCompleted(3))
+                .termRank(getTermRank(term))
+                .classRank(yearlyRank)
+                .build();
+    }
+
+    /**
+     * Subject rows of the term, sorted by subject name.
+     */
+    public List<TermAssessmentDTO> getTermAssessments(Integer term) {
+        return termAssessments.getOrDefault(term, List.of());
+    }
+
+    private boolean isTermCompleted(int term) {
+        Integer completed = termCompletedSubjects.get(term);
+        return completed != null && completed > 0 && completed == totalSubjects;
+    }
+}
@@ -0,0 +1,16 @@
+package com.akentech.schoolreport.dto;
+
+/**
+ * Per-student, per-subject term average computed by the database, with the subject's coefficient,
+ * so the weighted term average and subject positions come from the same rows.
+ */
+public interface StudentSubjectAverageView {
+
+    Long getStudentId();
+
+    Long getSubjectId();
+
+    Integer getCoefficient();
+
+    Double getSubjectAverage();
+}
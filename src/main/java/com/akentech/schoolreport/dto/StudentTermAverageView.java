@@ -0,0 +1,14 @@
+package com.akentech.schoolreport.dto;
+
+/**
+ * Per-student term average computed by the database: the coefficient-weighted mean of the
+ * student's subject averages for the term, over the enrolled subjects that have a score.
+ */
+public interface StudentTermAverageView {
+
+    Long getStudentId();
+
+    Double getWeightedAverage();
+
+    Integer getSubjectCount();
+}
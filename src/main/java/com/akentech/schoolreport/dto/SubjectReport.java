@@ -6,10 +6,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SubjectReport {
+    private Long subjectId;
     private String subjectName;
     private Integer coefficient;
     private Double assessment1;
@@ -18,6 +19,13 @@ public class SubjectReport {
     private String letterGrade;
     private String className;
     private Boolean hasData;
+    // Position among the classmates with an average in the subject, out of positionOutOf
+    private Integer positionInClass;
+    private Integer positionOutOf;
+
+    public SubjectReport copy() {
+        return toBuilder().build();
+    }
 
     // Fixed: Add proper getPassed() method that uses className
     public Boolean getPassed() {
@@ -0,0 +1,16 @@
+package com.akentech.schoolreport.dto;
+
+import lombok.Value;
+
+/**
+ * A student's change of term average between two terms, with the class they were in for the later one.
+ */
+@Value
+public class TrendChange {
+    long studentId;
+    String studentName;
+    Long classId;
+    double fromAverage;
+    double toAverage;
+    double change;
+}
@@ -0,0 +1,17 @@
+package com.akentech.schoolreport.dto;
+
+import lombok.Value;
+
+/**
+ * One term of a trend series: an average, its change from the previous point and how many students it covers.
+ */
+@Value
+public class TrendPoint {
+    String academicYear;
+    int academicYearStart;
+    int term;
+    double average;
+    // Change from the previous point of the series; null for the first one
+    Double change;
+    int students;
+}
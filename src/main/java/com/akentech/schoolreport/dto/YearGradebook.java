@@ -0,0 +1,54 @@
+package com.akentech.schoolreport.dto;
+
+import com.akentech.schoolreport.model.Assessment;
+import com.akentech.schoolreport.model.Student;
+import com.akentech.schoolreport.model.StudentSubject;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One {@link ClassGradebook} per term of an academic year, built from a single year-scoped
+ * assessment list and a single enrollment list. Gives term -> subject -> score lookups and
+ * term averages for the yearly calculations without going back to the database.
+ */
+public class YearGradebook {
+
+    public static final int TERM_COUNT = 3;
+
+    private final ClassGradebook[] terms;
+
+    private YearGradebook(ClassGradebook[] terms) {
+        this.terms = terms;
+    }
+
+    /**
+     * The assessments are expected to belong to one academic year already; they are only split by term here.
+     */
+    public static YearGradebook of(List<Student> students, List<StudentSubject> enrollments,
+                                   List<Assessment> assessments) {
+        ClassGradebook[] terms = new ClassGradebook[TERM_COUNT];
+        for (int term = 1; term <= TERM_COUNT; term++) {
+            terms[term - 1] = ClassGradebook.of(term, students, enrollments, assessments);
+        }
+        return new YearGradebook(terms);
+    }
+
+    public ClassGradebook forTerm(int term) {
+        return terms[term - 1];
+    }
+
+    /**
+     * Weighted average of each term (1 to 3) for the student; 0.0 for a term without scores.
+     */
+    public Map<Integer, Double> termAverages(Long studentId) {
+        Map<Integer, Double> averages = new LinkedHashMap<>();
+        for (int term = 1; term <= TERM_COUNT; term++) {
+            ClassGradebook gradebook = terms[term - 1];
+            int row = gradebook.indexOf(studentId);
+            averages.put(term, row >= 0 ? gradebook.weightedAverage(row) : 0.0);
+        }
+        return averages;
+    }
+}
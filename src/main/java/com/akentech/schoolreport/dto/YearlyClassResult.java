@@ -0,0 +1,43 @@
+package com.akentech.schoolreport.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Yearly results for a whole class computed in one pass: per-term averages, yearly subject reports
+ * and averages, and term/yearly/department ranks for every student. Cached and shared between
+ * requests, so it holds no entities and callers copy the subject reports they hand out.
+ */
+@Getter
+@Builder
+public class YearlyClassResult {
+
+    private final Long classId;
+    private final int academicYearStart;
+    private final int academicYearEnd;
+
+    // Ordered by yearly rank
+    private final List<StudentResult> studentResults;
+    private final int totalPassed;
+
+    public int getTotalStudents() {
+        return studentResults.size();
+    }
+
+    @Getter
+    @Builder
+    public static class StudentResult {
+        private final ReportStudent student;
+        private final String className;
+        private final Map<Integer, Double> termAverages;
+        private final Map<Integer, Integer> termRanks;
+        private final List<YearlySubjectReport> subjectReports;
+        private final double yearlyAverage;
+        private final int yearlyRank;
+        private final Integer yearlyDepartmentRank;
+        private final boolean passed;
+    }
+}
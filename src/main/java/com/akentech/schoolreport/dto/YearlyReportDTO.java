@@ -12,7 +12,9 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class YearlyReportDTO {
-    private Object student;
+    private ReportStudent student;
+    // Shared by all reports of a class list
+    private ClassReportHeader classHeader;
     private String studentFullName;
     private String rollNumber;
     private String className;
@@ -41,26 +43,17 @@ public class YearlyReportDTO {
     private String action; // ADDED: Action recommendation for student
 
     public String getStudentFullName() {
-        return getString(studentFullName, student);
-    }
-
-    static String getString(String studentFullName, Object student) {
         if (studentFullName != null && !studentFullName.isEmpty()) {
             return studentFullName;
         }
-        if (student != null) {
-            try {
-                // Try to extract from Student object
-                java.lang.reflect.Method getFirstName = student.getClass().getMethod("getFirstName");
-                java.lang.reflect.Method getLastName = student.getClass().getMethod("getLastName");
-                Object firstName = getFirstName.invoke(student);
-                Object lastName = getLastName.invoke(student);
-                return firstName + " " + lastName;
-            } catch (Exception e) {
-                return "";
-            }
+        return student != null && student.getFullName() != null ? student.getFullName() : "";
+    }
+
+    public String getClassTeacher() {
+        if (classHeader != null && classHeader.getClassTeacher() != null) {
+            return classHeader.getClassTeacher();
         }
-        return "";
+        return "Not Assigned";
     }
 
     public String getFormattedYearlyAverage() {
@@ -72,15 +65,9 @@ public class YearlyReportDTO {
     }
 
     public String getStudentGender() {
-        if (student != null) {
-            try {
-                java.lang.reflect.Method getGender = student.getClass().getMethod("getGender");
-                Object gender = getGender.invoke(student);
-                return gender != null ? gender.toString() : "N/A";
-            } catch (Exception e) {
-                return "N/A";
-            }
+        if (student != null && student.getGender() != null) {
+            return student.getGender();
         }
         return "N/A";
     }
-}
\ No newline at end of file
+}
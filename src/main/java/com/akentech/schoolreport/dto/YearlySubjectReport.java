@@ -6,7 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class YearlySubjectReport {
@@ -18,4 +18,8 @@ public class YearlySubjectReport {
     private Double yearlyAverage;
     private String yearlyGrade;
     private Boolean passed;
+
+    public YearlySubjectReport copy() {
+        return toBuilder().build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.akentech.schoolreport.event;
+
+import com.akentech.schoolreport.model.Assessment;
+import lombok.Getter;
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Published whenever assessment scores are created, updated or deleted.
+ * Listeners use the affected student IDs to drop any derived data (rankings, caches) built from them.
+ * When known, the academic years of the changed scores are carried too; an empty set means the
+ * years are unknown and listeners fall back to the students' own academic year.
+ */
+@Getter
+public class AssessmentsChangedEvent {
+
+    private final Set<Long> studentIds;
+    private final Set<AcademicYear> academicYears;
+
+    public AssessmentsChangedEvent(Set<Long> studentIds) {
+        this(studentIds, Set.of());
+    }
+
+    public AssessmentsChangedEvent(Set<Long> studentIds, Set<AcademicYear> academicYears) {
+        this.studentIds = studentIds != null ? Set.copyOf(studentIds) : Set.of();
+        this.academicYears = academicYears != null ? Set.copyOf(academicYears) : Set.of();
+    }
+
+    /**
+     * Event for the given changed assessments, with their students and academic years.
+     */
+    public static AssessmentsChangedEvent of(Collection<Assessment> assessments) {
+        Set<Long> studentIds = new HashSet<>();
+        Set<AcademicYear> academicYears = new HashSet<>();
+        for (Assessment assessment : assessments) {
+            studentIds.add(assessment.getStudent().getId());
+            if (assessment.getAcademicYearStart() != null && assessment.getAcademicYearEnd() != null) {
+                academicYears.add(new AcademicYear(assessment.getAcademicYearStart(), assessment.getAcademicYearEnd()));
+            }
+        }
+        return new AssessmentsChangedEvent(studentIds, academicYears);
+    }
+
+    @Value
+    public static class AcademicYear {
+        int start;
+        int end;
+    }
+}
@@ -0,0 +1,22 @@
+package com.akentech.schoolreport.event;
+
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Published when students are created, updated, moved, deleted or have their subject enrollments changed.
+ * Carries the affected student IDs and every class they were in or moved to, since a class's rankings
+ * change when a student joins or leaves it.
+ */
+@Getter
+public class StudentsChangedEvent {
+
+    private final Set<Long> studentIds;
+    private final Set<Long> classIds;
+
+    public StudentsChangedEvent(Set<Long> studentIds, Set<Long> classIds) {
+        this.studentIds = studentIds != null ? Set.copyOf(studentIds) : Set.of();
+        this.classIds = classIds != null ? Set.copyOf(classIds) : Set.of();
+    }
+}
@@ -0,0 +1,22 @@
+package com.akentech.schoolreport.event;
+
+import lombok.Getter;
+
+/**
+ * Published when a class's term results are published or republished.
+ */
+@Getter
+public class TermPublishedEvent {
+
+    private final Long classId;
+    private final Integer term;
+    private final int academicYearStart;
+    private final int academicYearEnd;
+
+    public TermPublishedEvent(Long classId, Integer term, int academicYearStart, int academicYearEnd) {
+        this.classId = classId;
+        this.term = term;
+        this.academicYearStart = academicYearStart;
+        this.academicYearEnd = academicYearEnd;
+    }
+}
@@ -0,0 +1,7 @@
+package com.akentech.schoolreport.exception;
+
+public class ServiceUnavailableException extends SchoolManagementException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
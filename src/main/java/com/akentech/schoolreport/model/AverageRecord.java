@@ -5,7 +5,8 @@ import lombok.*;
 
 @Entity
 @Table(name = "average_record", indexes = {
-        @Index(name = "idx_avg_student_term", columnList = "student_id, term")
+        @Index(name = "idx_avg_student_term", columnList = "student_id, term"),
+        @Index(name = "idx_avg_student_term_year", columnList = "student_id, term, academic_year_start, academic_year_end")
 })
 @Data
 @NoArgsConstructor
@@ -18,6 +19,12 @@ public class AverageRecord {
 
     private Integer term;
 
+    @Column(name = "academic_year_start")
+    private Integer academicYearStart;
+
+    @Column(name = "academic_year_end")
+    private Integer academicYearEnd;
+
     private Double average; // average over 20 for the term (weighted)
 
     private Integer rankInClass;
@@ -0,0 +1,57 @@
+package com.akentech.schoolreport.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Frozen term results of one class: the computed term reports (subject rows, averages, ranks,
+ * remarks) serialized as gzipped JSON. Written by publishing a term and only replaced by an
+ * explicit republish.
+ */
+@Entity
+@Table(name = "published_term_result", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_published_class_term_year",
+                columnNames = {"classroom_id", "term", "academic_year_start", "academic_year_end"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PublishedTermResult {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "classroom_id", nullable = false)
+    private Long classId;
+
+    @Column(nullable = false)
+    private Integer term;
+
+    @Column(name = "academic_year_start", nullable = false)
+    private Integer academicYearStart;
+
+    @Column(name = "academic_year_end", nullable = false)
+    private Integer academicYearEnd;
+
+    // Incremented on every republish
+    @Column(nullable = false)
+    private Integer version;
+
+    @Column(name = "student_count", nullable = false)
+    private Integer studentCount;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] payload;
+
+    @Column(name = "published_at", nullable = false)
+    private LocalDateTime publishedAt;
+
+    @Column(name = "published_by")
+    private String publishedBy;
+}
@@ -0,0 +1,56 @@
+package com.akentech.schoolreport.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One publish or republish of a class's term results.
+ */
+@Entity
+@Table(name = "term_publication_audit", indexes = {
+        @Index(name = "idx_publication_audit_class_term_year",
+                columnList = "classroom_id, term, academic_year_start, academic_year_end")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TermPublicationAudit {
+
+    public enum Action {
+        PUBLISH, REPUBLISH
+    }
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "classroom_id", nullable = false)
+    private Long classId;
+
+    @Column(nullable = false)
+    private Integer term;
+
+    @Column(name = "academic_year_start", nullable = false)
+    private Integer academicYearStart;
+
+    @Column(name = "academic_year_end", nullable = false)
+    private Integer academicYearEnd;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Action action;
+
+    @Column(nullable = false)
+    private Integer version;
+
+    @Column(name = "performed_by")
+    private String performedBy;
+
+    @Column(length = 500)
+    private String reason;
+
+    @Column(name = "performed_at", nullable = false)
+    private LocalDateTime performedAt;
+}
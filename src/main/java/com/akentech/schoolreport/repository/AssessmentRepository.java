@@ -1,5 +1,7 @@
 package com.akentech.schoolreport.repository;
 
+import com.akentech.schoolreport.dto.StudentSubjectAverageView;
+import com.akentech.schoolreport.dto.StudentTermAverageView;
 import com.akentech.schoolreport.model.Assessment;
 import com.akentech.schoolreport.model.Student;
 import com.akentech.schoolreport.model.Subject;
@@ -10,12 +12,129 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AssessmentRepository extends JpaRepository<Assessment, Long> {
 
+    /*
+     * Weighted term averages in one grouped query. The inner query averages each enrolled subject over the
+     * assessment types of the term (the two tests in terms 1 and 2, so 50/50 or the single score present;
+     * the exam alone in term 3), the outer one weights those subject averages by Subject.coefficient.
+     * A type entered more than once counts once: the NOT EXISTS keeps only its lowest-ID row, the same
+     * row ClassGradebook and ReportMapper pick.
+     */
+    String SUBJECT_TERM_AVERAGE_FROM =
+            "FROM assessment a JOIN subject s ON s.id = a.subject_id " +
+            "WHERE a.student_id IN (:studentIds) AND a.term = :term AND a.type IN (:types) " +
+            "AND EXISTS (SELECT 1 FROM student_subject ss " +
+            "WHERE ss.student_id = a.student_id AND ss.subject_id = a.subject_id) ";
+
+    String WEIGHTED_TERM_AVERAGE_SELECT =
+            "SELECT t.student_id AS studentId, " +
+            "SUM(t.subject_average * t.coefficient) / SUM(t.coefficient) AS weightedAverage, " +
+            "COUNT(*) AS subjectCount " +
+            "FROM (SELECT a.student_id, a.subject_id, COALESCE(s.coefficient, 1) AS coefficient, " +
+            "AVG(a.score) AS subject_average " +
+            SUBJECT_TERM_AVERAGE_FROM;
+
+    // The inner query alone: one row per student and subject
+    String SUBJECT_TERM_AVERAGE_SELECT =
+            "SELECT a.student_id AS studentId, a.subject_id AS subjectId, " +
+            "COALESCE(s.coefficient, 1) AS coefficient, AVG(a.score) AS subjectAverage " +
+            SUBJECT_TERM_AVERAGE_FROM;
+
+    // Open subquery: an earlier row of the same type, narrowed further by each query and then closed
+    String WEIGHTED_TERM_AVERAGE_EARLIER_DUPLICATE =
+            "AND NOT EXISTS (SELECT 1 FROM assessment d " +
+            "WHERE d.student_id = a.student_id AND d.subject_id = a.subject_id " +
+            "AND d.term = a.term AND d.type = a.type AND d.id < a.id ";
+
+    String SUBJECT_TERM_AVERAGE_GROUP =
+            "GROUP BY a.student_id, a.subject_id, s.coefficient";
+
+    String WEIGHTED_TERM_AVERAGE_GROUP =
+            SUBJECT_TERM_AVERAGE_GROUP + ") t " +
+            "GROUP BY t.student_id";
+
+    @Query(value = WEIGHTED_TERM_AVERAGE_SELECT + WEIGHTED_TERM_AVERAGE_EARLIER_DUPLICATE +
+            "AND d.academic_year_start = a.academic_year_start AND d.academic_year_end = a.academic_year_end) " +
+            "AND a.academic_year_start = :academicYearStart AND a.academic_year_end = :academicYearEnd " +
+            WEIGHTED_TERM_AVERAGE_GROUP, nativeQuery = true)
+    List<StudentTermAverageView> findWeightedTermAveragesForTypesAndAcademicYear(
+            @Param("studentIds") List<Long> studentIds,
+            @Param("term") Integer term,
+            @Param("types") List<String> types,
+            @Param("academicYearStart") Integer academicYearStart,
+            @Param("academicYearEnd") Integer academicYearEnd);
+
+    @Query(value = WEIGHTED_TERM_AVERAGE_SELECT + WEIGHTED_TERM_AVERAGE_EARLIER_DUPLICATE + ") " +
+            WEIGHTED_TERM_AVERAGE_GROUP, nativeQuery = true)
+    List<StudentTermAverageView> findWeightedTermAveragesForTypes(
+            @Param("studentIds") List<Long> studentIds,
+            @Param("term") Integer term,
+            @Param("types") List<String> types);
+
+    /**
+     * Weighted term averages of the given students for one academic year. Students without any
+     * score in the term have no row.
+     */
+    default List<StudentTermAverageView> findWeightedTermAverages(List<Long> studentIds, Integer term,
+                                                                  Integer academicYearStart,
+                                                                  Integer academicYearEnd) {
+        List<String> types = Arrays.stream(AssessmentType.getAssessmentsForTerm(term)).map(Enum::name).toList();
+        return findWeightedTermAveragesForTypesAndAcademicYear(studentIds, term, types,
+                academicYearStart, academicYearEnd);
+    }
+
+    /**
+     * Weighted term averages of the given students over all academic years.
+     */
+    default List<StudentTermAverageView> findWeightedTermAverages(List<Long> studentIds, Integer term) {
+        List<String> types = Arrays.stream(AssessmentType.getAssessmentsForTerm(term)).map(Enum::name).toList();
+        return findWeightedTermAveragesForTypes(studentIds, term, types);
+    }
+
+    @Query(value = SUBJECT_TERM_AVERAGE_SELECT + WEIGHTED_TERM_AVERAGE_EARLIER_DUPLICATE +
+            "AND d.academic_year_start = a.academic_year_start AND d.academic_year_end = a.academic_year_end) " +
+            "AND a.academic_year_start = :academicYearStart AND a.academic_year_end = :academicYearEnd " +
+            SUBJECT_TERM_AVERAGE_GROUP, nativeQuery = true)
+    List<StudentSubjectAverageView> findSubjectTermAveragesForTypesAndAcademicYear(
+            @Param("studentIds") List<Long> studentIds,
+            @Param("term") Integer term,
+            @Param("types") List<String> types,
+            @Param("academicYearStart") Integer academicYearStart,
+            @Param("academicYearEnd") Integer academicYearEnd);
+
+    @Query(value = SUBJECT_TERM_AVERAGE_SELECT + WEIGHTED_TERM_AVERAGE_EARLIER_DUPLICATE + ") " +
+            SUBJECT_TERM_AVERAGE_GROUP, nativeQuery = true)
+    List<StudentSubjectAverageView> findSubjectTermAveragesForTypes(
+            @Param("studentIds") List<Long> studentIds,
+            @Param("term") Integer term,
+            @Param("types") List<String> types);
+
+    /**
+     * Term average per enrolled subject with a score, for one academic year; the rows the weighted
+     * term average is computed from.
+     */
+    default List<StudentSubjectAverageView> findSubjectTermAverages(List<Long> studentIds, Integer term,
+                                                                    Integer academicYearStart,
+                                                                    Integer academicYearEnd) {
+        List<String> types = Arrays.stream(AssessmentType.getAssessmentsForTerm(term)).map(Enum::name).toList();
+        return findSubjectTermAveragesForTypesAndAcademicYear(studentIds, term, types,
+                academicYearStart, academicYearEnd);
+    }
+
+    /**
+     * Term average per enrolled subject with a score, over all academic years.
+     */
+    default List<StudentSubjectAverageView> findSubjectTermAverages(List<Long> studentIds, Integer term) {
+        List<String> types = Arrays.stream(AssessmentType.getAssessmentsForTerm(term)).map(Enum::name).toList();
+        return findSubjectTermAveragesForTypes(studentIds, term, types);
+    }
+
     // Add the missing method
     @Query("SELECT a FROM Assessment a WHERE a.student.id IN :studentIds AND a.term = :term")
     List<Assessment> findByStudentIdInAndTerm(@Param("studentIds") List<Long> studentIds,
@@ -29,12 +148,33 @@ public interface AssessmentRepository extends JpaRepository<Assessment, Long> {
             @Param("academicYearStart") Integer academicYearStart,
             @Param("academicYearEnd") Integer academicYearEnd);
 
+    @Query("SELECT a FROM Assessment a WHERE a.student.id IN :studentIds " +
+            "AND a.academicYearStart = :academicYearStart AND a.academicYearEnd = :academicYearEnd")
+    List<Assessment> findByStudentIdInAndAcademicYear(
+            @Param("studentIds") List<Long> studentIds,
+            @Param("academicYearStart") Integer academicYearStart,
+            @Param("academicYearEnd") Integer academicYearEnd);
+
     @Query("SELECT a FROM Assessment a " +
             "JOIN FETCH a.subject " +
             "WHERE a.student.id = :studentId " +
             "ORDER BY a.term, a.type")
     List<Assessment> findAllByStudentId(@Param("studentId") Long studentId);
 
+    @Query("SELECT a FROM Assessment a " +
+            "JOIN FETCH a.subject " +
+            "WHERE a.student.id IN :studentIds")
+    List<Assessment> findByStudentIdInWithSubject(@Param("studentIds") List<Long> studentIds);
+
+    @Query("SELECT a FROM Assessment a " +
+            "JOIN FETCH a.subject " +
+            "WHERE a.student.id = :studentId " +
+            "AND a.academicYearStart = :academicYearStart AND a.academicYearEnd = :academicYearEnd")
+    List<Assessment> findByStudentIdAndAcademicYearWithSubject(
+            @Param("studentId") Long studentId,
+            @Param("academicYearStart") Integer academicYearStart,
+            @Param("academicYearEnd") Integer academicYearEnd);
+
     @Query("SELECT a FROM Assessment a WHERE a.student = :student AND a.subject = :subject " +
             "AND a.term = :term AND a.type = :type")
     Optional<Assessment> findByStudentAndSubjectAndTermAndType(@Param("student") Student student,
@@ -18,6 +18,13 @@ public interface AverageRecordRepository extends JpaRepository<AverageRecord, Lo
     List<AverageRecord> findByStudentInAndTerm(@Param("students") List<Student> students,
                                                @Param("term") Integer term);
 
+    @Query("SELECT ar FROM AverageRecord ar WHERE ar.student.id IN :studentIds AND ar.term = :term " +
+            "AND ar.academicYearStart = :academicYearStart AND ar.academicYearEnd = :academicYearEnd")
+    List<AverageRecord> findByStudentIdInAndTermAndAcademicYear(@Param("studentIds") List<Long> studentIds,
+                                                                @Param("term") Integer term,
+                                                                @Param("academicYearStart") Integer academicYearStart,
+                                                                @Param("academicYearEnd") Integer academicYearEnd);
+
     @Query("SELECT ar FROM AverageRecord ar WHERE ar.student = :student AND ar.term = :term")
     Optional<AverageRecord> findByStudentAndTerm(@Param("student") Student student,
                                                  @Param("term") Integer term);
@@ -0,0 +1,21 @@
+package com.akentech.schoolreport.repository;
+
+import com.akentech.schoolreport.model.PublishedTermResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PublishedTermResultRepository extends JpaRepository<PublishedTermResult, Long> {
+
+    @Query("SELECT p FROM PublishedTermResult p WHERE p.classId = :classId AND p.term = :term " +
+            "AND p.academicYearStart = :academicYearStart AND p.academicYearEnd = :academicYearEnd")
+    Optional<PublishedTermResult> findByClassIdAndTermAndAcademicYear(
+            @Param("classId") Long classId,
+            @Param("term") Integer term,
+            @Param("academicYearStart") Integer academicYearStart,
+            @Param("academicYearEnd") Integer academicYearEnd);
+}
@@ -1,5 +1,6 @@
 package com.akentech.schoolreport.repository;
 
+import com.akentech.schoolreport.model.Student;
 import com.akentech.schoolreport.model.StudentSubject;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -23,12 +24,18 @@ public interface StudentSubjectRepository extends JpaRepository<StudentSubject,
     @Query("SELECT ss FROM StudentSubject ss WHERE ss.subject.id = :subjectId")
     List<StudentSubject> findBySubjectId(@Param("subjectId") Long subjectId);
 
+    @Query("SELECT DISTINCT ss.student FROM StudentSubject ss WHERE ss.subject.id = :subjectId")
+    List<Student> findStudentsBySubjectId(@Param("subjectId") Long subjectId);
+
     @Query("SELECT ss FROM StudentSubject ss WHERE ss.student.id = :studentId ORDER BY ss.subject.name")
     List<StudentSubject> findByStudentIdOrderBySubjectName(@Param("studentId") Long studentId);
 
     @Query("SELECT DISTINCT ss FROM StudentSubject ss JOIN FETCH ss.subject WHERE ss.student.id = :studentId")
     List<StudentSubject> findByStudentIdWithSubject(@Param("studentId") Long studentId);
 
+    @Query("SELECT ss FROM StudentSubject ss JOIN FETCH ss.subject WHERE ss.student.id IN :studentIds")
+    List<StudentSubject> findByStudentIdInWithSubject(@Param("studentIds") List<Long> studentIds);
+
     @Query("SELECT ss FROM StudentSubject ss WHERE ss.student.id = :studentId AND ss.isCompulsory = true")
     List<StudentSubject> findCompulsoryByStudentId(@Param("studentId") Long studentId);
 
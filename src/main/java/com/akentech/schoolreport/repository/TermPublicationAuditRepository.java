@@ -0,0 +1,22 @@
+package com.akentech.schoolreport.repository;
+
+import com.akentech.schoolreport.model.TermPublicationAudit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TermPublicationAuditRepository extends JpaRepository<TermPublicationAudit, Long> {
+
+    @Query("SELECT a FROM TermPublicationAudit a WHERE a.classId = :classId AND a.term = :term " +
+            "AND a.academicYearStart = :academicYearStart AND a.academicYearEnd = :academicYearEnd " +
+            "ORDER BY a.performedAt DESC")
+    List<TermPublicationAudit> findByClassIdAndTermAndAcademicYear(
+            @Param("classId") Long classId,
+            @Param("term") Integer term,
+            @Param("academicYearStart") Integer academicYearStart,
+            @Param("academicYearEnd") Integer academicYearEnd);
+}
@@ -0,0 +1,208 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.StudentTermAverageView;
+import com.akentech.schoolreport.event.AssessmentsChangedEvent;
+import com.akentech.schoolreport.event.StudentsChangedEvent;
+import com.akentech.schoolreport.model.AverageRecord;
+import com.akentech.schoolreport.model.Student;
+import com.akentech.schoolreport.repository.AssessmentRepository;
+import com.akentech.schoolreport.repository.AverageRecordRepository;
+import com.akentech.schoolreport.repository.StudentRepository;
+import com.akentech.schoolreport.util.ClassRanker;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the average_record table in sync with assessment scores.
+ * When scores of a student change, the term averages and class/department ranks of every student
+ * in that student's class are recomputed for the academic years of the changed scores, because one
+ * score can move everyone's rank. A record of a year holds the average of that year's scores only.
+ * Recomputes run on their own refresh pool after the change commits, so a score save never waits for
+ * them, and several changes to one class/year queued behind a running recompute are folded into a
+ * single one. When that pool is full the recompute is dropped and the next change of the class retries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AverageRecordService {
+
+    private static final int TERM_COUNT = 3;
+
+    private final StudentRepository studentRepository;
+    private final AverageRecordRepository averageRecordRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final GradeService gradeService;
+    private final PlatformTransactionManager transactionManager;
+    @Qualifier("reportRefreshExecutor")
+    private final Executor reportRefreshExecutor;
+
+    // Class/years with a recompute queued but not started yet
+    private final Set<ClassYear> pending = ConcurrentHashMap.newKeySet();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssessmentsChanged(AssessmentsChangedEvent event) {
+        try {
+            Set<ClassYear> scopes = new LinkedHashSet<>();
+            for (Student student : studentRepository.findAllById(event.getStudentIds())) {
+                if (student.getClassRoom() == null) {
+                    continue;
+                }
+                Long classId = student.getClassRoom().getId();
+                if (!event.getAcademicYears().isEmpty()) {
+                    for (AssessmentsChangedEvent.AcademicYear year : event.getAcademicYears()) {
+                        scopes.add(new ClassYear(classId, year.getStart(), year.getEnd()));
+                    }
+                } else if (student.getAcademicYearStart() != null && student.getAcademicYearEnd() != null) {
+                    scopes.add(new ClassYear(classId, student.getAcademicYearStart(), student.getAcademicYearEnd()));
+                }
+            }
+            scopes.forEach(this::schedule);
+        } catch (Exception e) {
+            // The scores are already committed; a failed refresh must not surface as a failed save
+            log.error("Failed to refresh average records for students {}", event.getStudentIds(), e);
+        }
+    }
+
+    /**
+     * A student joining, leaving or changing enrollments moves the ranks of the classes involved.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        try {
+            Set<Long> classIds = new HashSet<>(event.getClassIds());
+            Set<ClassYear> scopes = new LinkedHashSet<>();
+            List<Student> students = studentRepository.findAllById(event.getStudentIds());
+            for (Student student : students) {
+                if (student.getClassRoom() != null) {
+                    classIds.add(student.getClassRoom().getId());
+                }
+            }
+            for (Student student : students) {
+                if (student.getAcademicYearStart() == null || student.getAcademicYearEnd() == null) {
+                    continue;
+                }
+                for (Long classId : classIds) {
+                    scopes.add(new ClassYear(classId, student.getAcademicYearStart(), student.getAcademicYearEnd()));
+                }
+            }
+            scopes.forEach(this::schedule);
+        } catch (Exception e) {
+            log.error("Failed to refresh average records for classes {}", event.getClassIds(), e);
+        }
+    }
+
+    @Transactional
+    public void recomputeForClass(Long classId, int academicYearStart, int academicYearEnd) {
+        List<Student> students = studentRepository.findByClassRoomIdAndAcademicYear(
+                classId, academicYearStart, academicYearEnd);
+        if (students.isEmpty()) {
+            // Nobody in the class belongs to that year, so there is no ranking to store for it
+            return;
+        }
+        for (int term = 1; term <= TERM_COUNT; term++) {
+            materializeTerm(students, term, academicYearStart, academicYearEnd);
+        }
+    }
+
+    private void schedule(ClassYear scope) {
+        if (!pending.add(scope)) {
+            return;
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            reportRefreshExecutor.execute(() -> {
+                // Changes committed from here on queue another recompute
+                pending.remove(scope);
+                try {
+                    transaction.executeWithoutResult(status -> recomputeForClass(
+                            scope.getClassId(), scope.getAcademicYearStart(), scope.getAcademicYearEnd()));
+                } catch (Exception e) {
+                    log.error("Failed to refresh average records for class {} academic year {}-{}",
+                            scope.getClassId(), scope.getAcademicYearStart(), scope.getAcademicYearEnd(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(scope);
+            log.warn("Refresh pool full, dropped average record refresh for class {} academic year {}-{}",
+                    scope.getClassId(), scope.getAcademicYearStart(), scope.getAcademicYearEnd());
+        }
+    }
+
+    /**
+     * Writes the term's records from the weighted averages of that academic year's scores only; students
+     * without scores in that year get no record, and any record they had is removed.
+     */
+    private void materializeTerm(List<Student> students, Integer term, int academicYearStart, int academicYearEnd) {
+        List<Long> studentIds = students.stream().map(Student::getId).collect(Collectors.toList());
+        Map<Long, Double> averageByStudent = new HashMap<>();
+        for (StudentTermAverageView row : assessmentRepository.findWeightedTermAverages(
+                studentIds, term, academicYearStart, academicYearEnd)) {
+            averageByStudent.put(row.getStudentId(), row.getWeightedAverage());
+        }
+
+        Map<Long, AverageRecord> existing = averageRecordRepository
+                .findByStudentIdInAndTermAndAcademicYear(studentIds, term, academicYearStart, academicYearEnd)
+                .stream()
+                .collect(Collectors.toMap(r -> r.getStudent().getId(), Function.identity(), (a, b) -> a));
+
+        List<Student> ranked = students.stream()
+                .filter(student -> averageByStudent.containsKey(student.getId()))
+                .collect(Collectors.toList());
+        double[] averages = new double[ranked.size()];
+        List<Long> departmentIds = new ArrayList<>(ranked.size());
+        for (int i = 0; i < averages.length; i++) {
+            Student student = ranked.get(i);
+            averages[i] = averageByStudent.get(student.getId());
+            departmentIds.add(student.getDepartment() != null ? student.getDepartment().getId() : null);
+        }
+        ClassRanker.Result ranking = ClassRanker.rank(averages, ClassRanker.groupIds(departmentIds), null, null);
+
+        List<AverageRecord> records = new ArrayList<>(ranked.size());
+        for (int i = 0; i < averages.length; i++) {
+            Student student = ranked.get(i);
+            AverageRecord record = existing.remove(student.getId());
+            if (record == null) {
+                record = AverageRecord.builder()
+                        .student(student)
+                        .term(term)
+                        .academicYearStart(academicYearStart)
+                        .academicYearEnd(academicYearEnd)
+                        .build();
+            }
+
+            record.setAverage(averages[i]);
+            record.setRankInClass(ranking.classRank(i));
+            record.setRankInDepartment(ranking.departmentRank(i));
+            record.setRemarks(gradeService.generateRemarks(averages[i]));
+            records.add(record);
+        }
+
+        averageRecordRepository.saveAll(records);
+        // Left over: students whose scores for the year are gone
+        averageRecordRepository.deleteAll(existing.values());
+        log.debug("Materialized {} average records for term {} academic year {}-{}",
+                records.size(), term, academicYearStart, academicYearEnd);
+    }
+
+    @Value
+    private static class ClassYear {
+        Long classId;
+        int academicYearStart;
+        int academicYearEnd;
+    }
+}
@@ -5,11 +5,11 @@ import com.lowagie.text.Image;
 import com.lowagie.text.Rectangle;
 import com.lowagie.text.pdf.*;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
 import java.awt.*;
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @Slf4j
@@ -51,10 +51,11 @@ public abstract class BasePdfService {
     protected static final String DEFAULT_AVATAR_PATH = "static/images/avatar.png";
 
     protected final GradeService gradeService;
+    protected final PdfAssetRegistry pdfAssetRegistry;
 
-    // Constructor with GradeService dependency
-    protected BasePdfService(GradeService gradeService) {
+    protected BasePdfService(GradeService gradeService, PdfAssetRegistry pdfAssetRegistry) {
         this.gradeService = gradeService;
+        this.pdfAssetRegistry = pdfAssetRegistry;
     }
 
     // Custom cell event for rounded borders
@@ -104,18 +105,13 @@ public abstract class BasePdfService {
         imageCell.setHorizontalAlignment(alignment);
         imageCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
 
-        try {
-            ClassPathResource resource = new ClassPathResource(imagePath);
-            if (resource.exists()) {
-                Image image = Image.getInstance(resource.getURL());
-                float scale = height / image.getHeight();
-                image.scaleAbsolute(image.getWidth() * scale, height);
-                imageCell.addElement(image);
-            } else {
-                addImagePlaceholder(imageCell, alignment);
-            }
-        } catch (Exception e) {
-            log.warn("Could not load image: {}", imagePath);
+        Optional<Image> decoded = pdfAssetRegistry.getImage(imagePath);
+        if (decoded.isPresent()) {
+            Image image = decoded.get();
+            float scale = height / image.getHeight();
+            image.scaleAbsolute(image.getWidth() * scale, height);
+            imageCell.addElement(image);
+        } else {
             addImagePlaceholder(imageCell, alignment);
         }
         return imageCell;
@@ -127,7 +123,22 @@ public abstract class BasePdfService {
         cell.addElement(placeholder);
     }
 
-    protected void addModernSeparator(Document document) throws DocumentException {
+    /**
+     * Adds a static block (school header, signature footer) stamped from a template rendered once per key;
+     * the key must name everything the block prints. Lays the block out directly if the template fails.
+     */
+    protected void addTemplate(Document document, PdfWriter writer, String key,
+                               PdfAssetRegistry.TemplateLayout layout) throws DocumentException, IOException {
+        float width = document.right() - document.left();
+        Optional<PdfPTable> stamp = pdfAssetRegistry.getTemplate(writer, key, width, layout);
+        if (stamp.isPresent()) {
+            document.add(stamp.get());
+        } else {
+            layout.layout(document);
+        }
+    }
+
+    protected void addModernSeparator(ElementListener document) throws DocumentException {
         PdfPTable separatorTable = new PdfPTable(1);
         separatorTable.setWidthPercentage(80);
         separatorTable.setHorizontalAlignment(Element.ALIGN_CENTER);
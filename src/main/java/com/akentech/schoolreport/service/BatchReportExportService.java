@@ -0,0 +1,329 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ReportDTO;
+import com.akentech.schoolreport.dto.YearlyReportDTO;
+import com.akentech.schoolreport.exception.BusinessRuleException;
+import com.akentech.schoolreport.exception.EntityNotFoundException;
+import com.akentech.schoolreport.model.ClassRoom;
+import com.akentech.schoolreport.model.Student;
+import com.akentech.schoolreport.repository.ClassRoomRepository;
+import com.akentech.schoolreport.repository.StudentRepository;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfSmartCopy;
+import com.lowagie.text.pdf.PdfWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.awt.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes the term or yearly report PDFs of every student in a class straight to an output stream, either
+ * as a ZIP archive with one entry per student or as a single booklet PDF with a bookmark per student.
+ * The class's reports are built once up front; the PDFs render concurrently on the {@link PdfRenderPool}
+ * and are written, flushed one by one, in class list order, so memory holds only the few PDFs in flight
+ * however big the class is, and a download starts receiving data with the first student. A student whose
+ * report fails gets an error PDF instead.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchReportExportService {
+
+    private final ReportService reportService;
+    private final TermReportPdfService termReportPdfService;
+    private final YearlyReportPdfService yearlyReportPdfService;
+    private final PdfRenderPool pdfRenderPool;
+    private final StudentRepository studentRepository;
+    private final ClassRoomRepository classRoomRepository;
+
+    /**
+     * Checks the request before anything is written, so bad parameters still get a proper error status.
+     */
+    public ClassRoom validate(Long classId, String reportType, Integer term) {
+        ClassRoom classRoom = classRoomRepository.findById(classId)
+                .orElseThrow(() -> new EntityNotFoundException("ClassRoom", classId));
+        if (!isYearly(reportType) && (term == null || term < 1 || term > 3)) {
+            throw new BusinessRuleException("Term must be 1, 2 or 3 for term reports");
+        }
+        return classRoom;
+    }
+
+    /**
+     * Like {@link #validate}, and also rejects an empty class: a PDF cannot be written without pages.
+     */
+    public ClassRoom validateBooklet(Long classId, String reportType, Integer term) {
+        ClassRoom classRoom = validate(classId, reportType, term);
+        if (studentRepository.countByClassRoomId(classId) == 0) {
+            throw new BusinessRuleException("Class " + classRoom.getName() + " has no students");
+        }
+        return classRoom;
+    }
+
+    public String getZipFilename(ClassRoom classRoom, String reportType, Integer term, String academicYear) {
+        return String.format("Batch_Reports_%s_%s_%s.zip",
+                classRoom.getName().replace(" ", "_"),
+                isYearly(reportType) ? "Yearly" : "Term_" + term,
+                academicYear);
+    }
+
+    public String getBookletFilename(ClassRoom classRoom, String reportType, Integer term, String academicYear) {
+        return String.format("Class_Booklet_%s_%s_%s.pdf",
+                classRoom.getName().replace(" ", "_"),
+                isYearly(reportType) ? "Yearly" : "Term_" + term,
+                academicYear);
+    }
+
+    /**
+     * Writes the archive and finishes it without closing {@code out}. The listener is told the number of
+     * students up front and each finished entry; cancelling it stops before the next student with a
+     * {@link CancellationException}, leaving an incomplete archive behind.
+     */
+    public void writeZip(Long classId, String reportType, Integer term, String academicYear,
+                         OutputStream out, ReportProgressListener listener) throws IOException {
+        long started = System.nanoTime();
+        List<Student> students = studentRepository.findByClassRoomId(classId);
+        listener.onStart(students.size());
+
+        log.info("Streaming batch {} reports for class {} ({} students), term {}, academic year {}",
+                reportType, classId, students.size(), term, academicYear);
+
+        ClassReports classReports = loadClassReports(classId, reportType, term, academicYear);
+        ZipOutputStream zipOut = new ZipOutputStream(out);
+        AtomicInteger errorCount = new AtomicInteger();
+
+        pdfRenderPool.renderInOrder(students,
+                student -> render(student, classReports, reportType, term, academicYear),
+                (student, item) -> {
+                    if (listener.isCancelled()) {
+                        throw new CancellationException("Batch report generation cancelled");
+                    }
+                    if (item.isError()) {
+                        errorCount.incrementAndGet();
+                    }
+
+                    zipOut.putNextEntry(new ZipEntry(item.getFilename()));
+                    zipOut.write(item.getPdf());
+                    zipOut.closeEntry();
+                    zipOut.flush();
+                    listener.onStudentCompleted();
+                });
+        zipOut.finish();
+        zipOut.flush();
+
+        log.info("Batch PDF generation completed: Processed={}, Errors={}, Total={} in {} ms",
+                students.size() - errorCount.get(), errorCount.get(), students.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Writes one PDF holding every student's report, each starting with a bookmark, without closing
+     * {@code out}. The pages of a student are copied in as soon as that student is rendered; identical
+     * objects such as the header images, the header and footer templates and font dictionaries are
+     * written once and shared by every page that uses them. Listener and cancellation work as for
+     * {@link #writeZip}.
+     */
+    public void writeBooklet(Long classId, String reportType, Integer term, String academicYear,
+                             OutputStream out, ReportProgressListener listener) throws IOException {
+        long started = System.nanoTime();
+        List<Student> students = studentRepository.findByClassRoomId(classId);
+        listener.onStart(students.size());
+
+        log.info("Streaming {} report booklet for class {} ({} students), term {}, academic year {}",
+                reportType, classId, students.size(), term, academicYear);
+
+        ClassReports classReports = loadClassReports(classId, reportType, term, academicYear);
+        Document document = new Document();
+        PdfSmartCopy copy;
+        try {
+            copy = new PdfSmartCopy(document, out);
+        } catch (DocumentException e) {
+            throw new IOException("Could not start class booklet", e);
+        }
+        copy.setCloseStream(false);
+        document.open();
+
+        List<HashMap<String, Object>> bookmarks = new ArrayList<>();
+        int[] pageCount = {0};
+
+        pdfRenderPool.renderInOrder(students,
+                student -> render(student, classReports, reportType, term, academicYear),
+                (student, item) -> {
+                    if (listener.isCancelled()) {
+                        throw new CancellationException("Class booklet generation cancelled");
+                    }
+
+                    PdfReader reader = new PdfReader(item.getPdf());
+                    int pages = reader.getNumberOfPages();
+                    try {
+                        for (int page = 1; page <= pages; page++) {
+                            copy.addPage(copy.getImportedPage(reader, page));
+                        }
+                    } catch (DocumentException e) {
+                        throw new IOException("Could not add the report of student " + student.getId(), e);
+                    }
+                    copy.freeReader(reader);
+                    reader.close();
+
+                    bookmarks.add(bookmark(item.getTitle(), pageCount[0] + 1));
+                    pageCount[0] += pages;
+                    copy.flush();
+                    listener.onStudentCompleted();
+                });
+
+        copy.setOutlines(bookmarks);
+        document.close();
+
+        log.info("Class booklet completed: {} students, {} pages in {} ms", students.size(), pageCount[0],
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static HashMap<String, Object> bookmark(String title, int page) {
+        HashMap<String, Object> bookmark = new HashMap<>();
+        bookmark.put("Title", title);
+        bookmark.put("Action", "GoTo");
+        bookmark.put("Page", page + " Fit");
+        return bookmark;
+    }
+
+    /**
+     * Every report of the class, built once for the whole export, so each student is only rendered and
+     * carries the same ranks and subject positions as the class lists. Students outside the class
+     * population for the year are missing here and built one by one; so is everyone if the class build fails.
+     */
+    private ClassReports loadClassReports(Long classId, String reportType, Integer term, String academicYear) {
+        Map<Long, ReportDTO> termReports = new HashMap<>();
+        Map<Long, YearlyReportDTO> yearlyReports = new HashMap<>();
+        try {
+            if (isYearly(reportType)) {
+                for (YearlyReportDTO report : reportService.getYearlyReportsForClassAndYear(classId, academicYear)) {
+                    if (report.getStudent() != null) {
+                        yearlyReports.putIfAbsent(report.getStudent().getId(), report);
+                    }
+                }
+            } else {
+                for (ReportDTO report : reportService.getTermReportsForClassAndYear(classId, term, academicYear)) {
+                    if (report.getId() != null) {
+                        termReports.putIfAbsent(report.getId(), report);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not build the {} reports of class {}, building them per student: {}",
+                    reportType, classId, e.getMessage());
+        }
+        return new ClassReports(termReports, yearlyReports);
+    }
+
+    private RenderedReport render(Student student, ClassReports classReports, String reportType, Integer term,
+                                  String academicYear) throws IOException {
+        log.debug("Processing student: {} (ID: {})", student.getFullName(), student.getId());
+        String studentName = student.getFullName().replace(" ", "_");
+        String title = student.getRollNumber() + " - " + student.getFullName();
+
+        try {
+            if (isYearly(reportType)) {
+                YearlyReportDTO report = classReports.getYearly().get(student.getId());
+                if (report == null) {
+                    report = reportService.getYearlyReportForStudentAndYear(student.getId(), academicYear);
+                }
+                return new RenderedReport(String.format("%s_%s_Yearly_%s.pdf",
+                        student.getRollNumber(), studentName, academicYear), title,
+                        yearlyReportPdfService.generateYearlyReportPdf(report), false);
+            }
+
+            ReportDTO report = classReports.getTerm().get(student.getId());
+            if (report == null) {
+                report = reportService.getTermReportForStudentAndYear(student.getId(), term, academicYear);
+            }
+            return new RenderedReport(String.format("%s_%s_Term_%d_%s.pdf",
+                    student.getRollNumber(), studentName, term, academicYear), title,
+                    termReportPdfService.generateTermReportPdf(report), false);
+
+        } catch (Exception e) {
+            log.error("Error generating report for student {} (ID: {}): {}",
+                    student.getFullName(), student.getId(), e.getMessage(), e);
+            return new RenderedReport(String.format("ERROR_%s_%s_%s.pdf",
+                    student.getRollNumber(), studentName, academicYear), "ERROR: " + title,
+                    createErrorPdf(student, reportType, term, academicYear, e), true);
+        }
+    }
+
+    private byte[] createErrorPdf(Student student, String reportType, Integer term,
+                                  String academicYear, Exception exception) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            Document document = new Document();
+            PdfWriter.getInstance(document, outputStream);
+
+            document.open();
+
+            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16, Color.RED);
+            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, Color.BLACK);
+            Font contentFont = FontFactory.getFont(FontFactory.HELVETICA, 10, Color.BLACK);
+
+            document.add(new Paragraph("ERROR GENERATING REPORT", titleFont));
+            document.add(new Paragraph("\n"));
+
+            document.add(new Paragraph("Student Details:", headerFont));
+            document.add(new Paragraph("Name: " + student.getFullName(), contentFont));
+            document.add(new Paragraph("Roll Number: " + student.getRollNumber(), contentFont));
+            document.add(new Paragraph("Student ID: " + student.getStudentId(), contentFont));
+            document.add(new Paragraph("Academic Year: " + academicYear, contentFont));
+            document.add(new Paragraph("\n"));
+
+            document.add(new Paragraph("Report Details:", headerFont));
+            document.add(new Paragraph("Report Type: " + reportType, contentFont));
+            document.add(new Paragraph("Academic Year: " + academicYear, contentFont));
+            if (term != null) {
+                document.add(new Paragraph("Term: " + term, contentFont));
+            }
+            document.add(new Paragraph("\n"));
+
+            document.add(new Paragraph("Error Information:", headerFont));
+            document.add(new Paragraph("Error Message: " + exception.getMessage(), contentFont));
+
+            document.close();
+        } catch (DocumentException e) {
+            throw new IOException("Could not write error report for student " + student.getId(), e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static boolean isYearly(String reportType) {
+        return "yearly".equals(reportType);
+    }
+
+    @Value
+    private static class ClassReports {
+        // By student ID; only the map of the exported report type is filled
+        Map<Long, ReportDTO> term;
+        Map<Long, YearlyReportDTO> yearly;
+    }
+
+    @Value
+    private static class RenderedReport {
+        String filename;
+        // Bookmark title in the class booklet
+        String title;
+        byte[] pdf;
+        boolean error;
+    }
+}
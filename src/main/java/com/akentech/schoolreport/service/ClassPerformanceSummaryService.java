@@ -0,0 +1,195 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ClassPerformanceSummary;
+import com.akentech.schoolreport.dto.ClassPerformanceSummary.StudentPerformance;
+import com.akentech.schoolreport.dto.ReportDTO;
+import com.akentech.schoolreport.dto.SubjectReport;
+import com.akentech.schoolreport.event.AssessmentsChangedEvent;
+import com.akentech.schoolreport.event.StudentsChangedEvent;
+import com.akentech.schoolreport.event.TermPublishedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computes and caches {@link ClassPerformanceSummary}s per class/term/academic year. A summary is built
+ * in a single pass over the class's term reports and dropped when scores, class membership or the
+ * published results of the class change, so the next request recomputes it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClassPerformanceSummaryService {
+
+    private static final int RANKED_STUDENTS = 5;
+
+    private static final Comparator<StudentPerformance> BY_AVERAGE =
+            Comparator.comparingDouble(StudentPerformance::getTermAverage);
+
+    private final ReportService reportService;
+
+    private final Map<SummaryKey, CachedSummary> summaries = new ConcurrentHashMap<>();
+
+    // Bumped on every change so a summary computed from pre-change data is never stored
+    private final AtomicLong generation = new AtomicLong();
+
+    public ClassPerformanceSummary getSummary(Long classId, Integer term, String academicYear) {
+        SummaryKey key = new SummaryKey(classId, term, academicYear);
+
+        CachedSummary cached = summaries.get(key);
+        if (cached != null) {
+            return cached.getSummary();
+        }
+
+        long startGeneration = generation.get();
+        List<ReportDTO> reports = reportService.getTermReportsForClassAndYear(classId, term, academicYear);
+        CachedSummary computed = compute(classId, term, academicYear, reports);
+
+        if (generation.get() == startGeneration) {
+            summaries.put(key, computed);
+        }
+        return computed.getSummary();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssessmentsChanged(AssessmentsChangedEvent event) {
+        generation.incrementAndGet();
+        summaries.values().removeIf(cached -> cached.containsAnyStudent(event.getStudentIds()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        generation.incrementAndGet();
+        summaries.entrySet().removeIf(entry -> event.getClassIds().contains(entry.getKey().getClassId())
+                || entry.getValue().containsAnyStudent(event.getStudentIds()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTermPublished(TermPublishedEvent event) {
+        generation.incrementAndGet();
+        summaries.keySet().removeIf(key -> key.getClassId().equals(event.getClassId())
+                && key.getTerm().equals(event.getTerm()));
+    }
+
+    private CachedSummary compute(Long classId, Integer term, String academicYear, List<ReportDTO> reports) {
+        Set<Long> studentIds = new HashSet<>();
+        double totalAverage = 0.0;
+        int averaged = 0;
+        int passed = 0;
+        int[] bands = new int[5];
+
+        // Bounded heaps: the root is the weakest of the best five / the strongest of the weakest five
+        PriorityQueue<StudentPerformance> top = new PriorityQueue<>(BY_AVERAGE);
+        PriorityQueue<StudentPerformance> bottom = new PriorityQueue<>(BY_AVERAGE.reversed());
+
+        Map<String, double[]> subjectTotals = new TreeMap<>();
+        Map<String, Integer> subjectPassCounts = new TreeMap<>();
+
+        for (ReportDTO report : reports) {
+            if (report.getStudent() != null) {
+                studentIds.add(report.getStudent().getId());
+            }
+
+            double average = report.getTermAverage() != null ? report.getTermAverage() : 0.0;
+            if (report.getTermAverage() != null) {
+                totalAverage += average;
+                averaged++;
+            }
+            if (report.getPassed()) {
+                passed++;
+            }
+            bands[band(average)]++;
+
+            StudentPerformance performance = new StudentPerformance(
+                    report.getStudent() != null ? report.getStudent().getId() : null,
+                    report.getStudentFullName(), report.getRollNumber(), average,
+                    report.getFormattedAverage(), report.getRemarks());
+            offer(top, performance);
+            offer(bottom, performance);
+
+            if (report.getSubjectReports() == null) {
+                continue;
+            }
+            for (SubjectReport subject : report.getSubjectReports()) {
+                if (subject.getSubjectAverage() == null) {
+                    continue;
+                }
+                double[] totals = subjectTotals.computeIfAbsent(subject.getSubjectName(), k -> new double[2]);
+                totals[0] += subject.getSubjectAverage();
+                totals[1]++;
+                subjectPassCounts.merge(subject.getSubjectName(), subject.getPassed() ? 1 : 0, Integer::sum);
+            }
+        }
+
+        Map<String, Double> subjectAverages = new LinkedHashMap<>();
+        subjectTotals.forEach((name, totals) -> subjectAverages.put(name, totals[0] / totals[1]));
+
+        List<StudentPerformance> topStudents = new ArrayList<>(top);
+        topStudents.sort(BY_AVERAGE.reversed());
+        List<StudentPerformance> bottomStudents = new ArrayList<>(bottom);
+        bottomStudents.sort(BY_AVERAGE);
+
+        int total = reports.size();
+        ClassPerformanceSummary summary = ClassPerformanceSummary.builder()
+                .classId(classId)
+                .term(term)
+                .academicYear(academicYear)
+                .totalStudents(total)
+                .classAverage(averaged > 0 ? totalAverage / averaged : 0.0)
+                .passedStudents(passed)
+                .passRate(total > 0 ? (passed * 100.0) / total : 0.0)
+                .topStudents(List.copyOf(topStudents))
+                .bottomStudents(List.copyOf(bottomStudents))
+                .subjectAverages(Collections.unmodifiableMap(subjectAverages))
+                .subjectPassCounts(Collections.unmodifiableMap(new LinkedHashMap<>(subjectPassCounts)))
+                .excellentCount(bands[0])
+                .goodCount(bands[1])
+                .averageCount(bands[2])
+                .poorCount(bands[3])
+                .failCount(bands[4])
+                .build();
+
+        log.info("Computed performance summary for class {} term {} academic year {}: {} students, {} subjects",
+                classId, term, academicYear, total, subjectAverages.size());
+
+        return new CachedSummary(summary, studentIds);
+    }
+
+    private static void offer(PriorityQueue<StudentPerformance> heap, StudentPerformance performance) {
+        heap.offer(performance);
+        if (heap.size() > RANKED_STUDENTS) {
+            heap.poll();
+        }
+    }
+
+    private static int band(double average) {
+        if (average >= 18) return 0;
+        if (average >= 15) return 1;
+        if (average >= 10) return 2;
+        if (average >= 5) return 3;
+        return 4;
+    }
+
+    @Value
+    private static class SummaryKey {
+        Long classId;
+        Integer term;
+        String academicYear;
+    }
+
+    @Value
+    private static class CachedSummary {
+        ClassPerformanceSummary summary;
+        Set<Long> studentIds;
+
+        boolean containsAnyStudent(Collection<Long> ids) {
+            return ids.stream().anyMatch(studentIds::contains);
+        }
+    }
+}
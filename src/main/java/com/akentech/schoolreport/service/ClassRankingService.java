@@ -0,0 +1,321 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ClassRankingSnapshot;
+import com.akentech.schoolreport.dto.StudentSubjectAverageView;
+import com.akentech.schoolreport.event.AssessmentsChangedEvent;
+import com.akentech.schoolreport.event.StudentsChangedEvent;
+import com.akentech.schoolreport.model.Student;
+import com.akentech.schoolreport.repository.AssessmentRepository;
+import com.akentech.schoolreport.repository.StudentRepository;
+import com.akentech.schoolreport.util.ClassRankIndex;
+import com.akentech.schoolreport.util.ClassRanker;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Computes and keeps class rankings per class/term/academic year.
+ * A ranking is built from the class's students and one grouped query returning each student's
+ * subject averages for the term, from which the weighted term average, specialty ranks and subject
+ * positions follow, then kept as a {@link ClassRankIndex}. When scores change, the edited
+ * students are marked on each index and only their averages are re-read and repositioned, in the
+ * background on the refresh pool; until then readers see the previous ranks. An index is dropped
+ * after a change of class membership or subject, or a failed refresh, so it is rebuilt from the
+ * database on next use, as after a restart.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClassRankingService {
+
+    private final StudentRepository studentRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final PlatformTransactionManager transactionManager;
+    @Qualifier("reportRefreshExecutor")
+    private final Executor reportRefreshExecutor;
+
+    private final Map<IndexKey, ClassRankIndex> indexes = new ConcurrentHashMap<>();
+
+    // Students with changed scores per index, not repositioned yet
+    private final Map<IndexKey, Set<Long>> dirty = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final Object refreshLock = new Object();
+
+    // Bumped on every change so an index computed from pre-change data is never stored
+    private final AtomicLong generation = new AtomicLong();
+
+    @Transactional(readOnly = true)
+    public ClassRankingSnapshot getSnapshot(Long classId, Integer term, int academicYearStart, int academicYearEnd) {
+        return getRankIndex(classId, term, academicYearStart, academicYearEnd).snapshot();
+    }
+
+    @Transactional(readOnly = true)
+    public ClassRankIndex getRankIndex(Long classId, Integer term, int academicYearStart, int academicYearEnd) {
+        IndexKey key = new IndexKey(classId, term, academicYearStart, academicYearEnd);
+
+        ClassRankIndex cached = indexes.get(key);
+        if (cached != null) {
+            log.debug("Using cached rank index {}", key);
+            return cached;
+        }
+
+        long startGeneration = generation.get();
+        ClassRankIndex index = ClassRankIndex.of(computeSnapshot(classId, term, academicYearStart, academicYearEnd));
+
+        if (generation.get() == startGeneration) {
+            indexes.put(key, index);
+        }
+        return index;
+    }
+
+    /**
+     * Only marks the edited students of each loaded index; their averages are re-read on the refresh
+     * pool, so a score save never waits for the aggregate queries.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssessmentsChanged(AssessmentsChangedEvent event) {
+        generation.incrementAndGet();
+
+        indexes.forEach((key, index) -> {
+            Set<Long> affected = event.getStudentIds().stream()
+                    .filter(index::containsStudent)
+                    .collect(Collectors.toCollection(HashSet::new));
+            if (!affected.isEmpty()) {
+                dirty.merge(key, affected, (marked, added) -> {
+                    marked.addAll(added);
+                    return marked;
+                });
+            }
+        });
+        if (!dirty.isEmpty()) {
+            scheduleRefresh();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        generation.incrementAndGet();
+        indexes.values().removeIf(index -> event.getClassIds().contains(index.getClassId())
+                || index.containsAnyStudent(event.getStudentIds()));
+        log.debug("Evicted rank indexes for classes {} students {}", event.getClassIds(), event.getStudentIds());
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            reportRefreshExecutor.execute(() -> {
+                // Students marked from here on queue another refresh
+                refreshQueued.set(false);
+                try {
+                    transaction.executeWithoutResult(status -> refreshDirty());
+                } catch (Exception e) {
+                    log.error("Failed to refresh rank indexes", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshQueued.set(false);
+            // Nothing will reposition the marked students, so rebuild those indexes on next use
+            for (IndexKey key : new ArrayList<>(dirty.keySet())) {
+                dirty.remove(key);
+                indexes.remove(key);
+            }
+            log.warn("Refresh pool full, dropped the rank indexes with changed scores");
+        }
+    }
+
+    /**
+     * Re-reads the marked students' averages and repositions them. Refreshes run one at a time, so
+     * averages read later are never overwritten by ones read earlier.
+     */
+    private void refreshDirty() {
+        synchronized (refreshLock) {
+            for (IndexKey key : new ArrayList<>(dirty.keySet())) {
+                // Marks added after this removal start a new set, picked up by the next refresh
+                Set<Long> marked = dirty.remove(key);
+                ClassRankIndex index = indexes.get(key);
+                if (marked == null || index == null) {
+                    continue;
+                }
+                try {
+                    List<Long> studentIds = new ArrayList<>(marked);
+                    Map<Long, Map<Long, double[]>> loaded = loadSubjectAverages(studentIds, key.getTerm(),
+                            key.getAcademicYearStart(), key.getAcademicYearEnd());
+                    Map<Long, Double> averages = new HashMap<>();
+                    for (Long studentId : studentIds) {
+                        averages.put(studentId, weightedAverage(loaded.get(studentId)));
+                    }
+                    index.update(averages, subjectAveragesOf(loaded));
+                    log.debug("Repositioned students {} in rank index {}", studentIds, key);
+                } catch (Exception e) {
+                    // Fall back to a full rebuild on next use
+                    indexes.remove(key, index);
+                    log.warn("Dropped rank index {} after failed incremental update: {}", key, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a fresh snapshot from the database without consulting or filling the cache.
+     */
+    @Transactional(readOnly = true)
+    public ClassRankingSnapshot computeSnapshot(Long classId, Integer term, int academicYearStart, int academicYearEnd) {
+        String academicYear = academicYearStart + "-" + academicYearEnd;
+
+        List<Student> students = studentRepository.findByClassRoomIdAndAcademicYear(
+                classId, academicYearStart, academicYearEnd);
+        if (students.isEmpty()) {
+            students = studentRepository.findByClassRoomId(classId);
+        }
+
+        if (students.isEmpty()) {
+            return new ClassRankingSnapshot(classId, term, academicYear, Map.of(), Map.of());
+        }
+
+        List<Long> studentIds = students.stream().map(Student::getId).collect(Collectors.toList());
+
+        Map<Long, Map<Long, double[]>> rowsByStudent = loadSubjectAverages(
+                studentIds, term, academicYearStart, academicYearEnd);
+        Map<Long, Map<Long, Double>> subjectAveragesByStudent = subjectAveragesOf(rowsByStudent);
+
+        int size = students.size();
+        double[] averages = new double[size];
+        List<Long> departmentIds = new ArrayList<>(size);
+        List<Object> specialties = new ArrayList<>(size);
+        // Subject ID -> column in the ranker's subject averages
+        Map<Long, Integer> subjectColumns = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            Student student = students.get(i);
+            Long departmentId = student.getDepartment() != null ? student.getDepartment().getId() : null;
+            averages[i] = weightedAverage(rowsByStudent.get(student.getId()));
+            departmentIds.add(departmentId);
+            specialties.add(ClassRanker.specialtyGroup(departmentId, student.getSpecialty()));
+            subjectAveragesByStudent.getOrDefault(student.getId(), Map.of()).keySet()
+                    .forEach(subjectId -> subjectColumns.putIfAbsent(subjectId, subjectColumns.size()));
+        }
+
+        double[][] subjectAverages = new double[subjectColumns.size()][size];
+        for (double[] column : subjectAverages) {
+            Arrays.fill(column, Double.NaN);
+        }
+        for (int i = 0; i < size; i++) {
+            int row = i;
+            subjectAveragesByStudent.getOrDefault(students.get(i).getId(), Map.of())
+                    .forEach((subjectId, average) -> subjectAverages[subjectColumns.get(subjectId)][row] = average);
+        }
+
+        ClassRanker.Result ranking = ClassRanker.rank(averages, ClassRanker.groupIds(departmentIds),
+                ClassRanker.groupIds(specialties), subjectAverages);
+
+        // Entries in rank order
+        Map<Long, ClassRankingSnapshot.Entry> entries = new LinkedHashMap<>();
+        for (int i : ranking.order()) {
+            Student student = students.get(i);
+            Map<Long, Double> studentSubjects = subjectAveragesByStudent.getOrDefault(student.getId(), Map.of());
+            Map<Long, Integer> subjectPositions = new HashMap<>();
+            for (Long subjectId : studentSubjects.keySet()) {
+                subjectPositions.put(subjectId, ranking.subjectPosition(subjectColumns.get(subjectId), i));
+            }
+            entries.putIfAbsent(student.getId(), ClassRankingSnapshot.Entry.builder()
+                    .studentId(student.getId())
+                    .studentFullName(student.getFullName())
+                    .rollNumber(student.getRollNumber())
+                    .departmentId(departmentIds.get(i))
+                    .specialty(student.getSpecialty())
+                    .average(averages[i])
+                    .rankInClass(ranking.classRank(i))
+                    .rankInDepartment(ranking.departmentRank(i))
+                    .rankInSpecialty(ranking.specialtyRank(i))
+                    .subjectAverages(studentSubjects)
+                    .subjectPositions(subjectPositions)
+                    .build());
+        }
+
+        Map<Long, Integer> subjectCounts = new HashMap<>();
+        subjectColumns.forEach((subjectId, column) -> subjectCounts.put(subjectId, ranking.subjectCount(column)));
+
+        log.info("Built ranking snapshot for class {} term {} academic year {}: {} students",
+                classId, term, academicYear, entries.size());
+
+        return new ClassRankingSnapshot(classId, term, academicYear, entries, subjectCounts);
+    }
+
+    /**
+     * Subject term averages aggregated by the database, as subject ID -> {coefficient, average} per
+     * student; no assessment entity is loaded. Students without a score in the term have no entry.
+     */
+    private Map<Long, Map<Long, double[]>> loadSubjectAverages(List<Long> studentIds, Integer term,
+                                                               int academicYearStart, int academicYearEnd) {
+        Map<Long, Map<Long, double[]>> rowsByStudent = new HashMap<>();
+        addRows(rowsByStudent, assessmentRepository.findSubjectTermAverages(
+                studentIds, term, academicYearStart, academicYearEnd));
+
+        // Same fallback as the single-student report: students without year-tagged scores use all scores of the term
+        List<Long> withoutYearData = studentIds.stream()
+                .filter(id -> !rowsByStudent.containsKey(id))
+                .collect(Collectors.toList());
+        if (!withoutYearData.isEmpty()) {
+            addRows(rowsByStudent, assessmentRepository.findSubjectTermAverages(withoutYearData, term));
+        }
+        return rowsByStudent;
+    }
+
+    private static void addRows(Map<Long, Map<Long, double[]>> rowsByStudent, List<StudentSubjectAverageView> rows) {
+        for (StudentSubjectAverageView row : rows) {
+            rowsByStudent.computeIfAbsent(row.getStudentId(), k -> new HashMap<>())
+                    .put(row.getSubjectId(), new double[]{row.getCoefficient(), row.getSubjectAverage()});
+        }
+    }
+
+    /**
+     * Coefficient-weighted mean of the subject averages, as the weighted term average query computes it;
+     * 0.0 without any subject.
+     */
+    private static double weightedAverage(Map<Long, double[]> subjects) {
+        if (subjects == null || subjects.isEmpty()) {
+            return 0.0;
+        }
+        double totalWeightedScore = 0.0;
+        double totalCoefficient = 0.0;
+        for (double[] subject : subjects.values()) {
+            totalWeightedScore += subject[1] * subject[0];
+            totalCoefficient += subject[0];
+        }
+        return totalWeightedScore / totalCoefficient;
+    }
+
+    private static Map<Long, Map<Long, Double>> subjectAveragesOf(Map<Long, Map<Long, double[]>> rowsByStudent) {
+        Map<Long, Map<Long, Double>> averages = new HashMap<>();
+        rowsByStudent.forEach((studentId, subjects) -> {
+            Map<Long, Double> studentAverages = new HashMap<>();
+            subjects.forEach((subjectId, subject) -> studentAverages.put(subjectId, subject[1]));
+            averages.put(studentId, studentAverages);
+        });
+        return averages;
+    }
+    @Value
+    private static class IndexKey {
+        Long classId;
+        Integer term;
+        int academicYearStart;
+        int academicYearEnd;
+    }
+}
@@ -0,0 +1,176 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ClassRankingSnapshot;
+import com.akentech.schoolreport.dto.ReportDTO;
+import com.akentech.schoolreport.exception.BusinessRuleException;
+import com.akentech.schoolreport.exception.EntityNotFoundException;
+import com.akentech.schoolreport.repository.ClassRoomRepository;
+import com.akentech.schoolreport.util.AcademicYearUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Writes a class's term reports as NDJSON, one JSON object per line. The rank and average of every
+ * student goes out first from the class ranking snapshot, then the full reports follow in rank order,
+ * built one batch of that snapshot's students at a time in its own transaction, so memory stays bounded
+ * by the batch size and the client can render as soon as the first lines arrive. A published term is
+ * streamed from its published reports, ranks included.
+ */
+@Service
+@Slf4j
+public class ClassReportStreamService {
+
+    private final ReportService reportService;
+    private final ClassRankingService classRankingService;
+    private final PublishedTermStore publishedTermStore;
+    private final ClassRoomRepository classRoomRepository;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ClassReportStreamService(ReportService reportService,
+                                    ClassRankingService classRankingService,
+                                    PublishedTermStore publishedTermStore,
+                                    ClassRoomRepository classRoomRepository,
+                                    ObjectMapper objectMapper,
+                                    @Value("${reports.stream.batch-size:25}") int batchSize) {
+        this.reportService = reportService;
+        this.classRankingService = classRankingService;
+        this.publishedTermStore = publishedTermStore;
+        this.classRoomRepository = classRoomRepository;
+        this.objectMapper = objectMapper.copy()
+                .disable(SerializationFeature.INDENT_OUTPUT)
+                .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Checks the request before the response is committed, so a bad class ID still gets a proper error status.
+     */
+    public void validate(Long classId, Integer term, String academicYear) {
+        if (!classRoomRepository.existsById(classId)) {
+            throw new EntityNotFoundException("ClassRoom", classId);
+        }
+        if (term == null || term < 1 || term > 3) {
+            throw new BusinessRuleException("Term must be 1, 2 or 3");
+        }
+        AcademicYearUtil.parse(academicYear);
+    }
+
+    public void streamTermReports(Long classId, Integer term, String academicYear, OutputStream out)
+            throws IOException {
+        long started = System.nanoTime();
+        int[] years = AcademicYearUtil.parse(academicYear);
+
+        // Published results are what every other read serves, so ranks and reports both come from them
+        Optional<List<ReportDTO>> published = publishedTermStore.findReports(classId, term, years[0], years[1]);
+        ClassRankingSnapshot snapshot = published.isPresent()
+                ? null
+                : classRankingService.getSnapshot(classId, term, years[0], years[1]);
+
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("type", "class");
+        header.put("classId", classId);
+        header.put("term", term);
+        header.put("academicYear", academicYear);
+        header.put("totalStudents", published.isPresent() ? published.get().size() : snapshot.getTotalStudents());
+        writeLine(out, header);
+
+        if (published.isPresent()) {
+            for (ReportDTO report : published.get()) {
+                writeRank(out, report.getId(), report.getStudentFullName(), report.getRollNumber(),
+                        report.getTermAverage(), report.getRankInClass(), report.getRankInDepartment(),
+                        report.getRankInSpecialty());
+            }
+        } else {
+            for (ClassRankingSnapshot.Entry entry : snapshot.getEntries().values()) {
+                writeRank(out, entry.getStudentId(), entry.getStudentFullName(), entry.getRollNumber(),
+                        entry.getAverage(), entry.getRankInClass(), entry.getRankInDepartment(),
+                        entry.getRankInSpecialty());
+            }
+        }
+        out.flush();
+
+        int streamed = 0;
+        try {
+            if (published.isPresent()) {
+                for (ReportDTO report : published.get()) {
+                    writeReport(out, report);
+                    streamed++;
+                }
+                out.flush();
+            } else {
+                // Batches are cut from the snapshot taken above, so every ranked student is sent exactly
+                // once even if the class changes while streaming
+                List<ClassRankingSnapshot.Entry> entries = new ArrayList<>(snapshot.getEntries().values());
+                for (int from = 0; from < entries.size(); from += batchSize) {
+                    List<ReportDTO> batch = reportService.getTermReportsForRankedStudents(classId, term,
+                            academicYear, snapshot, entries.subList(from, Math.min(from + batchSize, entries.size())));
+                    for (ReportDTO report : batch) {
+                        writeReport(out, report);
+                        streamed++;
+                    }
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // Client went away; nothing left to tell it
+            throw e;
+        } catch (Exception e) {
+            log.error("Streaming term {} reports for class {} failed after {} reports", term, classId, streamed, e);
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("type", "error");
+            error.put("message", e.getMessage());
+            writeLine(out, error);
+            out.flush();
+            return;
+        }
+
+        Map<String, Object> end = new LinkedHashMap<>();
+        end.put("type", "end");
+        end.put("streamed", streamed);
+        writeLine(out, end);
+        out.flush();
+
+        log.info("Streamed {} term {} reports for class {} in {} ms", streamed, term, classId,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void writeRank(OutputStream out, Long studentId, String studentFullName, String rollNumber,
+                           Double average, Integer rankInClass, Integer rankInDepartment,
+                           Integer rankInSpecialty) throws IOException {
+        Map<String, Object> rank = new LinkedHashMap<>();
+        rank.put("type", "rank");
+        rank.put("studentId", studentId);
+        rank.put("studentFullName", studentFullName);
+        rank.put("rollNumber", rollNumber);
+        rank.put("average", average);
+        rank.put("rankInClass", rankInClass);
+        rank.put("rankInDepartment", rankInDepartment);
+        rank.put("rankInSpecialty", rankInSpecialty);
+        writeLine(out, rank);
+    }
+
+    private void writeReport(OutputStream out, ReportDTO report) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", "report");
+        line.put("report", report);
+        writeLine(out, line);
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        objectMapper.writeValue(out, value);
+        out.write('\n');
+    }
+}
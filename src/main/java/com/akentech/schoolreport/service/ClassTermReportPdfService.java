@@ -17,8 +17,8 @@ import java.util.List;
 @Slf4j
 public class ClassTermReportPdfService extends BasePdfService {
 
-    public ClassTermReportPdfService(GradeService gradeService) {
-        super(gradeService);
+    public ClassTermReportPdfService(GradeService gradeService, PdfAssetRegistry pdfAssetRegistry) {
+        super(gradeService, pdfAssetRegistry);
     }
 
     public byte[] generateClassTermReportPdf(List<ReportDTO> reports, ClassRoom classRoom,
@@ -32,7 +32,9 @@ public class ClassTermReportPdfService extends BasePdfService {
         document.open();
 
         // Always use hardcoded academic year
-        addClassHeader(document, classRoom, term, academicYear, writer);
+        addTemplate(document, writer,
+                String.format("class-term-header:%s:%d:%s", classRoom.getName(), term, academicYear),
+                target -> addClassHeader(target, classRoom, term, academicYear));
         addClassSummarySection(document, reports, classRoom, term);
         addClassStudentPerformanceTable(document, reports, term);
         addClassStatisticsSection(document, reports, classRoom, term);
@@ -43,8 +45,8 @@ public class ClassTermReportPdfService extends BasePdfService {
 
     // ====== PRIVATE METHODS ======
 
-    private void addClassHeader(Document document, ClassRoom classRoom, Integer term,
-                                String academicYear, PdfWriter writer)
+    private void addClassHeader(ElementListener document, ClassRoom classRoom, Integer term,
+                                String academicYear)
             throws DocumentException, IOException {
 
         PdfPTable headerTable = new PdfPTable(3);
@@ -110,7 +112,7 @@ public class ClassTermReportPdfService extends BasePdfService {
         return contentCell;
     }
 
-    private void createClassFallbackHeader(Document document, ClassRoom classRoom,
+    private void createClassFallbackHeader(ElementListener document, ClassRoom classRoom,
                                            Integer term, String academicYear)
             throws DocumentException {
 
@@ -18,8 +18,8 @@ import java.util.List;
 public class ClassYearlyReportPdfService extends BasePdfService {
 
     // Explicit constructor
-    public ClassYearlyReportPdfService(GradeService gradeService) {
-        super(gradeService);
+    public ClassYearlyReportPdfService(GradeService gradeService, PdfAssetRegistry pdfAssetRegistry) {
+        super(gradeService, pdfAssetRegistry);
     }
 
     public byte[] generateClassYearlyReportPdf(List<YearlyReportDTO> reports, ClassRoom classRoom, String academicYear)
@@ -30,7 +30,9 @@ public class ClassYearlyReportPdfService extends BasePdfService {
 
         document.open();
 
-        addClassYearlyHeader(document, classRoom, academicYear, writer);
+        addTemplate(document, writer,
+                String.format("class-yearly-header:%s:%s", classRoom.getName(), academicYear),
+                target -> addClassYearlyHeader(target, classRoom, academicYear));
         addClassYearlySummarySection(document, reports, classRoom);
         addClassYearlyPerformanceTable(document, reports);
         addClassPromotionStatistics(document, reports, classRoom);
@@ -41,7 +43,7 @@ public class ClassYearlyReportPdfService extends BasePdfService {
 
     // ====== PRIVATE METHODS ======
 
-    private void addClassYearlyHeader(Document document, ClassRoom classRoom, String academicYear, PdfWriter writer)
+    private void addClassYearlyHeader(ElementListener document, ClassRoom classRoom, String academicYear)
             throws DocumentException, IOException {
         PdfPTable headerTable = new PdfPTable(3);
         headerTable.setWidthPercentage(100);
@@ -99,7 +101,7 @@ public class ClassYearlyReportPdfService extends BasePdfService {
         return contentCell;
     }
 
-    private void createClassYearlyFallbackHeader(Document document, ClassRoom classRoom, String academicYear)
+    private void createClassYearlyFallbackHeader(ElementListener document, ClassRoom classRoom, String academicYear)
             throws DocumentException {
         PdfPTable headerTable = new PdfPTable(1);
         headerTable.setWidthPercentage(100);
@@ -1,6 +1,7 @@
 package com.akentech.schoolreport.service;
 
 import com.akentech.schoolreport.dto.ImportResult;
+import com.akentech.schoolreport.event.AssessmentsChangedEvent;
 import com.akentech.schoolreport.model.Assessment;
 import com.akentech.schoolreport.model.Student;
 import com.akentech.schoolreport.model.Subject;
@@ -11,6 +12,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -26,10 +28,12 @@ public class ExcelImportService {
     private final StudentRepository studentRepository;
     private final SubjectRepository subjectRepository;
     private final AssessmentRepository assessmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ImportResult importAssessments(MultipartFile file) {
         ImportResult result = ImportResult.builder().build();
+        Set<Long> importedStudentIds = new HashSet<>();
 
         try {
             // Validate file
@@ -63,7 +67,7 @@ public class ExcelImportService {
                 }
 
                 // Process the sheet
-                processSheet(sheet, term, result);
+                processSheet(sheet, term, result, importedStudentIds);
             }
 
             workbook.close();
@@ -76,10 +80,14 @@ public class ExcelImportService {
             result.addError("Unexpected error: " + e.getMessage());
         }
 
+        if (!importedStudentIds.isEmpty()) {
+            eventPublisher.publishEvent(new AssessmentsChangedEvent(importedStudentIds));
+        }
+
         return result;
     }
 
-    private void processSheet(Sheet sheet, Integer term, ImportResult result) {
+    private void processSheet(Sheet sheet, Integer term, ImportResult result, Set<Long> importedStudentIds) {
         // Read header row to get subject-assessment mapping
         Row headerRow = sheet.getRow(0);
         if (headerRow == null) {
@@ -97,7 +105,7 @@ public class ExcelImportService {
             }
 
             try {
-                processRow(row, rowIndex, headers, term, result);
+                processRow(row, rowIndex, headers, term, result, importedStudentIds);
             } catch (Exception e) {
                 result.addError("Row " + (rowIndex + 1) + ": " + e.getMessage());
             }
@@ -105,7 +113,7 @@ public class ExcelImportService {
     }
 
     private void processRow(Row row, int rowIndex, List<SubjectAssessmentHeader> headers,
-                           Integer term, ImportResult result) {
+                           Integer term, ImportResult result, Set<Long> importedStudentIds) {
         // Read student info from first 3 columns
         String studentId = getCellValueAsString(row.getCell(0));
         String firstName = getCellValueAsString(row.getCell(1));
@@ -182,6 +190,7 @@ public class ExcelImportService {
             // Save or update assessment
             try {
                 saveOrUpdateAssessment(student, subject, term, header.assessmentType, score, result);
+                importedStudentIds.add(student.getId());
             } catch (Exception e) {
                 result.addError("Row " + (rowIndex + 1) + ", Column " + getColumnLetter(colIndex) +
                               ": Failed to save assessment - " + e.getMessage());
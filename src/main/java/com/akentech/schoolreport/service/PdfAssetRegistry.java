@@ -0,0 +1,166 @@
+package com.akentech.schoolreport.service;
+
+import com.lowagie.text.*;
+import com.lowagie.text.Image;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.*;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes each classpath image used in report PDFs once and hands out copies of it.
+ * A copy shares the decoded data and the serial ID of the original, so a writer that meets the same
+ * image on many pages (a merged class booklet, for instance) embeds its bytes once and references the
+ * same XObject from every page. Images that are missing or unreadable are remembered as such and
+ * only logged the first time.
+ * <p>
+ * Static blocks such as the school header and the signature footer are handled the same way: each is
+ * laid out once per key and width into a one-page PDF, and every report imports that page as a form
+ * XObject instead of building the tables, paragraphs and images again.
+ */
+@Component
+@Slf4j
+public class PdfAssetRegistry {
+
+    // Keys carry the report type and the values printed in the block (academic year, term, class)
+    private static final int MAX_TEMPLATES = 256;
+
+    // Column height used while measuring a template; far more than any header or footer needs
+    private static final float MEASURE_HEIGHT = 10_000f;
+
+    private final Map<String, Optional<Image>> images = new ConcurrentHashMap<>();
+    private final Map<String, Optional<RenderedTemplate>> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Lays out the elements of a template. It is run twice when the template is first rendered (measure,
+     * then draw) and again for every document when rendering fails, so it must always add the same elements.
+     */
+    @FunctionalInterface
+    public interface TemplateLayout {
+        void layout(ElementListener target) throws DocumentException, IOException;
+    }
+
+    /**
+     * A scalable copy of the decoded image, or empty when the image cannot be loaded.
+     */
+    public Optional<Image> getImage(String path) {
+        return images.computeIfAbsent(path, this::load).map(Image::getInstance);
+    }
+
+    /**
+     * The block laid out by {@code layout}, imported into {@code writer} from its cached rendering and
+     * wrapped in a full-width table carrying the block's leading spacing, so it flows like the original
+     * elements. Empty when the block cannot be rendered.
+     */
+    public Optional<PdfPTable> getTemplate(PdfWriter writer, String key, float width, TemplateLayout layout) {
+        if (templates.size() >= MAX_TEMPLATES) {
+            templates.clear();
+        }
+        Optional<RenderedTemplate> rendered = templates.computeIfAbsent(key + "@" + width,
+                k -> render(k, width, layout));
+        if (rendered.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            PdfImportedPage page = writer.getImportedPage(new PdfReader(rendered.get().getPdf()), 1);
+            PdfPCell cell = new PdfPCell(Image.getInstance(page), false);
+            cell.setBorder(Rectangle.NO_BORDER);
+            cell.setPadding(0);
+
+            PdfPTable stamp = new PdfPTable(1);
+            stamp.setWidthPercentage(100);
+            stamp.setSpacingBefore(rendered.get().getSpacingBefore());
+            stamp.addCell(cell);
+            return Optional.of(stamp);
+        } catch (Exception e) {
+            log.warn("Could not stamp PDF template {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<RenderedTemplate> render(String key, float width, TemplateLayout layout) {
+        try {
+            // Measure first so the template page is exactly as tall as the block
+            ColumnText measure = new ColumnText(null);
+            measure.setSimpleColumn(0, 0, width, MEASURE_HEIGHT);
+            List<Element> measured = collect(layout);
+            measured.forEach(measure::addElement);
+            if (ColumnText.hasMoreText(measure.go(true))) {
+                log.warn("PDF template {} does not fit in one column", key);
+                return Optional.empty();
+            }
+            float height = MEASURE_HEIGHT - measure.getYLine();
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            Document document = new Document(new Rectangle(width, height), 0, 0, 0, 0);
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+            document.open();
+
+            ColumnText column = new ColumnText(writer.getDirectContent());
+            column.setSimpleColumn(0, 0, width, height);
+            collect(layout).forEach(column::addElement);
+            column.go();
+
+            document.close();
+            log.debug("Rendered PDF template {} ({}x{})", key, width, height);
+            return Optional.of(new RenderedTemplate(outputStream.toByteArray(), spacingBefore(measured.get(0))));
+        } catch (Exception e) {
+            log.warn("Could not render PDF template {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // A column consumes its elements, so every pass needs a fresh set
+    private static List<Element> collect(TemplateLayout layout) throws DocumentException, IOException {
+        List<Element> elements = new ArrayList<>();
+        layout.layout(elements::add);
+        if (elements.isEmpty()) {
+            throw new DocumentException("Template has no elements");
+        }
+        return elements;
+    }
+
+    // Spacing a column drops at its top but a document keeps in mid-page
+    private static float spacingBefore(Element element) {
+        if (element instanceof PdfPTable) {
+            return ((PdfPTable) element).spacingBefore();
+        }
+        if (element instanceof Paragraph) {
+            return ((Paragraph) element).getSpacingBefore();
+        }
+        return 0;
+    }
+
+    private Optional<Image> load(String path) {
+        try {
+            ClassPathResource resource = new ClassPathResource(path);
+            if (!resource.exists()) {
+                log.warn("PDF image not found on classpath: {}", path);
+                return Optional.empty();
+            }
+            Image image = Image.getInstance(resource.getURL());
+            log.debug("Decoded PDF image {} ({}x{})", path, image.getWidth(), image.getHeight());
+            return Optional.of(image);
+        } catch (Exception e) {
+            log.warn("Could not load image: {}", path);
+            return Optional.empty();
+        }
+    }
+
+    @Value
+    private static class RenderedTemplate {
+        byte[] pdf;
+        float spacingBefore;
+    }
+}
@@ -0,0 +1,162 @@
+package com.akentech.schoolreport.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders the PDFs of a batch export on the shared render pool and hands them back in input order.
+ * Each export keeps at most its concurrency limit of PDFs queued or rendering, and the next one is only
+ * submitted once the oldest result has been taken, so an export holds a bounded number of finished PDFs
+ * and several exports share the pool instead of one filling its queue. Queue wait and render time of
+ * every PDF are recorded for {@link #getStats()}.
+ */
+@Service
+@Slf4j
+public class PdfRenderPool {
+
+    private final ThreadPoolTaskExecutor pdfRenderExecutor;
+    private final int perJobConcurrency;
+
+    private final AtomicInteger activeJobs = new AtomicInteger();
+    private final AtomicLong jobs = new AtomicLong();
+    private final AtomicLong rendered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalQueueWaitNanos = new AtomicLong();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final AtomicLong totalRenderNanos = new AtomicLong();
+    private final AtomicLong maxRenderNanos = new AtomicLong();
+
+    public PdfRenderPool(@Qualifier("pdfRenderExecutor") ThreadPoolTaskExecutor pdfRenderExecutor,
+                         @Value("${reports.render.per-job-concurrency:0}") int perJobConcurrency) {
+        this.pdfRenderExecutor = pdfRenderExecutor;
+        this.perJobConcurrency = perJobConcurrency > 0
+                ? perJobConcurrency
+                : Math.max(1, pdfRenderExecutor.getMaxPoolSize() / 2);
+    }
+
+    /**
+     * Renders one item; runs on a pool thread, so it must not rely on the caller's persistence context.
+     */
+    @FunctionalInterface
+    public interface RenderTask<T, R> {
+        R render(T item) throws Exception;
+    }
+
+    /**
+     * Takes the rendered results on the calling thread, in the order of the items.
+     */
+    @FunctionalInterface
+    public interface ResultConsumer<T, R> {
+        void accept(T item, R result) throws IOException;
+    }
+
+    /**
+     * Renders every item with at most the configured number of renders in flight and passes the results to
+     * {@code consumer} in item order. A failing render or consumer stops the run and cancels what is still
+     * in flight; the failure is rethrown as is when unchecked or an {@link IOException}.
+     */
+    public <T, R> void renderInOrder(List<T> items, RenderTask<T, R> task, ResultConsumer<T, R> consumer)
+            throws IOException {
+        int window = Math.min(perJobConcurrency, Math.max(1, items.size()));
+        Deque<Future<R>> inFlight = new ArrayDeque<>(window);
+        int next = 0;
+
+        activeJobs.incrementAndGet();
+        jobs.incrementAndGet();
+        try {
+            while (next < items.size() && inFlight.size() < window) {
+                inFlight.add(submit(task, items.get(next++)));
+            }
+            for (T item : items) {
+                R result = await(inFlight.poll());
+                // Keep the pool busy while the result is written
+                if (next < items.size()) {
+                    inFlight.add(submit(task, items.get(next++)));
+                }
+                consumer.accept(item, result);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+            activeJobs.decrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long renderedCount = rendered.get();
+        long finished = renderedCount + failed.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", pdfRenderExecutor.getMaxPoolSize());
+        stats.put("perJobConcurrency", perJobConcurrency);
+        stats.put("activeThreads", pdfRenderExecutor.getActiveCount());
+        stats.put("queued", pdfRenderExecutor.getThreadPoolExecutor().getQueue().size());
+        stats.put("activeJobs", activeJobs.get());
+        stats.put("jobs", jobs.get());
+        stats.put("rendered", renderedCount);
+        stats.put("failed", failed.get());
+        stats.put("avgQueueWaitMs", finished > 0 ? totalQueueWaitNanos.get() / 1e6 / finished : 0.0);
+        stats.put("maxQueueWaitMs", maxQueueWaitNanos.get() / 1e6);
+        stats.put("avgRenderMs", finished > 0 ? totalRenderNanos.get() / 1e6 / finished : 0.0);
+        stats.put("maxRenderMs", maxRenderNanos.get() / 1e6);
+        return stats;
+    }
+
+    private <T, R> Future<R> submit(RenderTask<T, R> task, T item) {
+        long queuedAt = System.nanoTime();
+        return pdfRenderExecutor.submit(() -> {
+            long startedAt = System.nanoTime();
+            record(totalQueueWaitNanos, maxQueueWaitNanos, startedAt - queuedAt);
+            try {
+                R result = task.render(item);
+                rendered.incrementAndGet();
+                return result;
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                throw e;
+            } finally {
+                record(totalRenderNanos, maxRenderNanos, System.nanoTime() - startedAt);
+            }
+        });
+    }
+
+    private static <R> R await(Future<R> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a PDF render");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("PDF render failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static void record(AtomicLong total, AtomicLong max, long nanos) {
+        total.addAndGet(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+}
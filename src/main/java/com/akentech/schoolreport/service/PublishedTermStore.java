@@ -0,0 +1,134 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ReportDTO;
+import com.akentech.schoolreport.event.TermPublishedEvent;
+import com.akentech.schoolreport.repository.PublishedTermResultRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Read side of published term results. A published class/term/year is decoded from its stored
+ * payload once and then served from memory; unpublished keys are remembered too, so report reads
+ * for terms that were never published cost one map lookup after the first miss. The decoded reports
+ * are kept for every reader, so each read hands out copies.
+ */
+@Component
+@Slf4j
+public class PublishedTermStore {
+
+    private static final TypeReference<List<ReportDTO>> REPORT_LIST = new TypeReference<>() {
+    };
+
+    private final PublishedTermResultRepository publishedTermResultRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Optional<PublishedReports>> published = new ConcurrentHashMap<>();
+
+    public PublishedTermStore(PublishedTermResultRepository publishedTermResultRepository,
+                              ObjectMapper objectMapper) {
+        this.publishedTermResultRepository = publishedTermResultRepository;
+        this.objectMapper = objectMapper.copy()
+                .disable(SerializationFeature.INDENT_OUTPUT)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Copies of the published reports of the class in rank order, or empty if the term is not published.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<ReportDTO>> findReports(Long classId, Integer term, int academicYearStart, int academicYearEnd) {
+        return lookup(classId, term, academicYearStart, academicYearEnd)
+                .map(reports -> reports.getReports().stream()
+                        .map(ReportDTO::copy)
+                        .collect(Collectors.toCollection(ArrayList::new)));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ReportDTO> findReport(Long classId, Integer term, int academicYearStart, int academicYearEnd,
+                                          Long studentId) {
+        return lookup(classId, term, academicYearStart, academicYearEnd)
+                .map(reports -> reports.getByStudent().get(studentId))
+                .map(ReportDTO::copy);
+    }
+
+    public boolean isPublished(Long classId, Integer term, int academicYearStart, int academicYearEnd) {
+        return lookup(classId, term, academicYearStart, academicYearEnd).isPresent();
+    }
+
+    public byte[] encode(List<ReportDTO> reports) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, reports);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize published term results", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    List<ReportDTO> decode(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, REPORT_LIST);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read published term results", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTermPublished(TermPublishedEvent event) {
+        published.remove(key(event.getClassId(), event.getTerm(), event.getAcademicYearStart(), event.getAcademicYearEnd()));
+        log.debug("Evicted published results of class {} term {}", event.getClassId(), event.getTerm());
+    }
+
+    private Optional<PublishedReports> lookup(Long classId, Integer term, int academicYearStart, int academicYearEnd) {
+        return published.computeIfAbsent(key(classId, term, academicYearStart, academicYearEnd),
+                k -> publishedTermResultRepository
+                        .findByClassIdAndTermAndAcademicYear(classId, term, academicYearStart, academicYearEnd)
+                        .map(result -> new PublishedReports(decode(result.getPayload()))));
+    }
+
+    private String key(Long classId, Integer term, int academicYearStart, int academicYearEnd) {
+        return classId + ":" + term + ":" + academicYearStart + "-" + academicYearEnd;
+    }
+
+    private static class PublishedReports {
+        private final List<ReportDTO> reports;
+        private final Map<Long, ReportDTO> byStudent;
+
+        private PublishedReports(List<ReportDTO> reports) {
+            this.reports = List.copyOf(reports);
+            Map<Long, ReportDTO> index = new HashMap<>(reports.size() * 2);
+            for (ReportDTO report : reports) {
+                if (report.getId() != null) {
+                    index.put(report.getId(), report);
+                }
+            }
+            this.byStudent = index;
+        }
+
+        private List<ReportDTO> getReports() {
+            return reports;
+        }
+
+        private Map<Long, ReportDTO> getByStudent() {
+            return byStudent;
+        }
+    }
+}
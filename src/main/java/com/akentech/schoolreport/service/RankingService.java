@@ -19,15 +19,19 @@ public class RankingService {
     private final AverageRecordRepository averageRecordRepository;
 
     /**
-     * Compute ranking for students in this list for the given term.
+     * Compute ranking for students in this list for the given term of an academic year.
      * Returns a list sorted by rank ascending (1 best).
      * Also computes department ranking for students in the same department within the classroom.
      */
-    public List<StudentRank> computeRanking(List<Student> students, Integer term) {
+    public List<StudentRank> computeRanking(List<Student> students, Integer term,
+                                            Integer academicYearStart, Integer academicYearEnd) {
         if (students.isEmpty()) return Collections.emptyList();
 
-        List<AverageRecord> records = averageRecordRepository.findByStudentInAndTerm(students, term);
-        Map<Long, AverageRecord> byStudent = records.stream().collect(Collectors.toMap(r -> r.getStudent().getId(), r -> r));
+        List<Long> studentIds = students.stream().map(Student::getId).collect(Collectors.toList());
+        List<AverageRecord> records = averageRecordRepository.findByStudentIdInAndTermAndAcademicYear(
+                studentIds, term, academicYearStart, academicYearEnd);
+        Map<Long, AverageRecord> byStudent = records.stream()
+                .collect(Collectors.toMap(r -> r.getStudent().getId(), r -> r, (a, b) -> a));
 
         List<StudentRank> ranks = new ArrayList<>();
         for (Student s : students) {
@@ -65,8 +69,10 @@ public class RankingService {
         // Compute department rankings
         computeDepartmentRanks(ranks);
 
-        log.info("Computed ranking for term {}: {} entries, top student: {} {}",
+        log.info("Computed ranking for term {} academic year {}-{}: {} entries, top student: {} {}",
                 term,
+                academicYearStart,
+                academicYearEnd,
                 ranks.size(),
                 ranks.get(0).getStudent().getFirstName(),
                 ranks.get(0).getStudent().getLastName());
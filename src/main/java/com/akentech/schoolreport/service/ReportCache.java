@@ -0,0 +1,165 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.event.AssessmentsChangedEvent;
+import com.akentech.schoolreport.event.StudentsChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited in-process cache for computed class results (term reports, yearly results).
+ * Entries remember the class and the students they were computed from, so assessment, enrollment and
+ * student writes evict exactly the results they affect. Least recently used entries go first once
+ * the size limit is reached. Cached values are shared, so callers copy mutable reports before
+ * handing them out.
+ */
+@Component
+@Slf4j
+public class ReportCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    // Access-ordered for LRU eviction; guarded by "this"
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Bumped on every invalidation so a value computed from pre-change data is never stored
+    private final AtomicLong generation = new AtomicLong();
+
+    public ReportCache(@Value("${reports.cache.max-entries:200}") int maxEntries,
+                       @Value("${reports.cache.ttl:PT30M}") Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Returns the cached value for the key, or computes and caches it.
+     *
+     * @param classId    class the value belongs to, used for class-level eviction
+     * @param loader     computes the value on a miss
+     * @param studentIds extracts the students the value was computed from
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Long classId, Supplier<T> loader, Function<T, Collection<Long>> studentIds) {
+        long now = System.currentTimeMillis();
+
+        synchronized (this) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    hits.incrementAndGet();
+                    return (T) entry.value;
+                }
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        long startGeneration = generation.get();
+        T value = loader.get();
+
+        synchronized (this) {
+            if (generation.get() == startGeneration) {
+                entries.put(key, new CacheEntry(value, classId, Set.copyOf(studentIds.apply(value)),
+                        System.currentTimeMillis() + ttlMillis));
+                trimToSize();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the cached value for the key without computing it on a miss.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T getIfPresent(String key) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return (T) entry.value;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssessmentsChanged(AssessmentsChangedEvent event) {
+        evict(Set.of(), event.getStudentIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        evict(event.getClassIds(), event.getStudentIds());
+    }
+
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", ttlMillis / 1000);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests > 0 ? (hitCount * 100.0) / requests : 0.0);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private synchronized void evict(Set<Long> classIds, Set<Long> studentIds) {
+        generation.incrementAndGet();
+
+        int before = entries.size();
+        entries.values().removeIf(entry -> (entry.classId != null && classIds.contains(entry.classId))
+                || studentIds.stream().anyMatch(entry.studentIds::contains));
+        int removed = before - entries.size();
+
+        invalidations.addAndGet(removed);
+        log.debug("Invalidated {} cached report results for classes {} students {}", removed, classIds, studentIds);
+    }
+
+    private void trimToSize() {
+        Iterator<CacheEntry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static class CacheEntry {
+        private final Object value;
+        private final Long classId;
+        private final Set<Long> studentIds;
+        private final long expiresAt;
+
+        private CacheEntry(Object value, Long classId, Set<Long> studentIds, long expiresAt) {
+            this.value = value;
+            this.classId = classId;
+            this.studentIds = studentIds;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ReportDTO;
+import com.akentech.schoolreport.dto.ReportJobStatus;
+import com.akentech.schoolreport.exception.BusinessRuleException;
+import com.akentech.schoolreport.exception.EntityNotFoundException;
+import com.akentech.schoolreport.repository.ClassRoomRepository;
+import com.akentech.schoolreport.model.ClassRoom;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs class term report generation and batch report ZIPs in the background. Each job reports
+ * per-student progress, can be cancelled while queued or running, and keeps its result for a
+ * configurable retention period after it finishes; a batch ZIP is written to a temporary file that is
+ * deleted with the job, by a periodic purge or at the latest on shutdown. Jobs run on a dedicated bounded pool, so a burst of whole-class jobs
+ * queues up (or is rejected) instead of competing with interactive report requests.
+ */
+@Service
+@Slf4j
+public class ReportJobService {
+
+    private final ReportService reportService;
+    private final ClassRoomRepository classRoomRepository;
+    private final BatchReportExportService batchReportExportService;
+    private final ThreadPoolTaskExecutor reportJobExecutor;
+    private final Duration retention;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    public ReportJobService(ReportService reportService,
+                            ClassRoomRepository classRoomRepository,
+                            BatchReportExportService batchReportExportService,
+                            @Qualifier("reportJobExecutor") ThreadPoolTaskExecutor reportJobExecutor,
+                            @Value("${reports.jobs.retention:PT1H}") Duration retention) {
+        this.reportService = reportService;
+        this.classRoomRepository = classRoomRepository;
+        this.batchReportExportService = batchReportExportService;
+        this.reportJobExecutor = reportJobExecutor;
+        this.retention = retention;
+    }
+
+    public ReportJobStatus submit(Long classId, Integer term, String academicYear) {
+        purgeExpired();
+
+        if (!classRoomRepository.existsById(classId)) {
+            throw new EntityNotFoundException("ClassRoom", classId);
+        }
+        if (term == null || term < 1 || term > 3) {
+            throw new BusinessRuleException("Term must be 1, 2 or 3");
+        }
+
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), ReportJobStatus.Kind.CLASS_REPORT,
+                null, classId, term, academicYear);
+        return queue(job);
+    }
+
+    /**
+     * Queues a ZIP of every student's term or yearly report PDF; download it with {@link #getZipResult}.
+     */
+    public ReportJobStatus submitBatchZip(Long classId, String reportType, Integer term, String academicYear) {
+        purgeExpired();
+        batchReportExportService.validate(classId, reportType, term);
+
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), ReportJobStatus.Kind.BATCH_ZIP,
+                reportType, classId, term, academicYear);
+        return queue(job);
+    }
+
+    private ReportJobStatus queue(ReportJob job) {
+        jobs.put(job.id, job);
+
+        try {
+            job.future = reportJobExecutor.submit(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            throw new BusinessRuleException("Too many report jobs are queued, please try again later");
+        }
+
+        log.info("Queued {} report job {} for class {} term {} academic year {}",
+                job.kind, job.id, job.classId, job.term, job.academicYear);
+        return job.toStatus();
+    }
+
+    public ReportJobStatus getStatus(String jobId) {
+        return findJob(jobId).toStatus();
+    }
+
+    public ReportJobStatus cancel(String jobId) {
+        ReportJob job = findJob(jobId);
+
+        synchronized (job) {
+            if (job.state == ReportJobStatus.State.QUEUED) {
+                // Never started: drop it from the queue
+                job.future.cancel(false);
+                job.finish(ReportJobStatus.State.CANCELLED, null, null);
+            } else if (job.state == ReportJobStatus.State.RUNNING) {
+                // Picked up by the generation loop before the next student
+                job.cancelRequested = true;
+            }
+        }
+
+        log.info("Cancellation requested for report job {}", jobId);
+        return job.toStatus();
+    }
+
+    /**
+     * Reports of a completed job, in class rank order.
+     */
+    public List<ReportDTO> getResult(String jobId) {
+        ReportJob job = findCompletedJob(jobId, ReportJobStatus.Kind.CLASS_REPORT);
+        // The job keeps its result until it expires, so every caller gets its own copy
+        return job.result.stream().map(ReportDTO::copy).toList();
+    }
+
+    /**
+     * The ZIP file written by a completed batch job; it is deleted when the job expires.
+     */
+    public Path getZipResult(String jobId) {
+        ReportJob job = findCompletedJob(jobId, ReportJobStatus.Kind.BATCH_ZIP);
+        return job.file;
+    }
+
+    public String getZipFilename(String jobId) {
+        ReportJob job = findCompletedJob(jobId, ReportJobStatus.Kind.BATCH_ZIP);
+        ClassRoom classRoom = classRoomRepository.findById(job.classId)
+                .orElseThrow(() -> new EntityNotFoundException("ClassRoom", job.classId));
+        return batchReportExportService.getZipFilename(classRoom, job.reportType, job.term, job.academicYear);
+    }
+
+    private void run(ReportJob job) {
+        synchronized (job) {
+            if (job.state != ReportJobStatus.State.QUEUED) {
+                return;
+            }
+            job.state = ReportJobStatus.State.RUNNING;
+            job.startedAt = LocalDateTime.now();
+        }
+
+        try {
+            if (job.kind == ReportJobStatus.Kind.BATCH_ZIP) {
+                writeZip(job);
+                job.finish(ReportJobStatus.State.COMPLETED, null, null);
+                log.info("Report job {} completed with a ZIP of {} reports", job.id, job.total);
+            } else {
+                List<ReportDTO> reports = reportService.getTermReportsForClassAndYear(
+                        job.classId, job.term, job.academicYear, job);
+                job.finish(ReportJobStatus.State.COMPLETED, List.copyOf(reports), null);
+                log.info("Report job {} completed with {} reports", job.id, reports.size());
+            }
+        } catch (CancellationException e) {
+            job.deleteFile();
+            job.finish(ReportJobStatus.State.CANCELLED, null, null);
+            log.info("Report job {} cancelled after {}/{} students", job.id, job.processed.get(), job.total);
+        } catch (Exception e) {
+            job.deleteFile();
+            job.finish(ReportJobStatus.State.FAILED, null, e.getMessage());
+            log.error("Report job {} failed", job.id, e);
+        }
+    }
+
+    private void writeZip(ReportJob job) throws IOException {
+        job.file = Files.createTempFile("report-job-" + job.id + "-", ".zip");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(job.file))) {
+            batchReportExportService.writeZip(job.classId, job.reportType, job.term, job.academicYear, out, job);
+        }
+    }
+
+    private ReportJob findCompletedJob(String jobId, ReportJobStatus.Kind kind) {
+        ReportJob job = findJob(jobId);
+        if (job.kind != kind) {
+            throw new BusinessRuleException("Report job " + jobId + " is a " + job.kind + " job");
+        }
+        if (job.state != ReportJobStatus.State.COMPLETED) {
+            throw new BusinessRuleException("Report job " + jobId + " is " + job.state);
+        }
+        return job;
+    }
+
+    private ReportJob findJob(String jobId) {
+        purgeExpired();
+        ReportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFoundException("Report job", jobId);
+        }
+        return job;
+    }
+
+    @Scheduled(fixedDelayString = "${reports.jobs.purge-interval:PT5M}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            LocalDateTime finishedAt = job.finishedAt;
+            if (finishedAt != null && finishedAt.plus(retention).isBefore(now)) {
+                job.deleteFile();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @PreDestroy
+    public void deleteFiles() {
+        jobs.values().forEach(ReportJob::deleteFile);
+    }
+
+    private class ReportJob implements ReportProgressListener {
+        private final String id;
+        private final ReportJobStatus.Kind kind;
+        private final String reportType;
+        private final Long classId;
+        private final Integer term;
+        private final String academicYear;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicInteger processed = new AtomicInteger();
+
+        private volatile ReportJobStatus.State state = ReportJobStatus.State.QUEUED;
+        private volatile boolean cancelRequested;
+        private volatile int total;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile List<ReportDTO> result;
+        private volatile String error;
+        private volatile Future<?> future;
+        private volatile Path file;
+
+        private ReportJob(String id, ReportJobStatus.Kind kind, String reportType,
+                          Long classId, Integer term, String academicYear) {
+            this.id = id;
+            this.kind = kind;
+            this.reportType = reportType;
+            this.classId = classId;
+            this.term = term;
+            this.academicYear = academicYear;
+        }
+
+        @Override
+        public void onStart(int totalStudents) {
+            total = totalStudents;
+        }
+
+        @Override
+        public void onStudentCompleted() {
+            processed.incrementAndGet();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelRequested;
+        }
+
+        private void deleteFile() {
+            Path path = file;
+            if (path == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Could not delete ZIP of report job {}: {}", id, e.getMessage());
+            }
+        }
+
+        private synchronized void finish(ReportJobStatus.State finalState, List<ReportDTO> reports, String message) {
+            if (finalState == ReportJobStatus.State.COMPLETED && reports != null && total == 0) {
+                // Served from the cache, so no progress was ever reported
+                total = reports.size();
+            }
+            result = reports;
+            error = message;
+            finishedAt = LocalDateTime.now();
+            state = finalState;
+        }
+
+        private ReportJobStatus toStatus() {
+            int done = state == ReportJobStatus.State.COMPLETED ? total : processed.get();
+            return ReportJobStatus.builder()
+                    .jobId(id)
+                    .kind(kind)
+                    .reportType(reportType)
+                    .classId(classId)
+                    .term(term)
+                    .academicYear(academicYear)
+                    .state(state)
+                    .totalStudents(total)
+                    .processedStudents(done)
+                    .progressPercent(state == ReportJobStatus.State.COMPLETED ? 100.0
+                            : total > 0 ? Math.round(done * 1000.0 / total) / 10.0 : 0.0)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .expiresAt(finishedAt != null ? finishedAt.plus(retention) : null)
+                    .error(error)
+                    .build();
+        }
+    }
+}
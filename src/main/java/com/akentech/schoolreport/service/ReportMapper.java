@@ -1,6 +1,9 @@
 package com.akentech.schoolreport.service;
 
+import com.akentech.schoolreport.dto.ClassGradebook;
+import com.akentech.schoolreport.dto.ClassReportHeader;
 import com.akentech.schoolreport.dto.ReportDTO;
+import com.akentech.schoolreport.dto.ReportStudent;
 import com.akentech.schoolreport.dto.SubjectReport;
 import com.akentech.schoolreport.model.Assessment;
 import com.akentech.schoolreport.model.Student;
@@ -11,6 +14,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.Year;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -25,6 +30,14 @@ public class ReportMapper {
 
     public ReportDTO toReportDTO(Student student, List<SubjectReport> subjectReports,
                                  Integer term, Map<String, Object> statistics) {
+        return toReportDTO(student, ClassReportHeader.from(student.getClassRoom()), subjectReports, term, statistics);
+    }
+
+    /**
+     * Builds the report with a class header shared by all reports of the same class list.
+     */
+    public ReportDTO toReportDTO(Student student, ClassReportHeader classHeader, List<SubjectReport> subjectReports,
+                                 Integer term, Map<String, Object> statistics) {
         String className = student.getClassRoom() != null ? student.getClassRoom().getName() : "";
 
         // FILTER OUT subjects without any assessment data
@@ -39,7 +52,8 @@ public class ReportMapper {
 
         return ReportDTO.builder()
                 .id(student.getId())
-                .student(student)
+                .student(ReportStudent.from(student))
+                .classHeader(classHeader)
                 .studentFullName(student.getFullName())
                 .rollNumber(student.getRollNumber())
                 .className(className)
@@ -53,9 +67,6 @@ public class ReportMapper {
                 .remarks((String) statistics.get("remarks"))
                 .subjectReports(subjectsWithAssessments) // Use filtered list
                 .academicYear(getAcademicYear(student))
-                .classTeacher(student.getClassRoom() != null ?
-                        (student.getClassRoom().getClassTeacher() != null ?
-                                student.getClassRoom().getClassTeacher() : "Not Assigned") : "Not Assigned")
                 .passRate(passRate != null ? passRate : 0.0)
                 .subjectsPassed((int) subjectsPassed)
                 .totalSubjects(totalSubjects)
@@ -65,8 +76,6 @@ public class ReportMapper {
     public SubjectReport toSubjectReport(Subject subject, List<Assessment> assessments,
                                          Integer term, String className) {
 
-        AssessmentType[] types = AssessmentType.getAssessmentsForTerm(term);
-
         Double assessment1 = null;
         Double assessment2 = null;
 
@@ -92,6 +101,14 @@ public class ReportMapper {
             // Term 3 only has exam
         }
 
+        return toSubjectReport(subject, assessment1, assessment2, term, className);
+    }
+
+    /**
+     * Subject report from already extracted scores (first and second assessment of the term).
+     */
+    public SubjectReport toSubjectReport(Subject subject, Double assessment1, Double assessment2,
+                                         Integer term, String className) {
         // Only calculate average if there's at least one assessment
         Double subjectAverage = null;
         String letterGrade = null;
@@ -115,6 +132,7 @@ public class ReportMapper {
                 letterGrade, coefficient, hasAssessment);
 
         return SubjectReport.builder()
+                .subjectId(subject.getId())
                 .subjectName(subject.getName())
                 .coefficient(coefficient)  // Use the safe value
                 .assessment1(assessment1)
@@ -126,14 +144,39 @@ public class ReportMapper {
                 .build();
     }
 
+    /**
+     * Subject reports of one gradebook row, in enrollment order, for the subjects with at least one score.
+     */
+    public List<SubjectReport> toSubjectReports(ClassGradebook gradebook, int studentIndex, String className) {
+        List<SubjectReport> subjectReports = new ArrayList<>();
+
+        for (int j : gradebook.subjectsOf(studentIndex)) {
+            if (!gradebook.hasData(studentIndex, j)) {
+                continue;
+            }
+            double first = gradebook.firstScore(studentIndex, j);
+            double second = gradebook.secondScore(studentIndex, j);
+            subjectReports.add(toSubjectReport(gradebook.getSubject(j),
+                    Double.isNaN(first) ? null : first,
+                    Double.isNaN(second) ? null : second,
+                    gradebook.getTerm(), className));
+        }
+
+        return subjectReports;
+    }
+
     private boolean hasAtLeastOneAssessment(SubjectReport subjectReport) {
         return subjectReport.getHasData() != null && subjectReport.getHasData();
     }
 
+    /**
+     * Score of the earliest saved assessment of the type, the same one the gradebook and the
+     * weighted average query pick when a type was entered more than once.
+     */
     private Double extractAssessmentScore(List<Assessment> assessments, AssessmentType type) {
         Optional<Assessment> assessment = assessments.stream()
                 .filter(a -> a.getType() == type)
-                .findFirst();
+                .min(Comparator.comparing(Assessment::getId, Comparator.nullsLast(Comparator.naturalOrder())));
 
         if (assessment.isPresent()) {
             Double score = assessment.get().getScore();
@@ -0,0 +1,34 @@
+package com.akentech.schoolreport.service;
+
+/**
+ * Receives per-student progress while class reports are generated and can stop the generation.
+ */
+public interface ReportProgressListener {
+
+    ReportProgressListener NONE = new ReportProgressListener() {
+        @Override
+        public void onStart(int totalStudents) {
+        }
+
+        @Override
+        public void onStudentCompleted() {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    void onStart(int totalStudents);
+
+    /**
+     * Called once per finished student; may be called from several worker threads.
+     */
+    void onStudentCompleted();
+
+    /**
+     * Checked before each student; when true the generation stops with a {@link java.util.concurrent.CancellationException}.
+     */
+    boolean isCancelled();
+}
@@ -1,5 +1,6 @@
 package com.akentech.schoolreport.service;
 
+import com.akentech.schoolreport.dto.ClassRankingSnapshot;
 import com.akentech.schoolreport.dto.ReportDTO;
 import com.akentech.schoolreport.dto.YearlyReportDTO;
 import com.akentech.schoolreport.dto.YearlySummaryDTO;
@@ -28,8 +29,29 @@ public interface ReportService {
     YearlyReportDTO getYearlyReportForStudentAndYear(Long studentId, String academicYear);
 
     List<ReportDTO> getTermReportsForClassAndYear(Long classId, Integer term, String academicYear);
+
+    /**
+     * Same as {@link #getTermReportsForClassAndYear(Long, Integer, String)}, telling the listener about
+     * progress while the reports are computed; published results are served as they were published.
+     */
+    List<ReportDTO> getTermReportsForClassAndYear(Long classId, Integer term, String academicYear,
+                                                  ReportProgressListener listener);
+
+    /**
+     * Computes the class's term reports from the current scores, ignoring any published results.
+     * Meant for publishing them; every other read must see the published results.
+     */
+    List<ReportDTO> computeTermReportsForClassAndYear(Long classId, Integer term, String academicYear);
     Page<ReportDTO> getPaginatedTermReportsForClassAndYear(Long classId, Integer term, String academicYear, Pageable pageable);
 
+    /**
+     * Computed term reports of the given students of the snapshot, in the given order and ranked as in
+     * that snapshot, so a class can be built in batches against one fixed ranking.
+     */
+    List<ReportDTO> getTermReportsForRankedStudents(Long classId, Integer term, String academicYear,
+                                                    ClassRankingSnapshot snapshot,
+                                                    List<ClassRankingSnapshot.Entry> entries);
+
     List<YearlyReportDTO> getYearlyReportsForClassAndYear(Long classId, String academicYear);
     Page<YearlyReportDTO> getPaginatedYearlyReportsForClassAndYear(Long classId, String academicYear, Pageable pageable);
 
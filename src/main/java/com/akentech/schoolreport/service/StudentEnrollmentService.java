@@ -1,5 +1,6 @@
 package com.akentech.schoolreport.service;
 
+import com.akentech.schoolreport.event.StudentsChangedEvent;
 import com.akentech.schoolreport.exception.EntityNotFoundException;
 import com.akentech.schoolreport.model.*;
 import com.akentech.schoolreport.model.enums.ClassLevel;
@@ -7,6 +8,7 @@ import com.akentech.schoolreport.model.enums.PerformanceLevel;
 import com.akentech.schoolreport.repository.StudentSubjectRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +25,7 @@ public class StudentEnrollmentService {
     private final StudentSubjectRepository studentSubjectRepository;
     @Lazy
     private final SubjectService subjectService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final Map<ClassLevel, List<String>> COMPULSORY_SUBJECT_NAMES = createEnhancedCompulsoryMap();
 
@@ -94,6 +97,7 @@ public class StudentEnrollmentService {
         }
 
         log.info("Successfully enrolled student {} in {} new subject(s)", studentId, newSubjects.size());
+        publishEnrollmentChange(student);
     }
 
     // NEW: Method to get available subjects for enrollment (not already enrolled)
@@ -182,6 +186,12 @@ public class StudentEnrollmentService {
 
         log.info("🎉 Successfully enrolled student {} in {} subjects",
                 student.getStudentId(), selectedSubjects.size());
+        publishEnrollmentChange(student);
+    }
+
+    private void publishEnrollmentChange(Student student) {
+        Set<Long> classIds = student.getClassRoom() != null ? Set.of(student.getClassRoom().getId()) : Set.of();
+        eventPublisher.publishEvent(new StudentsChangedEvent(Set.of(student.getId()), classIds));
     }
 
     private List<Subject> getCompulsorySubjectsForStudent(Student student) {
@@ -291,6 +301,7 @@ public class StudentEnrollmentService {
                 .ifPresent(enrollment -> {
                     studentSubjectRepository.delete(enrollment);
                     log.info("Removed student {} from subject {}", studentId, subjectId);
+                    publishEnrollmentChange(enrollment.getStudent());
                 });
     }
 
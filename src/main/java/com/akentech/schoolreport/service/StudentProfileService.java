@@ -0,0 +1,309 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ClassGradebook;
+import com.akentech.schoolreport.dto.StudentProfile;
+import com.akentech.schoolreport.dto.TermAssessmentDTO;
+import com.akentech.schoolreport.event.AssessmentsChangedEvent;
+import com.akentech.schoolreport.event.StudentsChangedEvent;
+import com.akentech.schoolreport.exception.EntityNotFoundException;
+import com.akentech.schoolreport.model.Assessment;
+import com.akentech.schoolreport.model.Student;
+import com.akentech.schoolreport.model.StudentSubject;
+import com.akentech.schoolreport.model.Subject;
+import com.akentech.schoolreport.model.enums.AssessmentType;
+import com.akentech.schoolreport.repository.AssessmentRepository;
+import com.akentech.schoolreport.repository.StudentRepository;
+import com.akentech.schoolreport.repository.StudentSubjectRepository;
+import com.akentech.schoolreport.util.AcademicYearUtil;
+import com.akentech.schoolreport.util.ClassRanker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Builds and keeps {@link StudentProfile}s. The first profile requested for a class is built together
+ * with every classmate's from a few batched queries (students, enrollments, assessments), since the
+ * ranks need the whole class anyway; later profile views of that class are map lookups. Profiles cover
+ * the academic year of the student's class and follow the term reports' rules: the class population of
+ * that year, and that year's scores, or any year's for a student with none in a term. At most
+ * {@code reports.profiles.max-entries} profiles are kept, least recently used first out, and the
+ * profiles of a class are dropped when a student's scores or class membership change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentProfileService {
+
+    private static final int TERM_COUNT = 3;
+
+    private final StudentRepository studentRepository;
+    private final StudentSubjectRepository studentSubjectRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final GradeService gradeService;
+
+    @Value("${reports.profiles.max-entries:5000}")
+    private int maxProfiles;
+
+    // Access-ordered for LRU eviction; guarded by "this"
+    private final LinkedHashMap<Long, StudentProfile> profiles = new LinkedHashMap<>(64, 0.75f, true);
+
+    // Bumped on every change so profiles computed from pre-change data are never stored
+    private final AtomicLong generation = new AtomicLong();
+
+    @Transactional(readOnly = true)
+    public StudentProfile getProfile(Long studentId) {
+        synchronized (this) {
+            StudentProfile cached = profiles.get(studentId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Student student = studentRepository.findById(studentId)
+                .orElseThrow(() -> new EntityNotFoundException("Student", studentId));
+
+        long startGeneration = generation.get();
+        Long classId = student.getClassRoom() != null ? student.getClassRoom().getId() : null;
+        int[] years = student.getAcademicYearStart() != null && student.getAcademicYearEnd() != null
+                ? new int[]{student.getAcademicYearStart(), student.getAcademicYearEnd()}
+                : AcademicYearUtil.DEFAULT_ACADEMIC_YEAR.clone();
+
+        List<Student> students = new ArrayList<>();
+        if (classId != null) {
+            students.addAll(studentRepository.findByClassRoomIdAndAcademicYear(classId, years[0], years[1]));
+            if (students.isEmpty()) {
+                students.addAll(studentRepository.findByClassRoomId(classId));
+            }
+        }
+        if (students.stream().noneMatch(s -> s.getId().equals(studentId))) {
+            students.add(student);
+        }
+
+        Map<Long, StudentProfile> built = buildProfiles(classId, students, years[0], years[1]);
+        synchronized (this) {
+            if (generation.get() == startGeneration) {
+                profiles.putAll(built);
+                trimToSize();
+            }
+        }
+        return built.get(studentId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssessmentsChanged(AssessmentsChangedEvent event) {
+        generation.incrementAndGet();
+        evict(event.getStudentIds(), Set.of());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        generation.incrementAndGet();
+        evict(event.getStudentIds(), event.getClassIds());
+    }
+
+    /**
+     * Drops the profiles of the given students' classes, since one student's scores move everyone's rank.
+     */
+    private synchronized void evict(Collection<Long> studentIds, Collection<Long> classIds) {
+        Set<Long> affectedClasses = new HashSet<>(classIds);
+        for (Long studentId : studentIds) {
+            StudentProfile profile = profiles.remove(studentId);
+            if (profile != null && profile.getClassId() != null) {
+                affectedClasses.add(profile.getClassId());
+            }
+        }
+        profiles.values().removeIf(profile -> affectedClasses.contains(profile.getClassId()));
+        log.debug("Evicted student profiles for classes {} students {}", affectedClasses, studentIds);
+    }
+
+    private void trimToSize() {
+        Iterator<Long> eldest = profiles.keySet().iterator();
+        while (profiles.size() > maxProfiles && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private Map<Long, StudentProfile> buildProfiles(Long classId, List<Student> students,
+                                                    int academicYearStart, int academicYearEnd) {
+        long started = System.nanoTime();
+        List<Long> studentIds = students.stream().map(Student::getId).collect(Collectors.toList());
+
+        List<StudentSubject> enrollments = studentSubjectRepository.findByStudentIdInWithSubject(studentIds);
+        List<List<Assessment>> assessmentsByTerm = loadAssessments(studentIds, academicYearStart, academicYearEnd);
+
+        int size = students.size();
+        ClassGradebook[] gradebooks = new ClassGradebook[TERM_COUNT];
+        double[][] termAverages = new double[TERM_COUNT][size];
+        for (int t = 0; t < TERM_COUNT; t++) {
+            gradebooks[t] = ClassGradebook.of(t + 1, students, enrollments, assessmentsByTerm.get(t));
+            for (int i = 0; i < size; i++) {
+                termAverages[t][i] = gradebooks[t].weightedAverage(gradebooks[t].indexOf(students.get(i).getId()));
+            }
+        }
+        double[] yearlyAverages = new double[size];
+        for (int i = 0; i < size; i++) {
+            yearlyAverages[i] = gradeService.calculateYearlyAverage(
+                    termAverages[0][i], termAverages[1][i], termAverages[2][i]);
+        }
+
+        ClassRanker.Result[] termRanks = new ClassRanker.Result[TERM_COUNT];
+        for (int t = 0; t < TERM_COUNT; t++) {
+            termRanks[t] = ClassRanker.rank(termAverages[t]);
+        }
+        ClassRanker.Result yearlyRanks = ClassRanker.rank(yearlyAverages);
+
+        Map<Long, List<StudentSubject>> enrollmentsByStudent = enrollments.stream()
+                .collect(Collectors.groupingBy(e -> e.getStudent().getId()));
+        Map<Long, List<Assessment>> assessmentsByStudent = assessmentsByTerm.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.groupingBy(a -> a.getStudent().getId()));
+
+        Map<Long, StudentProfile> built = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Student student = students.get(i);
+            List<StudentSubject> studentEnrollments = enrollmentsByStudent.getOrDefault(student.getId(), List.of());
+            Map<Integer, List<Assessment>> byTerm = assessmentsByStudent.getOrDefault(student.getId(), List.of())
+                    .stream()
+                    .collect(Collectors.groupingBy(Assessment::getTerm));
+
+            Map<Integer, Double> studentTermAverages = new LinkedHashMap<>();
+            Map<Integer, Integer> studentTermRanks = new LinkedHashMap<>();
+            Map<Integer, Integer> assessmentCounts = new LinkedHashMap<>();
+            Map<Integer, Integer> completedSubjects = new LinkedHashMap<>();
+            Map<Integer, List<TermAssessmentDTO>> termAssessments = new LinkedHashMap<>();
+
+            for (int term = 1; term <= TERM_COUNT; term++) {
+                List<Assessment> termList = byTerm.getOrDefault(term, List.of());
+                studentTermAverages.put(term, termAverages[term - 1][i]);
+                studentTermRanks.put(term, termRanks[term - 1].classRank(i));
+                assessmentCounts.put(term, termList.size());
+                completedSubjects.put(term, (int) termList.stream().map(a -> a.getSubject().getId()).distinct().count());
+                termAssessments.put(term, buildTermAssessments(gradebooks[term - 1], student.getId()));
+            }
+
+            built.put(student.getId(), StudentProfile.builder()
+                    .studentId(student.getId())
+                    .classId(classId)
+                    .studentName(student.getFullName())
+                    .totalAssessments(assessmentsByStudent.getOrDefault(student.getId(), List.of()).size())
+                    .totalSubjects(studentEnrollments.size())
+                    .yearlyAverage(yearlyAverages[i])
+                    .yearlyRank(yearlyRanks.classRank(i))
+                    .termAverages(Collections.unmodifiableMap(studentTermAverages))
+                    .termRanks(Collections.unmodifiableMap(studentTermRanks))
+                    .termAssessmentCounts(Collections.unmodifiableMap(assessmentCounts))
+                    .termCompletedSubjects(Collections.unmodifiableMap(completedSubjects))
+                    .termAssessments(Collections.unmodifiableMap(termAssessments))
+                    .build());
+        }
+
+        log.info("Built {} student profiles for class {} in {} ms", built.size(), classId,
+                (System.nanoTime() - started) / 1_000_000);
+        return built;
+    }
+
+    /**
+     * The students' assessments of the academic year, by term (index term - 1). A student without any
+     * in a term gets that term's assessments of every year instead, as on the term reports.
+     */
+    private List<List<Assessment>> loadAssessments(List<Long> studentIds, int academicYearStart, int academicYearEnd) {
+        List<List<Assessment>> byTerm = new ArrayList<>(TERM_COUNT);
+        for (int t = 0; t < TERM_COUNT; t++) {
+            byTerm.add(new ArrayList<>());
+        }
+        for (Assessment assessment : assessmentRepository.findByStudentIdInAndAcademicYear(
+                studentIds, academicYearStart, academicYearEnd)) {
+            Integer term = assessment.getTerm();
+            if (term != null && term >= 1 && term <= TERM_COUNT) {
+                byTerm.get(term - 1).add(assessment);
+            }
+        }
+
+        for (int term = 1; term <= TERM_COUNT; term++) {
+            List<Assessment> termList = byTerm.get(term - 1);
+            Set<Long> withYearData = termList.stream().map(a -> a.getStudent().getId()).collect(Collectors.toSet());
+            List<Long> withoutYearData = studentIds.stream()
+                    .filter(id -> !withYearData.contains(id))
+                    .collect(Collectors.toList());
+            if (!withoutYearData.isEmpty()) {
+                termList.addAll(assessmentRepository.findByStudentIdInAndTerm(withoutYearData, term));
+            }
+        }
+        return byTerm;
+    }
+
+    /**
+     * Score rows of the student's subjects, read from the same gradebook as the term average, so a
+     * type entered twice shows the score that was counted (the earliest saved).
+     */
+    private List<TermAssessmentDTO> buildTermAssessments(ClassGradebook gradebook, Long studentId) {
+        int s = gradebook.indexOf(studentId);
+        int term = gradebook.getTerm();
+
+        List<TermAssessmentDTO> rows = new ArrayList<>();
+        for (int j : gradebook.subjectsOf(s)) {
+            Subject subject = gradebook.getSubject(j);
+            Map<Integer, Double> scores = new HashMap<>();
+            for (AssessmentType type : AssessmentType.getAssessmentsForTerm(term)) {
+                double score = gradebook.score(s, j, type);
+                if (!Double.isNaN(score)) {
+                    scores.put(type.getAssessmentNumber(), score);
+                }
+            }
+
+            Double termAverage = subjectTermAverage(scores, term);
+            String termGrade = termAverage != null
+                    ? gradeService.calculateLetterGrade(termAverage, subject.getName()) : null;
+
+            rows.add(TermAssessmentDTO.builder()
+                    .subjectId(subject.getId())
+                    .subjectName(subject.getName())
+                    .subjectCode(subject.getSubjectCode())
+                    .coefficient(subject.getCoefficient())
+                    .assessment1Score(scores.get(1))
+                    .assessment2Score(scores.get(2))
+                    .assessment3Score(scores.get(3))
+                    .assessment4Score(scores.get(4))
+                    .assessment5Score(scores.get(5))
+                    .termAverage(termAverage)
+                    .termGrade(termGrade)
+                    .completed(termAverage != null)
+                    .build());
+        }
+
+        rows.sort(Comparator.comparing(TermAssessmentDTO::getSubjectName));
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Subject term average as shown on the profile: both assessments are required in terms 1 and 2.
+     */
+    private static Double subjectTermAverage(Map<Integer, Double> scores, int term) {
+        if (scores.isEmpty()) {
+            return null;
+        }
+
+        return switch (term) {
+            case 1 -> {
+                Double a1 = scores.get(1);
+                Double a2 = scores.get(2);
+                yield (a1 != null && a2 != null) ? (a1 + a2) / 2.0 : null;
+            }
+            case 2 -> {
+                Double a3 = scores.get(3);
+                Double a4 = scores.get(4);
+                yield (a3 != null && a4 != null) ? (a3 + a4) / 2.0 : null;
+            }
+            case 3 -> scores.get(5);
+            default -> null;
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.akentech.schoolreport.service;
 
+import com.akentech.schoolreport.event.StudentsChangedEvent;
 import com.akentech.schoolreport.exception.BusinessRuleException;
 import com.akentech.schoolreport.exception.DataIntegrityException;
 import com.akentech.schoolreport.exception.EntityNotFoundException;
@@ -14,6 +15,7 @@ import com.akentech.schoolreport.repository.StudentSubjectRepository;
 import com.akentech.schoolreport.util.IdGenerationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -39,6 +41,7 @@ public class StudentService {
     private final StudentSubjectRepository studentSubjectRepository;
     @Lazy
     private final SubjectService subjectService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ENHANCED: Student creation with subject selection
     public Student createStudent(Student student, List<Long> subjectIds) {
@@ -112,6 +115,7 @@ public class StudentService {
                 savedStudent.getStudentId(), savedStudent.getRollNumber(),
                 savedStudent.getEmail() != null ? savedStudent.getEmail() : "None");
 
+        publishStudentChange(savedStudent.getId(), savedStudent.getClassRoom());
         return savedStudent;
     }
 
@@ -382,6 +386,7 @@ public class StudentService {
         log.info("Updating student with ID: {} and {} subject IDs", id, subjectIds != null ? subjectIds.size() : 0);
 
         Student existingStudent = getStudentByIdOrThrow(id);
+        ClassRoom previousClassRoom = existingStudent.getClassRoom();
 
         // Update student fields
         existingStudent.setFirstName(student.getFirstName());
@@ -407,6 +412,7 @@ public class StudentService {
         enrollmentService.enrollStudentInSubjects(existingStudent, subjectIds);
 
         log.info("✅ Successfully updated student with ID: {}", existingStudent.getStudentId());
+        publishStudentChange(existingStudent.getId(), previousClassRoom, existingStudent.getClassRoom());
         return existingStudent;
     }
 
@@ -415,6 +421,15 @@ public class StudentService {
         studentRepository.delete(student);
         log.info("✅ Successfully deleted student {} (ID: {}) along with all associated records",
                 student.getFullName(), id);
+        publishStudentChange(id, student.getClassRoom());
+    }
+
+    private void publishStudentChange(Long studentId, ClassRoom... classRooms) {
+        Set<Long> classIds = Arrays.stream(classRooms)
+                .filter(Objects::nonNull)
+                .map(ClassRoom::getId)
+                .collect(Collectors.toSet());
+        eventPublisher.publishEvent(new StudentsChangedEvent(Set.of(studentId), classIds));
     }
 
     @Transactional(readOnly = true)
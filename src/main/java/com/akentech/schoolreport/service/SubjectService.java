@@ -1,5 +1,6 @@
 package com.akentech.schoolreport.service;
 
+import com.akentech.schoolreport.event.StudentsChangedEvent;
 import com.akentech.schoolreport.exception.DataIntegrityException;
 import com.akentech.schoolreport.exception.EntityNotFoundException;
 import com.akentech.schoolreport.model.*;
@@ -7,10 +8,12 @@ import com.akentech.schoolreport.model.enums.ClassLevel;
 import com.akentech.schoolreport.model.enums.DepartmentCode;
 import com.akentech.schoolreport.repository.ClassRoomRepository;
 import com.akentech.schoolreport.repository.DepartmentRepository;
+import com.akentech.schoolreport.repository.StudentSubjectRepository;
 import com.akentech.schoolreport.repository.SubjectRepository;
 import com.akentech.schoolreport.util.IdGenerationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -29,6 +32,8 @@ public class SubjectService {
     private final IdGenerationService idGenerationService;
     private final DepartmentRepository departmentRepository;
     private final ClassRoomRepository classRoomRepository;
+    private final StudentSubjectRepository studentSubjectRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ADD THIS METHOD: Bulk create subjects
     @Transactional
@@ -589,6 +594,7 @@ public class SubjectService {
 
         Subject updated = subjectRepository.save(existing);
         log.info("Updated subject: {} (ID: {})", updated.getName(), updated.getId());
+        publishEnrolledStudentsChange(id);
         return updated;
     }
 
@@ -596,10 +602,29 @@ public class SubjectService {
         if (!subjectRepository.existsById(id)) {
             throw new EntityNotFoundException("Subject", id);
         }
+        // Read before the enrollments go with the subject
+        publishEnrolledStudentsChange(id);
         subjectRepository.deleteById(id);
         log.info("Deleted subject with id: {}", id);
     }
 
+    /**
+     * A subject's coefficient and grouping feed every average and rank of the students taking it.
+     */
+    private void publishEnrolledStudentsChange(Long subjectId) {
+        List<Student> students = studentSubjectRepository.findStudentsBySubjectId(subjectId);
+        if (students.isEmpty()) {
+            return;
+        }
+        Set<Long> studentIds = students.stream().map(Student::getId).collect(Collectors.toSet());
+        Set<Long> classIds = students.stream()
+                .map(Student::getClassRoom)
+                .filter(Objects::nonNull)
+                .map(ClassRoom::getId)
+                .collect(Collectors.toSet());
+        eventPublisher.publishEvent(new StudentsChangedEvent(studentIds, classIds));
+    }
+
     @Transactional(readOnly = true)
     public List<String> getSpecialtiesByDepartment(Long departmentId) {
         List<Subject> subjects = subjectRepository.findByDepartmentId(departmentId);
@@ -0,0 +1,136 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ReportDTO;
+import com.akentech.schoolreport.event.TermPublishedEvent;
+import com.akentech.schoolreport.exception.BusinessRuleException;
+import com.akentech.schoolreport.exception.EntityNotFoundException;
+import com.akentech.schoolreport.model.PublishedTermResult;
+import com.akentech.schoolreport.model.TermPublicationAudit;
+import com.akentech.schoolreport.repository.ClassRoomRepository;
+import com.akentech.schoolreport.repository.PublishedTermResultRepository;
+import com.akentech.schoolreport.repository.TermPublicationAuditRepository;
+import com.akentech.schoolreport.util.AcademicYearUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publishes a class's term results: the term reports are computed once more and frozen into the
+ * published store, after which every report read for that class/term/year is served from it.
+ * A published term can only be replaced through {@link #republish}, which requires a reason and
+ * is recorded in the audit trail like the first publication.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TermPublicationService {
+
+    private final ReportService reportService;
+    private final PublishedTermStore publishedTermStore;
+    private final PublishedTermResultRepository publishedTermResultRepository;
+    private final TermPublicationAuditRepository termPublicationAuditRepository;
+    private final ClassRoomRepository classRoomRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public PublishedTermResult publish(Long classId, Integer term, String academicYear, String publishedBy) {
+        int[] years = AcademicYearUtil.parse(academicYear);
+        validate(classId, term);
+
+        if (publishedTermResultRepository.findByClassIdAndTermAndAcademicYear(classId, term, years[0], years[1]).isPresent()) {
+            throw new BusinessRuleException("Term " + term + " of academic year " + academicYear +
+                    " is already published for this class; republish it to apply corrections");
+        }
+
+        List<ReportDTO> reports = reportService.computeTermReportsForClassAndYear(classId, term, academicYear);
+
+        PublishedTermResult result = publishedTermResultRepository.save(PublishedTermResult.builder()
+                .classId(classId)
+                .term(term)
+                .academicYearStart(years[0])
+                .academicYearEnd(years[1])
+                .version(1)
+                .studentCount(reports.size())
+                .payload(publishedTermStore.encode(reports))
+                .publishedAt(LocalDateTime.now())
+                .publishedBy(publishedBy)
+                .build());
+
+        audit(result, TermPublicationAudit.Action.PUBLISH, publishedBy, null);
+        log.info("Published term {} results of class {} for academic year {}: {} students, {} bytes",
+                term, classId, academicYear, reports.size(), result.getPayload().length);
+        return result;
+    }
+
+    /**
+     * Replaces published results with freshly computed ones, e.g. after a score correction.
+     */
+    @Transactional
+    public PublishedTermResult republish(Long classId, Integer term, String academicYear,
+                                         String publishedBy, String reason) {
+        int[] years = AcademicYearUtil.parse(academicYear);
+        validate(classId, term);
+
+        if (reason == null || reason.isBlank()) {
+            throw new BusinessRuleException("A reason is required to republish term results");
+        }
+
+        PublishedTermResult result = publishedTermResultRepository
+                .findByClassIdAndTermAndAcademicYear(classId, term, years[0], years[1])
+                .orElseThrow(() -> new BusinessRuleException("Term " + term + " of academic year " +
+                        academicYear + " is not published for this class"));
+
+        // Fresh scores, not the currently published results being replaced
+        List<ReportDTO> reports = reportService.computeTermReportsForClassAndYear(classId, term, academicYear);
+
+        result.setVersion(result.getVersion() + 1);
+        result.setStudentCount(reports.size());
+        result.setPayload(publishedTermStore.encode(reports));
+        result.setPublishedAt(LocalDateTime.now());
+        result.setPublishedBy(publishedBy);
+        publishedTermResultRepository.save(result);
+
+        audit(result, TermPublicationAudit.Action.REPUBLISH, publishedBy, reason);
+        log.info("Republished term {} results of class {} for academic year {} (version {}): {}",
+                term, classId, academicYear, result.getVersion(), reason);
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TermPublicationAudit> getAuditTrail(Long classId, Integer term, String academicYear) {
+        int[] years = AcademicYearUtil.parse(academicYear);
+        return termPublicationAuditRepository.findByClassIdAndTermAndAcademicYear(classId, term, years[0], years[1]);
+    }
+
+    private void audit(PublishedTermResult result, TermPublicationAudit.Action action,
+                       String performedBy, String reason) {
+        termPublicationAuditRepository.save(TermPublicationAudit.builder()
+                .classId(result.getClassId())
+                .term(result.getTerm())
+                .academicYearStart(result.getAcademicYearStart())
+                .academicYearEnd(result.getAcademicYearEnd())
+                .action(action)
+                .version(result.getVersion())
+                .performedBy(performedBy)
+                .reason(reason)
+                .performedAt(result.getPublishedAt())
+                .build());
+
+        eventPublisher.publishEvent(new TermPublishedEvent(result.getClassId(), result.getTerm(),
+                result.getAcademicYearStart(), result.getAcademicYearEnd()));
+    }
+
+    private void validate(Long classId, Integer term) {
+        if (!classRoomRepository.existsById(classId)) {
+            throw new EntityNotFoundException("ClassRoom", classId);
+        }
+        if (term == null || term < 1 || term > 3) {
+            throw new BusinessRuleException("Term must be 1, 2 or 3");
+        }
+    }
+}
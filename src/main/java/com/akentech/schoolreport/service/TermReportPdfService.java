@@ -18,8 +18,8 @@ import java.util.List;
 @Slf4j
 public class TermReportPdfService extends BasePdfService {
 
-    public TermReportPdfService(GradeService gradeService) {
-        super(gradeService);
+    public TermReportPdfService(GradeService gradeService, PdfAssetRegistry pdfAssetRegistry) {
+        super(gradeService, pdfAssetRegistry);
     }
 
     public byte[] generateTermReportPdf(ReportDTO report) throws IOException, DocumentException {
@@ -30,8 +30,10 @@ public class TermReportPdfService extends BasePdfService {
 
         document.open();
 
-        // Add modern header
-        addSchoolHeader(document, report, writer);
+        // Add modern header, stamped from a template shared by every report of the term
+        addTemplate(document, writer,
+                String.format("term-header:%s:%d", report.getAcademicYear(), report.getTerm()),
+                target -> addSchoolHeader(target, report));
 
         // Add student information
         addStudentInfoSection(document, report);
@@ -43,7 +45,7 @@ public class TermReportPdfService extends BasePdfService {
         addSummarySection(document, report);
 
         // Add signature section
-        addSignatureSection(document, report);
+        addTemplate(document, writer, "term-footer", this::addSignatureSection);
 
         document.close();
         return outputStream.toByteArray();
@@ -51,7 +53,7 @@ public class TermReportPdfService extends BasePdfService {
 
     // ====== PRIVATE METHODS ======
 
-    private void addSchoolHeader(Document document, ReportDTO report, PdfWriter writer)
+    private void addSchoolHeader(ElementListener document, ReportDTO report)
             throws DocumentException, IOException {
         PdfPTable headerTable = new PdfPTable(3);
         headerTable.setWidthPercentage(100);
@@ -143,7 +145,7 @@ public class TermReportPdfService extends BasePdfService {
         return contentCell;
     }
 
-    private void addCambridgeBadge(Document document) throws DocumentException {
+    private void addCambridgeBadge(ElementListener document) throws DocumentException {
         try {
             PdfPTable badgeTable = new PdfPTable(1);
             badgeTable.setWidthPercentage(100);
@@ -162,7 +164,7 @@ public class TermReportPdfService extends BasePdfService {
         }
     }
 
-    private void createModernFallbackHeader(Document document, ReportDTO report)
+    private void createModernFallbackHeader(ElementListener document, ReportDTO report)
             throws DocumentException {
         PdfPTable headerTable = new PdfPTable(1);
         headerTable.setWidthPercentage(100);
@@ -327,24 +329,24 @@ public class TermReportPdfService extends BasePdfService {
     }
 
     private int getColumnCount(int term) {
-        return term == 3 ? 7 : 8;
+        return term == 3 ? 8 : 9;
     }
 
     private float[] getColumnWidths(int term) {
         if (term == 3) {
-            return new float[]{2f, 0.6f, 0.9f, 0.9f, 0.9f, 0.9f, 0.9f};
+            return new float[]{2f, 0.6f, 0.9f, 0.9f, 0.9f, 0.9f, 0.7f, 0.9f};
         } else {
-            return new float[]{2f, 0.6f, 0.8f, 0.8f, 0.9f, 0.9f, 0.9f, 0.9f};
+            return new float[]{2f, 0.6f, 0.8f, 0.8f, 0.9f, 0.9f, 0.9f, 0.7f, 0.9f};
         }
     }
 
     private String[] getHeadersForTerm(int term) {
         if (term == 3) {
-            return new String[]{"SUBJECT", "COEFF", "EXAM", "TOTAL", "AVERAGE", "GRADE", "STATUS"};
+            return new String[]{"SUBJECT", "COEFF", "EXAM", "TOTAL", "AVERAGE", "GRADE", "POS", "STATUS"};
         } else if (term == 1) {
-            return new String[]{"SUBJECT", "COEFF", "A1", "A2", "TOTAL", "AVERAGE", "GRADE", "STATUS"};
+            return new String[]{"SUBJECT", "COEFF", "A1", "A2", "TOTAL", "AVERAGE", "GRADE", "POS", "STATUS"};
         } else {
-            return new String[]{"SUBJECT", "COEFF", "A3", "A4", "TOTAL", "AVERAGE", "GRADE", "STATUS"};
+            return new String[]{"SUBJECT", "COEFF", "A3", "A4", "TOTAL", "AVERAGE", "GRADE", "POS", "STATUS"};
         }
     }
 
@@ -436,6 +438,19 @@ public class TermReportPdfService extends BasePdfService {
         gradeCell.setBorderWidth(0.5f);
         table.addCell(gradeCell);
 
+        // Position in class for the subject
+        String position = subject.getPositionInClass() != null
+                ? subject.getPositionInClass() + "/" + subject.getPositionOutOf() : "-";
+        PdfPCell positionCell = new PdfPCell(new Phrase(position,
+                FontFactory.getFont(FontFactory.HELVETICA, 8, TEXT_COLOR)));
+        positionCell.setBackgroundColor(rowColor);
+        positionCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        positionCell.setPadding(5);
+        positionCell.setBorder(Rectangle.BOTTOM);
+        positionCell.setBorderColor(MEDIUM_GRAY);
+        positionCell.setBorderWidth(0.5f);
+        table.addCell(positionCell);
+
         // Pass/Fail status cell
         boolean passed = isSubjectPassing(grade, className);
         String status = passed ? "PASS" : "FAIL";
@@ -538,6 +553,11 @@ public class TermReportPdfService extends BasePdfService {
                     String.valueOf(report.getRankInDepartment()), null);
         }
 
+        if (report.getRankInSpecialty() != null) {
+            addSummaryMetric(leftCell, "Specialty Rank:",
+                    String.valueOf(report.getRankInSpecialty()), null);
+        }
+
         Color statusColor = overallPassed ? SUCCESS_COLOR : DANGER_COLOR;
         addSummaryMetric(leftCell, "Term Status:", overallPassed ? "PASSED ✓" : "FAILED ✗", null);
 
@@ -628,7 +648,7 @@ public class TermReportPdfService extends BasePdfService {
         cell.addElement(bar);
     }
 
-    private void addSignatureSection(Document document, ReportDTO report) throws DocumentException {
+    private void addSignatureSection(ElementListener document) throws DocumentException {
         // Modern signature section
         PdfPTable signatureTable = new PdfPTable(1);
         signatureTable.setWidthPercentage(100);
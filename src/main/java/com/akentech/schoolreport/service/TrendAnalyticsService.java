@@ -0,0 +1,290 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ClassGradebook;
+import com.akentech.schoolreport.dto.TrendChange;
+import com.akentech.schoolreport.dto.TrendPoint;
+import com.akentech.schoolreport.event.AssessmentsChangedEvent;
+import com.akentech.schoolreport.event.StudentsChangedEvent;
+import com.akentech.schoolreport.exception.ServiceUnavailableException;
+import com.akentech.schoolreport.model.Assessment;
+import com.akentech.schoolreport.model.Student;
+import com.akentech.schoolreport.repository.AssessmentRepository;
+import com.akentech.schoolreport.repository.StudentRepository;
+import com.akentech.schoolreport.service.TrendStore.TermScore;
+import com.akentech.schoolreport.util.AcademicYearUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Term-over-term and year-over-year trends for students, classes and the whole school, answered from a
+ * {@link TrendStore}. The store is filled from every student's assessments once the application is ready,
+ * in batches on the refresh pool, into a fresh store that replaces the empty one when done; until then
+ * reads fail with a {@link ServiceUnavailableException} (503). Afterwards students named by assessment or
+ * student change events are only marked stale and re-read on the same pool, so neither a save nor a read
+ * ever waits for the database. A failed refresh queues a full reload while the current store keeps serving.
+ * <p>
+ * Averages follow the report rules through {@link ClassGradebook}, over the subjects the student has scores
+ * in for that year, since subject enrollments only describe the current year. A student's class is recorded
+ * for their current academic year whenever they are read, and kept for earlier years.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendAnalyticsService {
+
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final StudentRepository studentRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final PlatformTransactionManager transactionManager;
+    @Qualifier("reportRefreshExecutor")
+    private final Executor reportRefreshExecutor;
+
+    // Held while loading or refreshing, never by readers or by event listeners
+    private final Object loadLock = new Object();
+    private final Set<Long> staleStudents = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final AtomicBoolean loadQueued = new AtomicBoolean();
+
+    private volatile TrendStore store = new TrendStore();
+    // Set once the first full load finished
+    private volatile boolean ready;
+
+    public List<TrendPoint> getStudentTrend(Long studentId) {
+        ensureReady();
+        return store.studentSeries(studentId);
+    }
+
+    public Map<String, List<TrendPoint>> getStudentSubjectTrends(Long studentId) {
+        ensureReady();
+        return store.subjectSeries(studentId);
+    }
+
+    /**
+     * Mean term average per academic year and term for a class, or the whole school when {@code classId} is null.
+     */
+    public List<TrendPoint> getGroupTrend(Long classId) {
+        ensureReady();
+        return store.groupSeries(classId);
+    }
+
+    /**
+     * Biggest improvements (or declines) between two terms for a class, or the whole school when
+     * {@code classId} is null. Without explicit terms the last two terms with scores are compared.
+     */
+    public List<TrendChange> getChanges(Long classId, String fromAcademicYear, Integer fromTerm,
+                                        String toAcademicYear, Integer toTerm, boolean improvements, int limit) {
+        ensureReady();
+
+        int[] from;
+        int[] to;
+        if (fromAcademicYear != null && fromTerm != null && toAcademicYear != null && toTerm != null) {
+            from = new int[]{AcademicYearUtil.parse(fromAcademicYear)[0], fromTerm};
+            to = new int[]{AcademicYearUtil.parse(toAcademicYear)[0], toTerm};
+        } else {
+            List<int[]> latest = store.latestTwoSlots(classId);
+            if (latest.isEmpty()) {
+                return List.of();
+            }
+            from = latest.get(0);
+            to = latest.get(1);
+        }
+
+        Comparator<TrendChange> byChange = Comparator.comparingDouble(TrendChange::getChange);
+        return store.changes(classId, from[0], from[1], to[0], to[1]).stream()
+                .filter(change -> improvements ? change.getChange() > 0 : change.getChange() < 0)
+                .sorted(improvements ? byChange.reversed() : byChange)
+                .limit(Math.max(1, limit))
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        scheduleLoad();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssessmentsChanged(AssessmentsChangedEvent event) {
+        markStale(event.getStudentIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        markStale(event.getStudentIds());
+    }
+
+    private void markStale(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        staleStudents.addAll(studentIds);
+        if (ready) {
+            scheduleRefresh();
+        }
+    }
+
+    private void ensureReady() {
+        if (!ready) {
+            // Normally queued at startup already; covers a load that failed
+            scheduleLoad();
+            throw new ServiceUnavailableException("Trend data is still loading, please try again shortly");
+        }
+    }
+
+    private void scheduleLoad() {
+        if (!loadQueued.compareAndSet(false, true)) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            reportRefreshExecutor.execute(() -> {
+                try {
+                    transaction.executeWithoutResult(status -> loadAll());
+                } catch (Exception e) {
+                    log.error("Failed to load trend data", e);
+                } finally {
+                    loadQueued.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loadQueued.set(false);
+            log.warn("Refresh pool full, trend data load not queued");
+        }
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            reportRefreshExecutor.execute(() -> {
+                // Students marked from here on queue another refresh
+                refreshQueued.set(false);
+                try {
+                    transaction.executeWithoutResult(status -> refreshStale());
+                } catch (Exception e) {
+                    log.error("Failed to refresh trend data", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The students stay marked; the next change queues them again
+            refreshQueued.set(false);
+            log.warn("Refresh pool full, trend data refresh not queued");
+        }
+    }
+
+    /**
+     * Re-reads the stale students. Refreshes run one at a time, so a refresh that read newer data is
+     * never overwritten by an older one.
+     */
+    private void refreshStale() {
+        synchronized (loadLock) {
+            if (!ready || staleStudents.isEmpty()) {
+                return;
+            }
+            List<Long> ids = new ArrayList<>(staleStudents);
+            staleStudents.removeAll(ids);
+            try {
+                List<Student> students = studentRepository.findAllById(ids);
+                Set<Long> found = students.stream().map(Student::getId).collect(Collectors.toSet());
+                ids.stream().filter(id -> !found.contains(id)).forEach(store::remove);
+                loadStudents(store, students);
+            } catch (Exception e) {
+                // The rows may be stale now; reload everything in the background and keep serving meanwhile
+                log.error("Failed to refresh trend data for students {}", ids, e);
+                scheduleLoad();
+            }
+        }
+    }
+
+    private void loadAll() {
+        synchronized (loadLock) {
+            long started = System.nanoTime();
+            // Changes committed from here on are re-read after the load
+            staleStudents.clear();
+
+            TrendStore loading = new TrendStore();
+            List<Student> students = studentRepository.findAll();
+            for (int from = 0; from < students.size(); from += LOAD_BATCH_SIZE) {
+                loadStudents(loading, students.subList(from, Math.min(from + LOAD_BATCH_SIZE, students.size())));
+            }
+            store = loading;
+            ready = true;
+            log.info("Loaded trend data for {} students in {} ms", loading.getStudentCount(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        if (!staleStudents.isEmpty()) {
+            scheduleRefresh();
+        }
+    }
+
+    private void loadStudents(TrendStore target, List<Student> students) {
+        if (students.isEmpty()) {
+            return;
+        }
+        List<Long> ids = students.stream().map(Student::getId).collect(Collectors.toList());
+
+        // academic year start -> term -> assessments of the batch
+        Map<Integer, Map<Integer, List<Assessment>>> byYearAndTerm = new TreeMap<>();
+        for (Assessment assessment : assessmentRepository.findByStudentIdInWithSubject(ids)) {
+            if (assessment.getAcademicYearStart() != null && assessment.getTerm() != null
+                    && assessment.getTerm() >= 1 && assessment.getTerm() <= TrendStore.TERM_COUNT) {
+                byYearAndTerm.computeIfAbsent(assessment.getAcademicYearStart(), k -> new TreeMap<>())
+                        .computeIfAbsent(assessment.getTerm(), k -> new ArrayList<>())
+                        .add(assessment);
+            }
+        }
+
+        Map<Long, List<TermScore>> scoresByStudent = new HashMap<>();
+        byYearAndTerm.forEach((yearStart, terms) -> terms.forEach((term, assessments) -> {
+            ClassGradebook gradebook = ClassGradebook.ofScoredSubjects(term, students, assessments);
+            for (Student student : students) {
+                int s = gradebook.indexOf(student.getId());
+                Map<String, Double> subjectAverages = new LinkedHashMap<>();
+                for (int j : gradebook.subjectsOf(s)) {
+                    double average = gradebook.subjectAverage(s, j);
+                    if (!Double.isNaN(average)) {
+                        subjectAverages.merge(gradebook.getSubject(j).getName(), average, (a, b) -> a);
+                    }
+                }
+                if (!subjectAverages.isEmpty()) {
+                    scoresByStudent.computeIfAbsent(student.getId(), k -> new ArrayList<>())
+                            .add(new TermScore(yearStart, term, gradebook.weightedAverage(s), subjectAverages));
+                }
+            }
+        }));
+
+        for (Student student : students) {
+            List<TermScore> scores = scoresByStudent.getOrDefault(student.getId(), List.of());
+            target.update(student.getId(), student.getFullName(), classYearOf(student, scores),
+                    student.getClassRoom() != null ? student.getClassRoom().getId() : null, scores);
+        }
+    }
+
+    /**
+     * Academic year the student's current class belongs to: their own, else the latest year they have scores in.
+     */
+    private static Integer classYearOf(Student student, List<TermScore> scores) {
+        if (student.getAcademicYearStart() != null) {
+            return student.getAcademicYearStart();
+        }
+        return scores.stream().map(TermScore::getAcademicYearStart).max(Integer::compare).orElse(null);
+    }
+}
@@ -0,0 +1,330 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.TrendChange;
+import com.akentech.schoolreport.dto.TrendPoint;
+import lombok.Value;
+
+import java.util.*;
+
+/**
+ * Columnar store of weighted term averages and subject averages for every student across academic years.
+ * There is one column per (academic year, term) slot, in chronological order; each column holds one value
+ * per student row, with {@code NaN} marking a term without scores. Subject averages use the same layout
+ * in {@code float} columns, one set per subject name, so a subject can be followed across classes and years.
+ * The class of each student is kept per academic year, so class trends follow who was in the class that
+ * year; years without a recorded class only count for the whole school.
+ * <p>
+ * A student's row is replaced as a whole whenever their scores change; trend, improvement and decline
+ * queries are plain scans over two or more columns. All methods are synchronized.
+ */
+public class TrendStore {
+
+    public static final int TERM_COUNT = 3;
+
+    private static final int INITIAL_ROWS = 64;
+
+    private int[] yearStarts = new int[0];
+
+    private final Map<Long, Integer> rowByStudent = new HashMap<>();
+    private long[] studentIds = new long[INITIAL_ROWS];
+    private String[] studentNames = new String[INITIAL_ROWS];
+    private int rowCount;
+    private int capacity = INITIAL_ROWS;
+
+    // Class of each student per academic year: one column per year
+    private final List<Long[]> classColumns = new ArrayList<>();
+    // Slot columns in chronological order: slot = yearIndex * TERM_COUNT + (term - 1)
+    private final List<double[]> averageColumns = new ArrayList<>();
+    private final Map<String, List<float[]>> subjectColumns = new TreeMap<>();
+
+    /**
+     * Replaces the student's scores and records their class for the given academic year; the classes
+     * recorded for other years are kept.
+     */
+    public synchronized void update(long studentId, String studentName, Integer classYearStart, Long classId,
+                                    List<TermScore> scores) {
+        for (TermScore score : scores) {
+            ensureYear(score.getAcademicYearStart());
+        }
+        if (classYearStart != null) {
+            ensureYear(classYearStart);
+        }
+
+        Integer existing = rowByStudent.get(studentId);
+        int row = existing != null ? existing : addRow(studentId);
+        studentNames[row] = studentName;
+        if (classYearStart != null) {
+            classColumns.get(Arrays.binarySearch(yearStarts, classYearStart))[row] = classId;
+        }
+
+        for (double[] column : averageColumns) {
+            column[row] = Double.NaN;
+        }
+        for (List<float[]> columns : subjectColumns.values()) {
+            for (float[] column : columns) {
+                column[row] = Float.NaN;
+            }
+        }
+
+        for (TermScore score : scores) {
+            int slot = slot(score.getAcademicYearStart(), score.getTerm());
+            averageColumns.get(slot)[row] = score.getAverage();
+            score.getSubjectAverages().forEach((subject, average) ->
+                    subjectColumnsFor(subject).get(slot)[row] = average.floatValue());
+        }
+    }
+
+    /**
+     * Forgets the student; the row stays allocated but is no longer reachable.
+     */
+    public synchronized void remove(long studentId) {
+        Integer row = rowByStudent.remove(studentId);
+        if (row != null) {
+            studentNames[row] = null;
+            for (Long[] column : classColumns) {
+                column[row] = null;
+            }
+        }
+    }
+
+    public synchronized int getStudentCount() {
+        return rowByStudent.size();
+    }
+
+    /**
+     * The student's term averages in chronological order, each with its change from the previous point.
+     */
+    public synchronized List<TrendPoint> studentSeries(long studentId) {
+        Integer row = rowByStudent.get(studentId);
+        if (row == null) {
+            return List.of();
+        }
+        double[] values = new double[averageColumns.size()];
+        for (int slot = 0; slot < values.length; slot++) {
+            values[slot] = averageColumns.get(slot)[row];
+        }
+        return toSeries(values, 1);
+    }
+
+    /**
+     * Per-subject series of the student, keyed by subject name.
+     */
+    public synchronized Map<String, List<TrendPoint>> subjectSeries(long studentId) {
+        Integer row = rowByStudent.get(studentId);
+        if (row == null) {
+            return Map.of();
+        }
+        Map<String, List<TrendPoint>> series = new LinkedHashMap<>();
+        subjectColumns.forEach((subject, columns) -> {
+            double[] values = new double[columns.size()];
+            for (int slot = 0; slot < values.length; slot++) {
+                values[slot] = columns.get(slot)[row];
+            }
+            List<TrendPoint> points = toSeries(values, 1);
+            if (!points.isEmpty()) {
+                series.put(subject, points);
+            }
+        });
+        return series;
+    }
+
+    /**
+     * Mean term average per slot over the students in the class that academic year, or every student when
+     * {@code classId} is null. Each point also carries the number of students with a value.
+     */
+    public synchronized List<TrendPoint> groupSeries(Long classId) {
+        double[] means = new double[averageColumns.size()];
+        int[] counts = new int[means.length];
+        for (int slot = 0; slot < means.length; slot++) {
+            double[] column = averageColumns.get(slot);
+            double total = 0.0;
+            for (int row : rowsOf(classId, slot / TERM_COUNT)) {
+                if (!Double.isNaN(column[row])) {
+                    total += column[row];
+                    counts[slot]++;
+                }
+            }
+            means[slot] = counts[slot] > 0 ? total / counts[slot] : Double.NaN;
+        }
+
+        List<TrendPoint> series = toSeries(means, 1);
+        List<TrendPoint> withCounts = new ArrayList<>(series.size());
+        for (TrendPoint point : series) {
+            int slot = slot(point.getAcademicYearStart(), point.getTerm());
+            withCounts.add(new TrendPoint(point.getAcademicYear(), point.getAcademicYearStart(), point.getTerm(),
+                    point.getAverage(), point.getChange(), counts[slot]));
+        }
+        return withCounts;
+    }
+
+    /**
+     * Change of every student of the class (or school when {@code classId} is null) between two slots,
+     * by the class of the later slot's year; students without a value in either slot are left out.
+     */
+    public synchronized List<TrendChange> changes(Long classId, int fromYearStart, int fromTerm,
+                                                  int toYearStart, int toTerm) {
+        int from = indexOfSlot(fromYearStart, fromTerm);
+        int to = indexOfSlot(toYearStart, toTerm);
+        if (from < 0 || to < 0) {
+            return List.of();
+        }
+
+        double[] fromColumn = averageColumns.get(from);
+        double[] toColumn = averageColumns.get(to);
+        Long[] toClasses = classColumns.get(to / TERM_COUNT);
+        List<TrendChange> changes = new ArrayList<>();
+        for (int row : rowsOf(classId, to / TERM_COUNT)) {
+            if (!Double.isNaN(fromColumn[row]) && !Double.isNaN(toColumn[row])) {
+                changes.add(new TrendChange(studentIds[row], studentNames[row], toClasses[row],
+                        fromColumn[row], toColumn[row], toColumn[row] - fromColumn[row]));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * The last two slots holding any value for the class (or school), oldest first, as
+     * {@code {yearStart, term}} pairs; empty when fewer than two exist.
+     */
+    public synchronized List<int[]> latestTwoSlots(Long classId) {
+        List<int[]> slots = new ArrayList<>(2);
+        for (int slot = averageColumns.size() - 1; slot >= 0 && slots.size() < 2; slot--) {
+            double[] column = averageColumns.get(slot);
+            for (int row : rowsOf(classId, slot / TERM_COUNT)) {
+                if (!Double.isNaN(column[row])) {
+                    slots.add(0, new int[]{yearStarts[slot / TERM_COUNT], slot % TERM_COUNT + 1});
+                    break;
+                }
+            }
+        }
+        return slots.size() == 2 ? slots : List.of();
+    }
+
+    /**
+     * Rows of the students in the class during the academic year at the given index, or of every student.
+     */
+    private int[] rowsOf(Long classId, int yearIndex) {
+        Long[] classes = classColumns.get(yearIndex);
+        return rowByStudent.values().stream()
+                .mapToInt(Integer::intValue)
+                .filter(row -> classId == null || classId.equals(classes[row]))
+                .toArray();
+    }
+
+    private List<TrendPoint> toSeries(double[] values, int students) {
+        List<TrendPoint> points = new ArrayList<>();
+        double previous = Double.NaN;
+        for (int slot = 0; slot < values.length; slot++) {
+            if (Double.isNaN(values[slot])) {
+                continue;
+            }
+            int yearStart = yearStarts[slot / TERM_COUNT];
+            points.add(new TrendPoint(yearStart + "-" + (yearStart + 1), yearStart, slot % TERM_COUNT + 1,
+                    values[slot], Double.isNaN(previous) ? null : values[slot] - previous, students));
+            previous = values[slot];
+        }
+        return points;
+    }
+
+    private int indexOfSlot(int yearStart, int term) {
+        int yearIndex = Arrays.binarySearch(yearStarts, yearStart);
+        return yearIndex >= 0 && term >= 1 && term <= TERM_COUNT ? yearIndex * TERM_COUNT + term - 1 : -1;
+    }
+
+    private int slot(int yearStart, int term) {
+        int slot = indexOfSlot(yearStart, term);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Unknown slot " + yearStart + " term " + term);
+        }
+        return slot;
+    }
+
+    private int addRow(long studentId) {
+        if (rowCount == capacity) {
+            capacity *= 2;
+            studentIds = Arrays.copyOf(studentIds, capacity);
+            studentNames = Arrays.copyOf(studentNames, capacity);
+            classColumns.replaceAll(column -> Arrays.copyOf(column, capacity));
+            averageColumns.replaceAll(column -> grow(column, capacity));
+            for (List<float[]> columns : subjectColumns.values()) {
+                columns.replaceAll(column -> grow(column, capacity));
+            }
+        }
+        int row = rowCount++;
+        studentIds[row] = studentId;
+        rowByStudent.put(studentId, row);
+        return row;
+    }
+
+    /**
+     * Adds the three term columns of a new academic year at its chronological position.
+     */
+    private void ensureYear(int yearStart) {
+        int index = Arrays.binarySearch(yearStarts, yearStart);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+
+        int[] years = new int[yearStarts.length + 1];
+        System.arraycopy(yearStarts, 0, years, 0, insertAt);
+        years[insertAt] = yearStart;
+        System.arraycopy(yearStarts, insertAt, years, insertAt + 1, yearStarts.length - insertAt);
+        yearStarts = years;
+        classColumns.add(insertAt, new Long[capacity]);
+
+        for (int t = 0; t < TERM_COUNT; t++) {
+            averageColumns.add(insertAt * TERM_COUNT + t, emptyColumn(capacity));
+            for (List<float[]> columns : subjectColumns.values()) {
+                columns.add(insertAt * TERM_COUNT + t, emptyFloatColumn(capacity));
+            }
+        }
+    }
+
+    private List<float[]> subjectColumnsFor(String subject) {
+        return subjectColumns.computeIfAbsent(subject, k -> {
+            List<float[]> columns = new ArrayList<>(averageColumns.size());
+            for (int slot = 0; slot < averageColumns.size(); slot++) {
+                columns.add(emptyFloatColumn(capacity));
+            }
+            return columns;
+        });
+    }
+
+    private static double[] emptyColumn(int size) {
+        double[] column = new double[size];
+        Arrays.fill(column, Double.NaN);
+        return column;
+    }
+
+    private static float[] emptyFloatColumn(int size) {
+        float[] column = new float[size];
+        Arrays.fill(column, Float.NaN);
+        return column;
+    }
+
+    private static double[] grow(double[] column, int size) {
+        int oldSize = column.length;
+        double[] grown = Arrays.copyOf(column, size);
+        Arrays.fill(grown, oldSize, size, Double.NaN);
+        return grown;
+    }
+
+    private static float[] grow(float[] column, int size) {
+        int oldSize = column.length;
+        float[] grown = Arrays.copyOf(column, size);
+        Arrays.fill(grown, oldSize, size, Float.NaN);
+        return grown;
+    }
+
+    /**
+     * Weighted average and subject averages of one student for one term of one academic year.
+     */
+    @Value
+    public static class TermScore {
+        int academicYearStart;
+        int term;
+        double average;
+        Map<String, Double> subjectAverages;
+    }
+}
@@ -0,0 +1,194 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ClassGradebook;
+import com.akentech.schoolreport.dto.ReportStudent;
+import com.akentech.schoolreport.dto.YearlyClassResult;
+import com.akentech.schoolreport.dto.YearlySubjectReport;
+import com.akentech.schoolreport.model.Assessment;
+import com.akentech.schoolreport.model.Student;
+import com.akentech.schoolreport.model.StudentSubject;
+import com.akentech.schoolreport.model.Subject;
+import com.akentech.schoolreport.repository.AssessmentRepository;
+import com.akentech.schoolreport.repository.StudentRepository;
+import com.akentech.schoolreport.repository.StudentSubjectRepository;
+import com.akentech.schoolreport.util.ClassRanker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Computes the yearly results of a whole class from one year-scoped assessment query and one
+ * enrollment query. All three terms and the yearly averages are derived in memory from one
+ * {@link ClassGradebook} per term, and every ranking dimension (each term, yearly, yearly per
+ * department) comes from one {@link ClassRanker} pass.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class YearlyReportEngine {
+
+    private static final int TERM_COUNT = 3;
+
+    private final StudentRepository studentRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final StudentSubjectRepository studentSubjectRepository;
+    private final GradeService gradeService;
+
+    /**
+     * Loads the class's students for the academic year and computes their results in the
+     * current transaction. Safe to call from worker threads.
+     */
+    @Transactional(readOnly = true)
+    public YearlyClassResult computeForClass(Long classId, int academicYearStart, int academicYearEnd) {
+        List<Student> students = studentRepository.findByClassRoomIdAndAcademicYear(
+                classId, academicYearStart, academicYearEnd);
+        return compute(classId, students, academicYearStart, academicYearEnd);
+    }
+
+    @Transactional(readOnly = true)
+    public YearlyClassResult compute(Long classId, List<Student> students,
+                                     int academicYearStart, int academicYearEnd) {
+        if (students.isEmpty()) {
+            return YearlyClassResult.builder()
+                    .classId(classId)
+                    .academicYearStart(academicYearStart)
+                    .academicYearEnd(academicYearEnd)
+                    .studentResults(List.of())
+                    .totalPassed(0)
+                    .build();
+        }
+
+        List<Long> studentIds = students.stream().map(Student::getId).collect(Collectors.toList());
+
+        List<Assessment> assessments = assessmentRepository
+                .findByStudentIdInAndAcademicYear(studentIds, academicYearStart, academicYearEnd);
+        List<StudentSubject> enrollments = studentSubjectRepository.findByStudentIdInWithSubject(studentIds);
+
+        ClassGradebook[] gradebooks = new ClassGradebook[TERM_COUNT];
+        for (int term = 1; term <= TERM_COUNT; term++) {
+            gradebooks[term - 1] = ClassGradebook.of(term, students, enrollments, assessments);
+        }
+
+        int size = students.size();
+        double[][] termAverages = new double[TERM_COUNT][size];
+        double[] yearlyAverages = new double[size];
+        List<List<YearlySubjectReport>> yearlySubjectReports = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            Student student = students.get(i);
+            String className = student.getClassRoom() != null ? student.getClassRoom().getName() : "";
+
+            for (int term = 1; term <= TERM_COUNT; term++) {
+                ClassGradebook gradebook = gradebooks[term - 1];
+                termAverages[term - 1][i] = gradebook.weightedAverage(gradebook.indexOf(student.getId()));
+            }
+
+            yearlyAverages[i] = gradeService.calculateYearlyAverage(
+                    termAverages[0][i], termAverages[1][i], termAverages[2][i]);
+            yearlySubjectReports.add(buildYearlySubjectReports(gradebooks, student.getId(), className));
+        }
+
+        ClassRanker.Result[] termRanks = new ClassRanker.Result[TERM_COUNT];
+        for (int t = 0; t < TERM_COUNT; t++) {
+            termRanks[t] = ClassRanker.rank(termAverages[t]);
+        }
+        List<Long> departmentIds = students.stream()
+                .map(student -> student.getDepartment() != null ? student.getDepartment().getId() : null)
+                .collect(Collectors.toList());
+        ClassRanker.Result yearlyRanks = ClassRanker.rank(yearlyAverages,
+                ClassRanker.groupIds(departmentIds), null, null);
+
+        List<YearlyClassResult.StudentResult> results = new ArrayList<>(size);
+        int totalPassed = 0;
+
+        for (int i = 0; i < size; i++) {
+            boolean passed = gradeService.isPassing(yearlyAverages[i]);
+            if (passed) totalPassed++;
+
+            Map<Integer, Double> studentTermAverages = new LinkedHashMap<>();
+            Map<Integer, Integer> studentTermRanks = new LinkedHashMap<>();
+            for (int term = 1; term <= TERM_COUNT; term++) {
+                studentTermAverages.put(term, termAverages[term - 1][i]);
+                studentTermRanks.put(term, termRanks[term - 1].classRank(i));
+            }
+
+            results.add(YearlyClassResult.StudentResult.builder()
+                    .student(ReportStudent.from(students.get(i)))
+                    .className(students.get(i).getClassRoom() != null ? students.get(i).getClassRoom().getName() : "")
+                    .termAverages(studentTermAverages)
+                    .termRanks(studentTermRanks)
+                    .subjectReports(yearlySubjectReports.get(i))
+                    .yearlyAverage(yearlyAverages[i])
+                    .yearlyRank(yearlyRanks.classRank(i))
+                    .yearlyDepartmentRank(yearlyRanks.departmentRank(i))
+                    .passed(passed)
+                    .build());
+        }
+
+        results.sort(Comparator.comparingInt(YearlyClassResult.StudentResult::getYearlyRank)
+                .thenComparing(r -> r.getStudent().getFullName(),
+                        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+        log.info("Computed yearly results for class {} academic year {}-{}: {} students, {} passed",
+                classId, academicYearStart, academicYearEnd, size, totalPassed);
+
+        return YearlyClassResult.builder()
+                .classId(classId)
+                .academicYearStart(academicYearStart)
+                .academicYearEnd(academicYearEnd)
+                .studentResults(results)
+                .totalPassed(totalPassed)
+                .build();
+    }
+
+    /**
+     * Yearly subject rows in enrollment order for the subjects with a score in at least one term.
+     */
+    private List<YearlySubjectReport> buildYearlySubjectReports(ClassGradebook[] gradebooks, Long studentId,
+                                                                String className) {
+        // Every term gradebook is built from the same enrollments, so subject indexes line up across terms
+        ClassGradebook first = gradebooks[0];
+        int row = first.indexOf(studentId);
+        List<YearlySubjectReport> reports = new ArrayList<>();
+
+        for (int j : first.subjectsOf(row)) {
+            Double[] averages = new Double[TERM_COUNT];
+            double total = 0.0;
+            int count = 0;
+
+            for (int t = 0; t < TERM_COUNT; t++) {
+                double average = gradebooks[t].subjectAverage(row, j);
+                if (!Double.isNaN(average)) {
+                    averages[t] = average;
+                    total += average;
+                    count++;
+                }
+            }
+
+            if (count == 0) {
+                continue;
+            }
+
+            Subject subject = first.getSubject(j);
+            double yearlyAverage = total / count;
+            String yearlyGrade = gradeService.calculateLetterGrade(yearlyAverage, className);
+
+            reports.add(YearlySubjectReport.builder()
+                    .subjectName(subject.getName())
+                    .coefficient(subject.getCoefficient() != null ? subject.getCoefficient() : 1)
+                    .term1Average(averages[0])
+                    .term2Average(averages[1])
+                    .term3Average(averages[2])
+                    .yearlyAverage(yearlyAverage)
+                    .yearlyGrade(yearlyGrade)
+                    .passed(gradeService.isSubjectPassing(yearlyGrade, className))
+                    .build());
+        }
+
+        return reports;
+    }
+}
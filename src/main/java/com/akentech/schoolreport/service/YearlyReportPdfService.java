@@ -17,8 +17,8 @@ import java.io.IOException;
 @Slf4j
 public class YearlyReportPdfService extends BasePdfService {
 
-    public YearlyReportPdfService(GradeService gradeService) {
-        super(gradeService);
+    public YearlyReportPdfService(GradeService gradeService, PdfAssetRegistry pdfAssetRegistry) {
+        super(gradeService, pdfAssetRegistry);
     }
 
     public byte[] generateYearlyReportPdf(YearlyReportDTO report) throws IOException, DocumentException {
@@ -28,13 +28,13 @@ public class YearlyReportPdfService extends BasePdfService {
 
         document.open();
 
-        addSchoolHeader(document, report, writer);
+        addTemplate(document, writer, "yearly-header", target -> addSchoolHeader(target, report));
         addStudentInfoSection(document, report);
         addYearlySummarySection(document, report);
         addTermComparisonSection(document, report);
         addYearlySubjectPerformance(document, report);
         addPromotionSection(document, report);
-        addSignatureSection(document, report);
+        addTemplate(document, writer, "yearly-footer", this::addSignatureSection);
 
         document.close();
         return outputStream.toByteArray();
@@ -42,7 +42,7 @@ public class YearlyReportPdfService extends BasePdfService {
 
     // ====== PRIVATE METHODS ======
 
-    private void addSchoolHeader(Document document, YearlyReportDTO report, PdfWriter writer)
+    private void addSchoolHeader(ElementListener document, YearlyReportDTO report)
             throws DocumentException, IOException {
         PdfPTable headerTable = new PdfPTable(3);
         headerTable.setWidthPercentage(100);
@@ -126,7 +126,7 @@ public class YearlyReportPdfService extends BasePdfService {
         return contentCell;
     }
 
-    private void createModernFallbackHeader(Document document, YearlyReportDTO report)
+    private void createModernFallbackHeader(ElementListener document, YearlyReportDTO report)
             throws DocumentException {
         PdfPTable headerTable = new PdfPTable(1);
         headerTable.setWidthPercentage(100);
@@ -539,7 +539,7 @@ public class YearlyReportPdfService extends BasePdfService {
         table.addCell(statusCell);
     }
 
-    private void addSignatureSection(Document document, YearlyReportDTO report) throws DocumentException {
+    private void addSignatureSection(ElementListener document) throws DocumentException {
         document.add(new Paragraph("\n"));
 
         PdfPTable signatureTable = new PdfPTable(1);
@@ -16,8 +16,8 @@ import java.io.IOException;
 @Slf4j
 public class YearlySummaryPdfService extends BasePdfService {
 
-    public YearlySummaryPdfService(GradeService gradeService) {
-        super(gradeService);
+    public YearlySummaryPdfService(GradeService gradeService, PdfAssetRegistry pdfAssetRegistry) {
+        super(gradeService, pdfAssetRegistry);
     }
 
     public byte[] generateYearlySummaryPdf(YearlySummaryDTO summary) throws IOException, DocumentException {
@@ -1,9 +1,12 @@
 package com.akentech.schoolreport.service.impl;
 
+import com.akentech.schoolreport.dto.ClassGradebook;
 import com.akentech.schoolreport.dto.StudentAssessmentSummaryDTO;
 import com.akentech.schoolreport.dto.StudentTermAverageDTO;
 import com.akentech.schoolreport.dto.StudentYearlyAverageDTO;
 import com.akentech.schoolreport.dto.TermAssessmentDTO;
+import com.akentech.schoolreport.dto.YearGradebook;
+import com.akentech.schoolreport.event.AssessmentsChangedEvent;
 import com.akentech.schoolreport.exception.BusinessRuleException;
 import com.akentech.schoolreport.exception.EntityNotFoundException;
 import com.akentech.schoolreport.model.Assessment;
@@ -17,8 +20,10 @@ import com.akentech.schoolreport.repository.StudentSubjectRepository;
 import com.akentech.schoolreport.service.AssessmentService;
 import com.akentech.schoolreport.service.GradeService;
 import com.akentech.schoolreport.service.StudentPerformanceService;
+import com.akentech.schoolreport.util.ClassRanker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,6 +40,7 @@ public class AssessmentServiceImpl implements AssessmentService {
     private final StudentSubjectRepository studentSubjectRepository;
     private final StudentPerformanceService studentPerformanceService;
     private final GradeService gradeService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -102,6 +108,8 @@ public class AssessmentServiceImpl implements AssessmentService {
             log.error("Failed to update student scores after assessment save", e);
         }
 
+        eventPublisher.publishEvent(AssessmentsChangedEvent.of(List.of(saved)));
+
         return saved;
     }
 
@@ -131,6 +139,8 @@ public class AssessmentServiceImpl implements AssessmentService {
             } catch (Exception e) {
                 log.error("Failed to update student scores after batch save", e);
             }
+
+            eventPublisher.publishEvent(AssessmentsChangedEvent.of(saved));
         }
 
         return saved;
@@ -139,11 +149,13 @@ public class AssessmentServiceImpl implements AssessmentService {
     @Override
     @Transactional
     public void delete(Long id) {
-        if (!assessmentRepository.existsById(id)) {
-            throw new IllegalArgumentException("Assessment not found with id: " + id);
-        }
-        assessmentRepository.deleteById(id);
+        Assessment assessment = assessmentRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Assessment not found with id: " + id));
+
+        assessmentRepository.delete(assessment);
         log.info("Deleted assessment id={}", id);
+
+        eventPublisher.publishEvent(AssessmentsChangedEvent.of(List.of(assessment)));
     }
 
     @Override
@@ -235,24 +247,28 @@ public class AssessmentServiceImpl implements AssessmentService {
                                                                                Integer academicYearStart,
                                                                                Integer academicYearEnd) {
         List<Student> students = studentRepository.findByClassRoomId(classId);
-        List<StudentTermAverageDTO> termAverages = new ArrayList<>();
-
-        for (Student student : students) {
-            Double average;
-            if (academicYearStart != null && academicYearEnd != null) {
-                average = calculateTermAverageWithAcademicYear(student.getId(), term,
-                        academicYearStart, academicYearEnd);
-            } else {
-                average = calculateTermAverage(student.getId(), term);
-            }
-            termAverages.add(new StudentTermAverageDTO(student, average, null));
+        if (students.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        termAverages.sort(Comparator.comparing(StudentTermAverageDTO::getAverage).reversed());
+        // Two queries for the whole class: enrollments and the term's assessments
+        List<Long> studentIds = students.stream().map(Student::getId).collect(Collectors.toList());
+        List<Assessment> assessments = academicYearStart != null && academicYearEnd != null
+                ? assessmentRepository.findByStudentIdInAndTermAndAcademicYear(
+                        studentIds, term, academicYearStart, academicYearEnd)
+                : assessmentRepository.findByStudentIdInAndTerm(studentIds, term);
+        ClassGradebook gradebook = ClassGradebook.of(term, students,
+                studentSubjectRepository.findByStudentIdInWithSubject(studentIds), assessments);
 
-        int rank = 1;
-        for (StudentTermAverageDTO dto : termAverages) {
-            dto.setRank(rank++);
+        double[] averages = new double[students.size()];
+        for (int i = 0; i < averages.length; i++) {
+            averages[i] = gradebook.weightedAverage(gradebook.indexOf(students.get(i).getId()));
+        }
+
+        ClassRanker.Result ranking = ClassRanker.rank(averages);
+        List<StudentTermAverageDTO> termAverages = new ArrayList<>(students.size());
+        for (int i : ranking.order()) {
+            termAverages.add(new StudentTermAverageDTO(students.get(i), averages[i], ranking.classRank(i)));
         }
 
         return termAverages;
@@ -270,24 +286,28 @@ public class AssessmentServiceImpl implements AssessmentService {
                                                                                    Integer academicYearStart,
                                                                                    Integer academicYearEnd) {
         List<Student> students = studentRepository.findByClassRoomId(classId);
-        List<StudentYearlyAverageDTO> yearlyAverages = new ArrayList<>();
-
-        for (Student student : students) {
-            Double yearlyAverage;
-            if (academicYearStart != null && academicYearEnd != null) {
-                yearlyAverage = calculateYearlyAverageWithAcademicYear(student.getId(),
-                        academicYearStart, academicYearEnd);
-            } else {
-                yearlyAverage = calculateYearlyAverage(student.getId());
-            }
-            yearlyAverages.add(new StudentYearlyAverageDTO(student, yearlyAverage, null));
+        if (students.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        yearlyAverages.sort(Comparator.comparing(StudentYearlyAverageDTO::getYearlyAverage).reversed());
+        // Two queries for the whole class: enrollments and the assessments of all three terms
+        List<Long> studentIds = students.stream().map(Student::getId).collect(Collectors.toList());
+        List<Assessment> assessments = academicYearStart != null && academicYearEnd != null
+                ? assessmentRepository.findByStudentIdInAndAcademicYear(studentIds, academicYearStart, academicYearEnd)
+                : assessmentRepository.findByStudentIdIn(studentIds);
+        YearGradebook gradebook = YearGradebook.of(students,
+                studentSubjectRepository.findByStudentIdInWithSubject(studentIds), assessments);
+
+        double[] averages = new double[students.size()];
+        for (int i = 0; i < averages.length; i++) {
+            Map<Integer, Double> termAverages = gradebook.termAverages(students.get(i).getId());
+            averages[i] = gradeService.calculateYearlyAverage(termAverages.get(1), termAverages.get(2), termAverages.get(3));
+        }
 
-        int rank = 1;
-        for (StudentYearlyAverageDTO dto : yearlyAverages) {
-            dto.setRank(rank++);
+        ClassRanker.Result ranking = ClassRanker.rank(averages);
+        List<StudentYearlyAverageDTO> yearlyAverages = new ArrayList<>(students.size());
+        for (int i : ranking.order()) {
+            yearlyAverages.add(new StudentYearlyAverageDTO(students.get(i), averages[i], ranking.classRank(i)));
         }
 
         return yearlyAverages;
@@ -618,41 +638,45 @@ public class AssessmentServiceImpl implements AssessmentService {
     @Transactional
     public void fixAcademicYearsForStudent(Long studentId, Integer academicYearStart, Integer academicYearEnd) {
         List<Assessment> assessments = assessmentRepository.findByStudentId(studentId);
-        int fixedCount = 0;
+        List<Assessment> fixed = new ArrayList<>();
 
         for (Assessment assessment : assessments) {
             if (assessment.getAcademicYearStart() == null || assessment.getAcademicYearEnd() == null) {
                 assessment.setAcademicYearStart(academicYearStart);
                 assessment.setAcademicYearEnd(academicYearEnd);
                 assessment.setAcademicYear(academicYearStart + "-" + academicYearEnd);
-                assessmentRepository.save(assessment);
-                fixedCount++;
+                fixed.add(assessmentRepository.save(assessment));
                 log.info("Fixed academic year for assessment {}: student {}, subject {}, term {}, type {}",
                         assessment.getId(), studentId, assessment.getSubject().getName(),
                         assessment.getTerm(), assessment.getType());
             }
         }
 
-        log.info("Fixed academic years for {} assessments for student {}", fixedCount, studentId);
+        log.info("Fixed academic years for {} assessments for student {}", fixed.size(), studentId);
+        if (!fixed.isEmpty()) {
+            eventPublisher.publishEvent(AssessmentsChangedEvent.of(fixed));
+        }
     }
 
     @Override
     @Transactional
     public void fixAllAcademicYears(Integer academicYearStart, Integer academicYearEnd) {
         List<Assessment> assessments = assessmentRepository.findAll();
-        int fixedCount = 0;
+        List<Assessment> fixed = new ArrayList<>();
 
         for (Assessment assessment : assessments) {
             if (assessment.getAcademicYearStart() == null || assessment.getAcademicYearEnd() == null) {
                 assessment.setAcademicYearStart(academicYearStart);
                 assessment.setAcademicYearEnd(academicYearEnd);
                 assessment.setAcademicYear(academicYearStart + "-" + academicYearEnd);
-                assessmentRepository.save(assessment);
-                fixedCount++;
+                fixed.add(assessmentRepository.save(assessment));
             }
         }
 
-        log.info("Fixed academic years for {} assessments", fixedCount);
+        log.info("Fixed academic years for {} assessments", fixed.size());
+        if (!fixed.isEmpty()) {
+            eventPublisher.publishEvent(AssessmentsChangedEvent.of(fixed));
+        }
     }
 
     @Override
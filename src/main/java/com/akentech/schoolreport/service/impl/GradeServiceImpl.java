@@ -7,6 +7,7 @@ import com.akentech.schoolreport.service.GradeService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -70,10 +71,11 @@ public class GradeServiceImpl implements GradeService {
         };
     }
 
+    // Earliest saved assessment of the type wins, as in the report mapper
     private Double extractAssessmentScore(List<Assessment> assessments, AssessmentType type) {
         return assessments.stream()
                 .filter(a -> a.getType() == type)
-                .findFirst()
+                .min(Comparator.comparing(Assessment::getId, Comparator.nullsLast(Comparator.naturalOrder())))
                 .map(Assessment::getScore)
                 .orElse(null);
     }
@@ -4,32 +4,42 @@ import com.akentech.schoolreport.dto.*;
 import com.akentech.schoolreport.exception.EntityNotFoundException;
 import com.akentech.schoolreport.model.*;
 import com.akentech.schoolreport.repository.*;
+import com.akentech.schoolreport.service.ClassRankingService;
 import com.akentech.schoolreport.service.GradeService;
+import com.akentech.schoolreport.service.PublishedTermStore;
+import com.akentech.schoolreport.service.ReportCache;
 import com.akentech.schoolreport.service.ReportMapper;
+import com.akentech.schoolreport.service.ReportProgressListener;
 import com.akentech.schoolreport.service.ReportService;
+import com.akentech.schoolreport.service.YearlyReportEngine;
+import com.akentech.schoolreport.util.AcademicYearUtil;
+import com.akentech.schoolreport.util.ClassRankIndex;
+import com.akentech.schoolreport.util.ClassRanker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Year;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 @Slf4j
-@CacheConfig(cacheNames = {"reports"})
 public class ReportServiceImpl implements ReportService {
 
     private final StudentRepository studentRepository;
@@ -38,7 +48,19 @@ public class ReportServiceImpl implements ReportService {
     private final StudentSubjectRepository studentSubjectRepository;
     private final GradeService gradeService;
     private final ReportMapper reportMapper;
+    private final ClassRankingService classRankingService;
+    private final YearlyReportEngine yearlyReportEngine;
+    private final ReportCache reportCache;
+    private final PublishedTermStore publishedTermStore;
     private final ApplicationContext applicationContext;
+    @Qualifier("reportTaskExecutor")
+    private final Executor reportTaskExecutor;
+    @Qualifier("reportComputeExecutor")
+    private final ThreadPoolTaskExecutor reportComputeExecutor;
+
+    // Switch between parallel and sequential per-student generation, e.g. to compare throughput
+    @Value("${reports.parallel.enabled:true}")
+    private boolean parallelGeneration;
 
     @Override
     public ReportDTO getTermReportForStudentAndYear(Long studentId, Integer term, String academicYear) {
@@ -48,12 +70,49 @@ public class ReportServiceImpl implements ReportService {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new EntityNotFoundException("Student", studentId));
 
-        loadStudentRelationships(student);
-
-        int[] years = parseAcademicYear(academicYear);
+        int[] years = AcademicYearUtil.parseOrDefault(academicYear);
         int requestedYearStart = years[0];
         int requestedYearEnd = years[1];
 
+        if (student.getClassRoom() != null) {
+            Long classId = student.getClassRoom().getId();
+            Optional<ReportDTO> published = publishedTermStore.findReport(
+                    classId, term, requestedYearStart, requestedYearEnd, studentId);
+            if (published.isPresent()) {
+                log.debug("Serving published term {} report for student {}", term, studentId);
+                return published.get();
+            }
+
+            List<ReportDTO> cachedReports = reportCache.getIfPresent(
+                    termReportsCacheKey(classId, term, requestedYearStart, requestedYearEnd));
+            if (cachedReports != null) {
+                Optional<ReportDTO> fromClass = cachedReports.stream()
+                        .filter(report -> studentId.equals(report.getId()))
+                        .findFirst();
+                if (fromClass.isPresent()) {
+                    log.debug("Serving term {} report for student {} from the class result", term, studentId);
+                    return fromClass.get().copy();
+                }
+            }
+
+            // Built alone like a report of a class page; every rank and subject position comes from the
+            // class rank index in O(log N), so the classmates' reports are never built
+            ClassRankIndex index = classRankingService.getRankIndex(classId, term, requestedYearStart, requestedYearEnd);
+            ClassRankingSnapshot.Entry entry = index.entry(studentId);
+            if (entry != null) {
+                List<ReportDTO> reports = buildTermReportsForPage(List.of(entry), index.getTotalStudents(),
+                        index.subjectCounts(), ClassReportHeader.from(student.getClassRoom()), term, academicYear,
+                        requestedYearStart, requestedYearEnd);
+                if (!reports.isEmpty()) {
+                    return reports.get(0);
+                }
+            }
+        }
+
+        // Student is outside the class population for this year: built alone and placed against the class
+
+        loadStudentRelationships(student);
+
         log.info("Using academic year: {}", academicYear);
 
         List<Assessment> assessments = assessmentRepository.findByStudentIdAndTermAndAcademicYear(
@@ -75,23 +134,7 @@ public class ReportServiceImpl implements ReportService {
         ReportDTO reportDTO = reportMapper.toReportDTO(student, subjectReports, term, statistics);
         reportDTO.setAcademicYear(academicYear);
 
-        // CRITICAL FIX: Calculate rank for individual student report
-        Integer rank = calculateStudentTermRankForYear(studentId, term, academicYear, subjectReports);
-        reportDTO.setRankInClass(rank != null ? rank : 1);
-
-        // Calculate department ranking
-        Integer deptRank = calculateStudentDepartmentRankForYear(studentId, term, academicYear, subjectReports);
-        reportDTO.setRankInDepartment(deptRank);
-
-        int totalStudents = 0;
-        if (student.getClassRoom() != null) {
-            totalStudents = studentRepository.countByClassRoomIdAndAcademicYear(
-                    student.getClassRoom().getId(), requestedYearStart, requestedYearEnd);
-            if (totalStudents == 0) {
-                totalStudents = (int) studentRepository.countByClassRoomId(student.getClassRoom().getId());
-            }
-        }
-        reportDTO.setTotalStudentsInClass(totalStudents);
+        applyClassRanking(reportDTO, student, term, requestedYearStart, requestedYearEnd, subjectReports);
 
         if (reportDTO.getTermAverage() == null || reportDTO.getTermAverage() == 0.0) {
             log.debug("Term average is null or 0.0, recalculating from subject reports...");
@@ -111,378 +154,483 @@ public class ReportServiceImpl implements ReportService {
         return reportDTO;
     }
 
-    private Integer calculateStudentTermRankForYear(Long studentId, Integer term, String academicYear,
-                                                    List<SubjectReport> studentSubjectReports) {
-
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new EntityNotFoundException("Student", studentId));
-
+    /**
+     * Class and department rank for a student outside the ranked population, placed against the shared
+     * class rank index in O(log N) instead of recomputing every classmate.
+     */
+    private void applyClassRanking(ReportDTO reportDTO, Student student, Integer term,
+                                   int academicYearStart, int academicYearEnd,
+                                   List<SubjectReport> subjectReports) {
         if (student.getClassRoom() == null) {
-            log.warn("Student {} has no class assigned, cannot calculate rank", studentId);
-            return 1;
+            log.warn("Student {} has no class assigned, cannot calculate rank", student.getId());
+            reportDTO.setRankInClass(1);
+            reportDTO.setRankInDepartment(null);
+            reportDTO.setTotalStudentsInClass(0);
+            return;
         }
 
-        int[] years = parseAcademicYear(academicYear);
-        int yearStart = years[0];
-        int yearEnd = years[1];
+        ClassRankIndex index = classRankingService.getRankIndex(
+                student.getClassRoom().getId(), term, academicYearStart, academicYearEnd);
+        Long departmentId = student.getDepartment() != null ? student.getDepartment().getId() : null;
 
-        Long classId = student.getClassRoom().getId();
-
-        List<Student> classStudents = studentRepository.findByClassRoomIdAndAcademicYear(
-                classId, yearStart, yearEnd);
-
-        if (classStudents.isEmpty()) {
-            log.debug("No students found for class {} in academic year {}, fetching all students",
-                    classId, academicYear);
-            classStudents = studentRepository.findByClassRoomId(classId);
+        if (index.containsStudent(student.getId())) {
+            reportDTO.setRankInClass(index.rankInClass(student.getId()));
+            reportDTO.setRankInDepartment(index.rankInDepartment(student.getId()));
+        } else {
+            // Student is outside the class population for this year; place them against it
+            double average = gradeService.calculateWeightedTermAverage(subjectReports);
+            reportDTO.setRankInClass(index.rankFor(average));
+            reportDTO.setRankInDepartment(departmentId != null ? index.departmentRankFor(departmentId, average) : null);
         }
 
-        if (classStudents.size() <= 1) {
-            log.debug("Only 1 student in class, rank is 1");
-            return 1;
-        }
+        reportDTO.setTotalStudentsInClass(index.getTotalStudents());
 
-        log.debug("Calculating rank for student {} among {} students in class {}",
-                studentId, classStudents.size(), classId);
+        log.debug("Student {} rank {}/{} (department rank {}) from class rank index",
+                student.getId(), reportDTO.getRankInClass(), index.getTotalStudents(),
+                reportDTO.getRankInDepartment());
+    }
 
-        Map<Long, Double> studentAverages = new HashMap<>();
+    @Override
+    public List<ReportDTO> getTermReportsForClassAndYear(Long classId, Integer term, String academicYear) {
+        return getTermReportsForClassAndYear(classId, term, academicYear, ReportProgressListener.NONE);
+    }
 
-        Double currentStudentAverage = gradeService.calculateWeightedTermAverage(studentSubjectReports);
-        studentAverages.put(studentId, currentStudentAverage);
-        log.debug("Current student {} average: {}", studentId, currentStudentAverage);
+    @Override
+    public List<ReportDTO> getTermReportsForClassAndYear(Long classId, Integer term, String academicYear,
+                                                         ReportProgressListener listener) {
+        int[] years = AcademicYearUtil.parseOrDefault(academicYear);
+        Optional<List<ReportDTO>> published = publishedTermStore.findReports(classId, term, years[0], years[1]);
+        if (published.isPresent()) {
+            log.debug("Serving published term {} reports for class {} academic year {}", term, classId, academicYear);
+            return published.get();
+        }
 
-        for (Student classStudent : classStudents) {
-            if (classStudent.getId().equals(studentId)) {
-                continue;
-            }
+        return computeTermReportsForClassAndYear(classId, term, academicYear, listener);
+    }
 
-            List<Assessment> assessments = assessmentRepository.findByStudentIdAndTermAndAcademicYear(
-                    classStudent.getId(), term, yearStart, yearEnd);
+    @Override
+    public List<ReportDTO> computeTermReportsForClassAndYear(Long classId, Integer term, String academicYear) {
+        return computeTermReportsForClassAndYear(classId, term, academicYear, ReportProgressListener.NONE);
+    }
 
-            if (assessments.isEmpty()) {
-                assessments = assessmentRepository.findByStudentIdAndTerm(classStudent.getId(), term);
-            }
+    private List<ReportDTO> computeTermReportsForClassAndYear(Long classId, Integer term, String academicYear,
+                                                             ReportProgressListener listener) {
+        log.info("Generating term {} reports for class ID: {} for academic year: {}",
+                term, classId, academicYear);
 
-            List<SubjectReport> reports = calculateSubjectReports(classStudent, assessments, term);
-            Double average = gradeService.calculateWeightedTermAverage(reports);
-            studentAverages.put(classStudent.getId(), average);
+        // Copy so callers can sort, slice or edit the reports without touching the cached ones
+        return copyReports(cachedTermReports(classId, term, academicYear, listener));
+    }
 
-            log.trace("Student {} average: {}", classStudent.getFullName(), average);
-        }
+    /**
+     * The cached class reports, built on a miss; shared with every reader, so never modified.
+     */
+    private List<ReportDTO> cachedTermReports(Long classId, Integer term, String academicYear,
+                                              ReportProgressListener listener) {
+        int[] years = AcademicYearUtil.parseOrDefault(academicYear);
+        String key = termReportsCacheKey(classId, term, years[0], years[1]);
+
+        // A cancelled build throws, so a partial result never reaches the cache
+        return reportCache.get(key, classId,
+                () -> buildTermReportsForClassAndYear(classId, term, academicYear, listener),
+                list -> list.stream().map(ReportDTO::getId).filter(Objects::nonNull).toList());
+    }
 
-        List<Map.Entry<Long, Double>> sortedEntries = studentAverages.entrySet().stream()
-                .filter(entry -> entry.getValue() != null)
-                .sorted((e1, e2) -> {
-                    double avg1 = e1.getValue();
-                    double avg2 = e2.getValue() != null ? e2.getValue() : 0.0;
-                    return Double.compare(avg2, avg1);
-                })
-                .toList();
+    private List<ReportDTO> buildTermReportsForClassAndYear(Long classId, Integer term, String academicYear,
+                                                           ReportProgressListener listener) {
+        int[] years = AcademicYearUtil.parseOrDefault(academicYear);
+        int requestedYearStart = years[0];
+        int requestedYearEnd = years[1];
 
-        for (int i = 0; i < sortedEntries.size(); i++) {
-            if (sortedEntries.get(i).getKey().equals(studentId)) {
-                int rank = i + 1;
+        ClassRoom classRoom = classRoomRepository.findById(classId)
+                .orElseThrow(() -> new EntityNotFoundException("ClassRoom", classId));
 
-                if (i > 0) {
-                    Double currentAvg = sortedEntries.get(i).getValue();
-                    Double prevAvg = sortedEntries.get(i - 1).getValue();
-                    if (currentAvg != null && prevAvg != null &&
-                            Double.compare(currentAvg, prevAvg) == 0) {
-                        rank = i;
-                    }
-                }
+        List<Student> students = studentRepository.findByClassRoomIdAndAcademicYear(
+                classId, requestedYearStart, requestedYearEnd);
 
-                log.debug("Student {} rank: {}/{} with average {}",
-                        studentId, rank, sortedEntries.size(),
-                        sortedEntries.get(i).getValue());
-                return rank;
-            }
+        if (students.isEmpty()) {
+            log.warn("No students found for class {} in academic year {}, fetching all students",
+                    classId, academicYear);
+            students = studentRepository.findByClassRoomId(classId);
         }
 
-        log.warn("Student {} not found in ranking list, assigning last rank", studentId);
-        return sortedEntries.size();
-    }
+        log.info("Found {} students in class {} for academic year {}",
+                students.size(), classRoom.getName(), academicYear);
 
-    private Integer calculateStudentDepartmentRankForYear(Long studentId, Integer term, String academicYear,
-                                                          List<SubjectReport> studentSubjectReports) {
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new EntityNotFoundException("Student", studentId));
+        List<Long> studentIds = students.stream()
+                .map(Student::getId)
+                .collect(Collectors.toList());
 
-        // If student has no department, return null
-        if (student.getDepartment() == null) {
-            log.debug("Student {} has no department assigned, skipping department rank", studentId);
-            return null;
-        }
+        ClassGradebook gradebook = ClassGradebook.of(term, students,
+                studentIds.isEmpty() ? List.of() : studentSubjectRepository.findByStudentIdInWithSubject(studentIds),
+                studentIds.isEmpty() ? List.of() : loadTermAssessments(studentIds, term, requestedYearStart, requestedYearEnd));
 
-        if (student.getClassRoom() == null) {
-            log.warn("Student {} has no class assigned, cannot calculate department rank", studentId);
-            return null;
-        }
+        List<ReportDTO> reports = buildTermReports(students, gradebook, ClassReportHeader.from(classRoom),
+                term, academicYear, listener);
 
-        int[] years = parseAcademicYear(academicYear);
-        int yearStart = years[0];
-        int yearEnd = years[1];
+        calculateRanksForReports(reports, students, gradebook);
 
-        Long classId = student.getClassRoom().getId();
-        Long deptId = student.getDepartment().getId();
+        reports.sort(Comparator.comparing(ReportDTO::getRankInClass)
+                .thenComparing(ReportDTO::getStudentFullName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
 
-        // Get all students in the same class AND department
-        List<Student> classStudents = studentRepository.findByClassRoomIdAndAcademicYear(
-                classId, yearStart, yearEnd);
+        log.info("Successfully generated {} reports for class {} term {} academic year {}",
+                reports.size(), classRoom.getName(), term, academicYear);
 
-        if (classStudents.isEmpty()) {
-            classStudents = studentRepository.findByClassRoomId(classId);
-        }
+        return reports;
+    }
 
-        // Filter by department
-        List<Student> deptStudents = classStudents.stream()
-                .filter(s -> s.getDepartment() != null && s.getDepartment().getId().equals(deptId))
-                .toList();
+    /**
+     * Class, department and specialty ranks plus per-subject positions for a whole class, from one
+     * {@link ClassRanker} pass over the reports' term averages and the gradebook's subject averages.
+     * The reports are in the order of the students they were built for.
+     */
+    private void calculateRanksForReports(List<ReportDTO> reports, List<Student> students, ClassGradebook gradebook) {
+        if (reports == null || reports.isEmpty()) {
+            log.warn("No reports to calculate ranks for");
+            return;
+        }
 
-        if (deptStudents.size() <= 1) {
-            log.debug("Only 1 student in department, rank is 1");
-            return 1;
+        int size = reports.size();
+        double[] averages = new double[size];
+        List<Long> departments = new ArrayList<>(size);
+        List<Object> specialties = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ReportDTO report = reports.get(i);
+            Student student = students.get(i);
+            averages[i] = report.getTermAverage() != null ? report.getTermAverage() : 0.0;
+            departments.add(student.getDepartment() != null ? student.getDepartment().getId() : null);
+            specialties.add(specialtyGroup(student));
         }
 
-        log.debug("Calculating department rank for student {} among {} students in department {}",
-                studentId, deptStudents.size(), student.getDepartment().getName());
+        // Subject columns are indexed by gradebook row
+        int subjectCount = gradebook.getSubjectCount();
+        double[][] subjectAverages = new double[subjectCount][];
+        Map<Long, Integer> subjectById = new HashMap<>();
+        for (int j = 0; j < subjectCount; j++) {
+            subjectAverages[j] = gradebook.subjectColumn(j);
+            subjectById.put(gradebook.getSubject(j).getId(), j);
+        }
 
-        Map<Long, Double> studentAverages = new HashMap<>();
+        ClassRanker.Result ranking = ClassRanker.rank(averages,
+                ClassRanker.groupIds(departments), ClassRanker.groupIds(specialties), subjectAverages);
 
-        Double currentStudentAverage = gradeService.calculateWeightedTermAverage(studentSubjectReports);
-        studentAverages.put(studentId, currentStudentAverage);
+        for (int i = 0; i < size; i++) {
+            ReportDTO report = reports.get(i);
+            report.setRankInClass(ranking.classRank(i));
+            report.setRankInDepartment(ranking.departmentRank(i));
+            report.setRankInSpecialty(ranking.specialtyRank(i));
+            report.setTotalStudentsInClass(size);
 
-        for (Student deptStudent : deptStudents) {
-            if (deptStudent.getId().equals(studentId)) {
+            int row = gradebook.indexOf(students.get(i).getId());
+            if (row < 0 || report.getSubjectReports() == null) {
                 continue;
             }
-
-            List<Assessment> assessments = assessmentRepository.findByStudentIdAndTermAndAcademicYear(
-                    deptStudent.getId(), term, yearStart, yearEnd);
-
-            if (assessments.isEmpty()) {
-                assessments = assessmentRepository.findByStudentIdAndTerm(deptStudent.getId(), term);
-            }
-
-            List<SubjectReport> reports = calculateSubjectReports(deptStudent, assessments, term);
-            Double average = gradeService.calculateWeightedTermAverage(reports);
-            studentAverages.put(deptStudent.getId(), average);
-        }
-
-        List<Map.Entry<Long, Double>> sortedEntries = studentAverages.entrySet().stream()
-                .filter(entry -> entry.getValue() != null)
-                .sorted((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()))
-                .toList();
-
-        for (int i = 0; i < sortedEntries.size(); i++) {
-            if (sortedEntries.get(i).getKey().equals(studentId)) {
-                int rank = i + 1;
-
-                if (i > 0) {
-                    Double currentAvg = sortedEntries.get(i).getValue();
-                    Double prevAvg = sortedEntries.get(i - 1).getValue();
-                    if (currentAvg != null && prevAvg != null &&
-                            Double.compare(currentAvg, prevAvg) == 0) {
-                        rank = i;
-                    }
+            for (SubjectReport subjectReport : report.getSubjectReports()) {
+                Integer j = subjectById.get(subjectReport.getSubjectId());
+                if (j != null) {
+                    subjectReport.setPositionInClass(ranking.subjectPosition(j, row));
+                    subjectReport.setPositionOutOf(ranking.subjectCount(j));
                 }
-
-                log.debug("Student {} department rank: {}/{} with average {}",
-                        studentId, rank, sortedEntries.size(), sortedEntries.get(i).getValue());
-                return rank;
             }
         }
 
-        log.warn("Student {} not found in department ranking list", studentId);
-        return sortedEntries.size();
+        ReportDTO top = reports.get(ranking.order()[0]);
+        log.info("Rank calculation complete for {} reports. Top student: {} with average {}",
+                size, top.getStudentFullName(), top.getTermAverage());
+    }
+
+    private static Object specialtyGroup(Student student) {
+        Long departmentId = student.getDepartment() != null ? student.getDepartment().getId() : null;
+        return ClassRanker.specialtyGroup(departmentId, student.getSpecialty());
     }
 
     @Override
-    public List<ReportDTO> getTermReportsForClassAndYear(Long classId, Integer term, String academicYear) {
-        log.info("Generating term {} reports for class ID: {} for academic year: {}",
+    public Page<ReportDTO> getPaginatedTermReportsForClassAndYear(Long classId, Integer term,
+                                                                  String academicYear, Pageable pageable) {
+        log.info("Generating paginated term {} reports for class ID: {} for academic year: {}",
                 term, classId, academicYear);
 
-        int[] years = parseAcademicYear(academicYear);
-        int requestedYearStart = years[0];
-        int requestedYearEnd = years[1];
+        int[] years = AcademicYearUtil.parseOrDefault(academicYear);
+        int academicYearStart = years[0];
+        int academicYearEnd = years[1];
+
+        // The whole class is already built: sorting and slicing it is cheaper than building a page
+        Optional<List<ReportDTO>> published = publishedTermStore
+                .findReports(classId, term, academicYearStart, academicYearEnd);
+        if (published.isPresent()) {
+            List<ReportDTO> allReports = published.get();
+            sortReports(allReports, pageable.getSort());
+            return slicePage(allReports, pageable);
+        }
+        List<ReportDTO> cachedReports = reportCache.getIfPresent(
+                termReportsCacheKey(classId, term, academicYearStart, academicYearEnd));
+        if (cachedReports != null) {
+            List<ReportDTO> allReports = new ArrayList<>(cachedReports);
+            sortReports(allReports, pageable.getSort());
+            return slicePage(allReports, pageable).map(ReportDTO::copy);
+        }
 
         ClassRoom classRoom = classRoomRepository.findById(classId)
                 .orElseThrow(() -> new EntityNotFoundException("ClassRoom", classId));
 
-        List<Student> students = studentRepository.findByClassRoomIdAndAcademicYear(
-                classId, requestedYearStart, requestedYearEnd);
+        // Rank index from lightweight averages; only the requested page gets full reports
+        ClassRankingSnapshot index = classRankingService.getSnapshot(classId, term, academicYearStart, academicYearEnd);
+        List<ClassRankingSnapshot.Entry> ordered = new ArrayList<>(index.getEntries().values());
+        ordered.sort(getIndexComparator(pageable.getSort()));
 
-        if (students.isEmpty()) {
-            log.warn("No students found for class {} in academic year {}, fetching all students",
-                    classId, academicYear);
-            students = studentRepository.findByClassRoomId(classId);
+        int start = (int) pageable.getOffset();
+        if (start >= ordered.size()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, ordered.size());
         }
+        int end = Math.min(start + pageable.getPageSize(), ordered.size());
 
-        log.info("Found {} students in class {} for academic year {}",
-                students.size(), classRoom.getName(), academicYear);
-
-        Map<Long, List<Assessment>> assessmentsByStudent = new HashMap<>();
-        if (!students.isEmpty()) {
-            List<Long> studentIds = students.stream()
-                    .map(Student::getId)
-                    .collect(Collectors.toList());
-
-            List<Assessment> allAssessments = assessmentRepository.findByStudentIdInAndTermAndAcademicYear(
-                    studentIds, term, requestedYearStart, requestedYearEnd);
+        List<ReportDTO> pageReports = buildTermReportsForPage(ordered.subList(start, end), index.getTotalStudents(),
+                index.getSubjectCounts(), ClassReportHeader.from(classRoom), term, academicYear,
+                academicYearStart, academicYearEnd);
 
-            assessmentsByStudent = allAssessments.stream()
-                    .collect(Collectors.groupingBy(a -> a.getStudent().getId()));
+        return new PageImpl<>(pageReports, pageable, ordered.size());
+    }
 
-            log.debug("Batch fetched {} assessments for {} students for academic year {}-{}",
-                    allAssessments.size(), studentIds.size(), requestedYearStart, requestedYearEnd);
-        }
+    @Override
+    public List<ReportDTO> getTermReportsForRankedStudents(Long classId, Integer term, String academicYear,
+                                                           ClassRankingSnapshot snapshot,
+                                                           List<ClassRankingSnapshot.Entry> entries) {
+        int[] years = AcademicYearUtil.parseOrDefault(academicYear);
+        ClassRoom classRoom = classRoomRepository.findById(classId)
+                .orElseThrow(() -> new EntityNotFoundException("ClassRoom", classId));
 
-        List<ReportDTO> reports = new ArrayList<>();
+        return buildTermReportsForPage(entries, snapshot.getTotalStudents(), snapshot.getSubjectCounts(),
+                ClassReportHeader.from(classRoom), term, academicYear, years[0], years[1]);
+    }
 
-        for (Student student : students) {
-            try {
-                List<Assessment> studentAssessments = assessmentsByStudent.getOrDefault(
-                        student.getId(), new ArrayList<>());
+    private List<ReportDTO> buildTermReportsForPage(List<ClassRankingSnapshot.Entry> pageEntries, int totalStudents,
+                                                    Map<Long, Integer> subjectCounts, ClassReportHeader classHeader,
+                                                    Integer term, String academicYear,
+                                                    int academicYearStart, int academicYearEnd) {
+        List<Long> studentIds = pageEntries.stream()
+                .map(ClassRankingSnapshot.Entry::getStudentId)
+                .collect(Collectors.toList());
 
-                log.debug("Student {}: {} assessments for academic year {}",
-                        student.getFullName(), studentAssessments.size(), academicYear);
+        Map<Long, Student> studentsById = studentRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(Student::getId, s -> s));
 
-                loadStudentRelationships(student);
+        List<Assessment> assessments = loadTermAssessments(studentIds, term, academicYearStart, academicYearEnd);
 
-                List<SubjectReport> subjectReports = calculateSubjectReports(student, studentAssessments, term);
-                Map<String, Object> statistics = calculateTermStatistics(subjectReports, student, term);
+        List<Student> pageStudents = pageEntries.stream()
+                .map(entry -> studentsById.get(entry.getStudentId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
 
-                ReportDTO report = reportMapper.toReportDTO(student, subjectReports, term, statistics);
-                report.setAcademicYear(academicYear);
+        ClassGradebook gradebook = ClassGradebook.of(term, pageStudents,
+                studentSubjectRepository.findByStudentIdInWithSubject(studentIds), assessments);
 
-                if (report.getTermAverage() == null || report.getTermAverage() == 0.0) {
-                    Double recalculatedAverage = gradeService.calculateWeightedTermAverage(subjectReports);
-                    report.setTermAverage(recalculatedAverage);
-                    report.setFormattedAverage(String.format("%.2f/20", recalculatedAverage));
-                }
+        List<ReportDTO> reports = new ArrayList<>(pageEntries.size());
 
-                if (report.getClassName() == null || report.getClassName().isEmpty()) {
-                    report.setClassName(student.getClassRoom() != null ? student.getClassRoom().getName() : "");
-                }
+        for (ClassRankingSnapshot.Entry entry : pageEntries) {
+            Student student = studentsById.get(entry.getStudentId());
+            if (student == null) {
+                continue;
+            }
 
-                report.setAction(generateStudentAction(report));
+            try {
+                ReportDTO report = buildTermReport(student, gradebook, classHeader, term, academicYear);
+                applyRanks(report, entry, totalStudents, subjectCounts);
                 reports.add(report);
-
-                log.debug("Generated report for student {}: Average={}, Subjects={}",
-                        student.getFullName(), report.getTermAverage(), subjectReports.size());
-
             } catch (Exception e) {
                 log.error("Error generating report for student {}: {}", student.getId(), e.getMessage(), e);
                 reports.add(createEmptyReport(student, term, academicYear));
             }
         }
 
-        // CRITICAL FIX: Calculate ranks for all reports
-        calculateRanksForReports(reports);
-
-        reports.sort(Comparator.comparing(ReportDTO::getRankInClass));
-
-        log.info("Successfully generated {} reports for class {} term {} academic year {}",
-                reports.size(), classRoom.getName(), term, academicYear);
-
         return reports;
     }
 
-    private void calculateRanksForReports(List<ReportDTO> reports) {
-        if (reports == null || reports.isEmpty()) {
-            log.warn("No reports to calculate ranks for");
+    /**
+     * Ranks and subject positions from the class ranking on a report built without its classmates,
+     * matching what the whole-class pass sets.
+     */
+    private static void applyRanks(ReportDTO report, ClassRankingSnapshot.Entry entry, int totalStudents,
+                                   Map<Long, Integer> subjectCounts) {
+        report.setRankInClass(entry.getRankInClass());
+        report.setRankInDepartment(entry.getRankInDepartment());
+        report.setRankInSpecialty(entry.getRankInSpecialty());
+        report.setTotalStudentsInClass(totalStudents);
+
+        if (report.getSubjectReports() == null) {
             return;
         }
+        for (SubjectReport subjectReport : report.getSubjectReports()) {
+            subjectReport.setPositionInClass(entry.getSubjectPositions().get(subjectReport.getSubjectId()));
+            subjectReport.setPositionOutOf(subjectCounts.getOrDefault(subjectReport.getSubjectId(), 0));
+        }
+    }
 
-        log.debug("Calculating ranks for {} reports", reports.size());
+    /**
+     * Term assessments of the students for the academic year, falling back to the term's scores of
+     * any year for students with none in that year. Same rule as the rank index, so averages on a
+     * report always match the rank shown next to them, whether the report came from a page or a
+     * whole-class build.
+     */
+    private List<Assessment> loadTermAssessments(List<Long> studentIds, Integer term,
+                                                 int academicYearStart, int academicYearEnd) {
+        List<Assessment> assessments = new ArrayList<>(assessmentRepository
+                .findByStudentIdInAndTermAndAcademicYear(studentIds, term, academicYearStart, academicYearEnd));
+
+        Set<Long> withYearData = assessments.stream()
+                .map(a -> a.getStudent().getId())
+                .collect(Collectors.toSet());
+        List<Long> withoutYearData = studentIds.stream()
+                .filter(id -> !withYearData.contains(id))
+                .collect(Collectors.toList());
+        if (!withoutYearData.isEmpty()) {
+            assessments.addAll(assessmentRepository.findByStudentIdInAndTerm(withoutYearData, term));
+        }
+        return assessments;
+    }
 
-        List<ReportDTO> sorted = reports.stream()
-                .sorted((r1, r2) -> {
-                    double avg1 = r1.getTermAverage() != null ? r1.getTermAverage() : 0.0;
-                    double avg2 = r2.getTermAverage() != null ? r2.getTermAverage() : 0.0;
-                    int compare = Double.compare(avg2, avg1);
-                    if (compare == 0) {
-                        return r1.getStudentFullName().compareToIgnoreCase(r2.getStudentFullName());
+    /**
+     * Builds unranked term reports for the students, in input order. All data is loaded into the
+     * gradebook beforehand, so workers only compute in memory and never touch the persistence context.
+     * The listener is told about each finished student and checked for cancellation before each one.
+     */
+    private List<ReportDTO> buildTermReports(List<Student> students, ClassGradebook gradebook,
+                                             ClassReportHeader classHeader, Integer term, String academicYear,
+                                             ReportProgressListener listener) {
+        long started = System.nanoTime();
+        int size = students.size();
+        ReportDTO[] reports = new ReportDTO[size];
+        boolean parallel = parallelGeneration && size > 1;
+        listener.onStart(size);
+
+        if (parallel) {
+            int chunkSize = (size + reportComputeExecutor.getMaxPoolSize() - 1) / reportComputeExecutor.getMaxPoolSize();
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+
+            for (int from = 0; from < size; from += chunkSize) {
+                int chunkStart = from;
+                int chunkEnd = Math.min(from + chunkSize, size);
+                chunks.add(CompletableFuture.runAsync(() -> {
+                    for (int i = chunkStart; i < chunkEnd; i++) {
+                        reports[i] = buildTrackedTermReport(students.get(i), gradebook, classHeader, term, academicYear, listener);
                     }
-                    return compare;
-                })
-                .toList();
-
-        int currentRank = 0;
-        Double lastAvg = null;
-        for (int i = 0; i < sorted.size(); i++) {
-            ReportDTO report = sorted.get(i);
-            Double avg = report.getTermAverage();
+                }, reportComputeExecutor));
+            }
 
-            if (lastAvg == null || Double.compare(avg, lastAvg) != 0) {
-                currentRank = i + 1;
-                lastAvg = avg;
+            try {
+                CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof CancellationException) {
+                    throw (CancellationException) e.getCause();
+                }
+                throw e;
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                reports[i] = buildTrackedTermReport(students.get(i), gradebook, classHeader, term, academicYear, listener);
             }
+        }
+
+        log.info("Built {} term {} reports {} in {} ms", size, term,
+                parallel ? "in parallel" : "sequentially", (System.nanoTime() - started) / 1_000_000);
 
-            report.setRankInClass(currentRank);
-            report.setTotalStudentsInClass(sorted.size());
+        return new ArrayList<>(Arrays.asList(reports));
+    }
 
-            log.debug("Assigned rank {} to student {} with average {} (out of {} students)",
-                    currentRank, report.getStudentFullName(), avg, sorted.size());
+    private ReportDTO buildTrackedTermReport(Student student, ClassGradebook gradebook, ClassReportHeader classHeader,
+                                             Integer term, String academicYear, ReportProgressListener listener) {
+        if (listener.isCancelled()) {
+            throw new CancellationException("Report generation cancelled");
         }
+        ReportDTO report = buildTermReportOrEmpty(student, gradebook, classHeader, term, academicYear);
+        listener.onStudentCompleted();
+        return report;
+    }
 
-        log.info("Rank calculation complete. Top student: {} with rank 1 and average {}",
-                sorted.get(0).getStudentFullName(), sorted.get(0).getTermAverage());
+    private ReportDTO buildTermReportOrEmpty(Student student, ClassGradebook gradebook,
+                                             ClassReportHeader classHeader, Integer term, String academicYear) {
+        try {
+            ReportDTO report = buildTermReport(student, gradebook, classHeader, term, academicYear);
 
-        // Calculate department rankings
-        calculateDepartmentRanks(sorted);
+            if (report.getClassName() == null || report.getClassName().isEmpty()) {
+                report.setClassName(student.getClassRoom() != null ? student.getClassRoom().getName() : "");
+            }
+
+            log.debug("Generated report for student {}: Average={}, Subjects={}",
+                    student.getFullName(), report.getTermAverage(), report.getTotalSubjects());
+            return report;
+        } catch (Exception e) {
+            log.error("Error generating report for student {}: {}", student.getId(), e.getMessage(), e);
+            return createEmptyReport(student, term, academicYear);
+        }
     }
 
     /**
-     * Calculate department rankings for students grouped by department.
+     * Term report for one gradebook row; ranks are left for the caller to fill in.
      */
-    private void calculateDepartmentRanks(List<ReportDTO> reports) {
-        // Group students by department
-        Map<String, List<ReportDTO>> byDepartment = new HashMap<>();
-        for (ReportDTO report : reports) {
-            String dept = report.getDepartment();
-            if (dept != null && !dept.equals("N/A")) {
-                byDepartment.computeIfAbsent(dept, k -> new ArrayList<>()).add(report);
-            }
-        }
+    private ReportDTO buildTermReport(Student student, ClassGradebook gradebook, ClassReportHeader classHeader,
+                                      Integer term, String academicYear) {
+        String className = student.getClassRoom() != null ? student.getClassRoom().getName() : "";
+        int row = gradebook.indexOf(student.getId());
 
-        // Calculate ranking within each department
-        for (List<ReportDTO> deptReports : byDepartment.values()) {
-            int currentRank = 0;
-            Double lastAvg = null;
-            for (int i = 0; i < deptReports.size(); i++) {
-                ReportDTO report = deptReports.get(i);
-                Double avg = report.getTermAverage();
-
-                if (lastAvg == null || Double.compare(avg, lastAvg) != 0) {
-                    currentRank = i + 1;
-                    lastAvg = avg;
-                }
+        List<SubjectReport> subjectReports = reportMapper.toSubjectReports(gradebook, row, className);
+        Map<String, Object> statistics = calculateTermStatistics(subjectReports, student, term);
 
-                report.setRankInDepartment(currentRank);
-            }
+        ReportDTO report = reportMapper.toReportDTO(student, classHeader, subjectReports, term, statistics);
+        report.setAcademicYear(academicYear);
+
+        if (report.getTermAverage() == null || report.getTermAverage() == 0.0) {
+            double average = gradebook.weightedAverage(row);
+            report.setTermAverage(average);
+            report.setFormattedAverage(String.format("%.2f/20", average));
         }
+
+        report.setAction(generateStudentAction(report));
+        return report;
     }
 
-    @Override
-    public Page<ReportDTO> getPaginatedTermReportsForClassAndYear(Long classId, Integer term,
-                                                                  String academicYear, Pageable pageable) {
-        log.info("Generating paginated term {} reports for class ID: {} for academic year: {}",
-                term, classId, academicYear);
+    private Comparator<ClassRankingSnapshot.Entry> getIndexComparator(Sort sort) {
+        Comparator<ClassRankingSnapshot.Entry> byRank =
+                Comparator.comparingInt(ClassRankingSnapshot.Entry::getRankInClass);
 
-        List<ReportDTO> allReports = getTermReportsForClassAndYear(classId, term, academicYear);
+        Comparator<ClassRankingSnapshot.Entry> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<ClassRankingSnapshot.Entry> current = switch (order.getProperty()) {
+                case "rankInClass" -> byRank;
+                case "termAverage" -> Comparator.comparingDouble(ClassRankingSnapshot.Entry::getAverage);
+                case "studentFullName" -> Comparator.comparing(ClassRankingSnapshot.Entry::getStudentFullName,
+                        Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                case "rollNumber" -> Comparator.comparing(ClassRankingSnapshot.Entry::getRollNumber,
+                        Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                default -> null;
+            };
+            if (current != null) {
+                if (order.isDescending()) {
+                    current = current.reversed();
+                }
+                comparator = comparator == null ? current : comparator.thenComparing(current);
+            }
+        }
 
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), allReports.size());
+        // Rank, then student ID, keeps page boundaries stable between requests
+        comparator = comparator == null ? byRank : comparator.thenComparing(byRank);
+        return comparator.thenComparing(ClassRankingSnapshot.Entry::getStudentId);
+    }
 
-        if (start > allReports.size()) {
-            return new PageImpl<>(Collections.emptyList(), pageable, allReports.size());
+    private <T> Page<T> slicePage(List<T> items, Pageable pageable) {
+        int start = (int) pageable.getOffset();
+        if (start >= items.size()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, items.size());
         }
+        int end = Math.min(start + pageable.getPageSize(), items.size());
+        return new PageImpl<>(new ArrayList<>(items.subList(start, end)), pageable, items.size());
+    }
 
-        List<ReportDTO> pageReports = allReports.subList(start, end);
-        sortReports(pageReports, pageable.getSort());
+    private static List<ReportDTO> copyReports(List<ReportDTO> reports) {
+        return reports.stream().map(ReportDTO::copy).collect(Collectors.toCollection(ArrayList::new));
+    }
 
-        return new PageImpl<>(pageReports, pageable, allReports.size());
+    private String termReportsCacheKey(Long classId, Integer term, int academicYearStart, int academicYearEnd) {
+        return "term:" + classId + ":" + term + ":" + academicYearStart + "-" + academicYearEnd;
     }
 
     @Override
@@ -493,97 +641,39 @@ public class ReportServiceImpl implements ReportService {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new EntityNotFoundException("Student", studentId));
 
-        int[] years = parseAcademicYear(academicYear);
+        int[] years = AcademicYearUtil.parseOrDefault(academicYear);
         int academicYearStart = years[0];
         int academicYearEnd = years[1];
 
-        Map<Integer, Double> termAverages = calculateAllTermAveragesForYear(
-                studentId, academicYearStart, academicYearEnd);
-
-        Double yearlyAverage = termAverages.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
-
-        boolean passed = gradeService.isPassing(yearlyAverage);
+        Long classId = student.getClassRoom() != null ? student.getClassRoom().getId() : null;
+        ClassReportHeader classHeader = ClassReportHeader.from(student.getClassRoom());
 
-        List<ReportDTO> termReports = new ArrayList<>();
-        List<TermReportSummary> termSummaries = new ArrayList<>();
-
-        for (int term = 1; term <= 3; term++) {
-            try {
-                ReportDTO termReport = getTermReportForStudentAndYear(studentId, term, academicYear);
-                termReports.add(termReport);
-
-                termSummaries.add(TermReportSummary.builder()
-                        .term(term)
-                        .termAverage(termReport.getTermAverage())
-                        .formattedAverage(termReport.getFormattedAverage())
-                        .rankInClass(termReport.getRankInClass())
-                        .remarks(termReport.getRemarks())
-                        .passed(gradeService.isPassing(termReport.getTermAverage()))
-                        .build());
-            } catch (Exception e) {
-                log.warn("Could not generate term {} report for year {}: {}", term, academicYear, e.getMessage());
-                termSummaries.add(createEmptyTermSummary(term));
+        // Ranks and class totals need the whole class; the class result is shared with the class list
+        if (classId != null) {
+            YearlyClassResult classResult = getYearlyClassResult(classId, academicYearStart, academicYearEnd);
+            Optional<YearlyClassResult.StudentResult> result = findStudentResult(classResult, studentId);
+            if (result.isPresent()) {
+                return toYearlyReportDTO(result.get(), classResult, classHeader);
             }
         }
 
-        List<YearlySubjectReport> yearlySubjectReports = calculateYearlySubjectReports(termReports);
+        // Student outside the class population for this year (or without a class): rank them with it
+        List<Student> population = new ArrayList<>(classId != null
+                ? studentRepository.findByClassRoomIdAndAcademicYear(classId, academicYearStart, academicYearEnd)
+                : List.of());
+        population.add(student);
 
-        String className = student.getClassRoom() != null ? student.getClassRoom().getName() : "";
-        double passRate = gradeService.calculatePassRate(
-                yearlySubjectReports.stream()
-                        .map(ysr -> SubjectReport.builder()
-                                .subjectName(ysr.getSubjectName())
-                                .letterGrade(ysr.getYearlyGrade())
-                                .className(className)
-                                .build())
-                        .collect(Collectors.toList()),
-                className
-        );
-
-        Integer yearlyRank = calculateYearlyRankForYear(studentId, student.getClassRoom().getId(),
-                academicYearStart, academicYearEnd);
-
-        int totalStudentsInClass = (int) studentRepository.countByClassRoomIdAndAcademicYear(
-                student.getClassRoom().getId(), academicYearStart, academicYearEnd);
-        int totalPassed = calculateTotalPassedInClassForYear(student.getClassRoom().getId(),
-                academicYearStart, academicYearEnd);
-        int totalFailed = totalStudentsInClass - totalPassed;
-
-        String remarks = generateYearlyRemarks(yearlyAverage, passRate);
-        String overallGrade = gradeService.calculateLetterGrade(yearlyAverage, className);
-        String action = generateYearlyStudentAction(yearlyAverage, passRate, passed);
+        YearlyClassResult classResult = yearlyReportEngine.compute(classId, population, academicYearStart, academicYearEnd);
+        return findStudentResult(classResult, studentId)
+                .map(result -> toYearlyReportDTO(result, classResult, classHeader))
+                .orElseGet(() -> createEmptyYearlyReport(student));
+    }
 
-        return YearlyReportDTO.builder()
-                .student(student)
-                .studentFullName(student.getFullName())
-                .rollNumber(student.getRollNumber())
-                .className(student.getClassRoom().getName())
-                .department(student.getDepartment() != null ? student.getDepartment().getName() : "")
-                .specialty(student.getSpecialty())
-                .academicYear(academicYearStart)
-                .yearlyAverage(yearlyAverage)
-                .formattedYearlyAverage(String.format("%.2f/20", yearlyAverage))
-                .passRate(passRate)
-                .formattedPassRate(String.format("%.1f%%", passRate))
-                .yearlyRank(yearlyRank)
-                .term1Rank(getTermRank(termReports, 1))
-                .term2Rank(getTermRank(termReports, 2))
-                .term3Rank(getTermRank(termReports, 3))
-                .remarks(remarks)
-                .passed(passed)
-                .overallGrade(overallGrade)
-                .totalStudentsInClass(totalStudentsInClass)
-                .totalPassed(totalPassed)
-                .totalFailed(totalFailed)
-                .subjectsPassed((int) passRate)
-                .totalSubjects(yearlySubjectReports.size())
-                .subjectReports(yearlySubjectReports)
-                .termSummaries(termSummaries)
-                .action(action)
-                .build();
+    private static Optional<YearlyClassResult.StudentResult> findStudentResult(YearlyClassResult classResult,
+                                                                               Long studentId) {
+        return classResult.getStudentResults().stream()
+                .filter(result -> studentId.equals(result.getStudent().getId()))
+                .findFirst();
     }
 
     @Override
@@ -591,57 +681,34 @@ public class ReportServiceImpl implements ReportService {
         log.info("Generating yearly reports for class ID: {} for academic year: {}",
                 classId, academicYear);
 
-        int[] years = parseAcademicYear(academicYear);
+        int[] years = AcademicYearUtil.parseOrDefault(academicYear);
         int academicYearStart = years[0];
         int academicYearEnd = years[1];
 
         ClassRoom classRoom = classRoomRepository.findById(classId)
                 .orElseThrow(() -> new EntityNotFoundException("ClassRoom", classId));
 
-        List<Student> students = studentRepository.findByClassRoomIdAndAcademicYear(
-                classId, academicYearStart, academicYearEnd);
+        YearlyClassResult classResult = getYearlyClassResult(classRoom.getId(), academicYearStart, academicYearEnd);
 
+        ClassReportHeader classHeader = ClassReportHeader.from(classRoom);
         List<YearlyReportDTO> yearlyReports = new ArrayList<>();
 
-        for (Student student : students) {
+        for (YearlyClassResult.StudentResult studentResult : classResult.getStudentResults()) {
             try {
-                YearlyReportDTO yearlyReport = getYearlyReportForStudentAndYear(student.getId(), academicYear);
-                yearlyReports.add(yearlyReport);
+                yearlyReports.add(toYearlyReportDTO(studentResult, classResult, classHeader));
             } catch (Exception e) {
-                log.error("Error generating yearly report for student {}: {}", student.getId(), e.getMessage());
-                yearlyReports.add(createEmptyYearlyReport(student));
+                log.error("Error generating yearly report for student {}: {}",
+                        studentResult.getStudent().getId(), e.getMessage());
+                yearlyReports.add(createEmptyYearlyReport(studentResult.getStudent(), studentResult.getClassName(),
+                        classHeader));
             }
         }
 
-        yearlyReports.sort(Comparator.comparing(YearlyReportDTO::getYearlyRank));
-
         return yearlyReports;
     }
 
     // ========== PRIVATE HELPER METHODS ==========
 
-    private int[] parseAcademicYear(String academicYear) {
-        if (academicYear == null || academicYear.trim().isEmpty()) {
-            return new int[]{2025, 2026};
-        }
-
-        try {
-            String[] parts = academicYear.split("-");
-            if (parts.length == 2) {
-                int startYear = Integer.parseInt(parts[0].trim());
-                int endYear = Integer.parseInt(parts[1].trim());
-                return new int[]{startYear, endYear};
-            } else if (parts.length == 1) {
-                int startYear = Integer.parseInt(parts[0].trim());
-                return new int[]{startYear, startYear + 1};
-            }
-        } catch (Exception e) {
-            log.warn("Invalid academic year format: {}, using 2025-2026", academicYear);
-        }
-
-        return new int[]{2025, 2026};
-    }
-
     private void loadStudentRelationships(Student student) {
         if (student.getStudentSubjects() == null || student.getStudentSubjects().isEmpty()) {
             List<StudentSubject> studentSubjects = studentSubjectRepository.findByStudentId(student.getId());
@@ -650,13 +717,18 @@ public class ReportServiceImpl implements ReportService {
     }
 
     private List<SubjectReport> calculateSubjectReports(Student student, List<Assessment> assessments, Integer term) {
-        List<SubjectReport> subjectReports = new ArrayList<>();
-
         List<StudentSubject> studentSubjects = student.getStudentSubjects();
         if (studentSubjects == null || studentSubjects.isEmpty()) {
             studentSubjects = studentSubjectRepository.findByStudentId(student.getId());
         }
 
+        return calculateSubjectReports(student, studentSubjects, assessments, term);
+    }
+
+    private List<SubjectReport> calculateSubjectReports(Student student, List<StudentSubject> studentSubjects,
+                                                        List<Assessment> assessments, Integer term) {
+        List<SubjectReport> subjectReports = new ArrayList<>();
+
         if (studentSubjects.isEmpty()) {
             log.warn("Student {} has no subjects assigned!", student.getFullName());
             return subjectReports;
@@ -716,11 +788,13 @@ public class ReportServiceImpl implements ReportService {
     }
 
 
+    /**
+     * Same ordering as {@link #getIndexComparator}, so a page looks the same whether it was sliced
+     * from a built class or built from the rank index.
+     */
     private void sortReports(List<ReportDTO> reports, Sort sort) {
-        if (sort.isUnsorted()) {
-            reports.sort(Comparator.comparing(ReportDTO::getRankInClass));
-            return;
-        }
+        Comparator<ReportDTO> byRank = Comparator.comparing(ReportDTO::getRankInClass,
+                Comparator.nullsLast(Comparator.naturalOrder()));
 
         Comparator<ReportDTO> comparator = null;
         for (Sort.Order order : sort) {
@@ -733,9 +807,8 @@ public class ReportServiceImpl implements ReportService {
             }
         }
 
-        if (comparator != null) {
-            reports.sort(comparator);
-        }
+        comparator = comparator == null ? byRank : comparator.thenComparing(byRank);
+        reports.sort(comparator.thenComparing(ReportDTO::getId, Comparator.nullsLast(Comparator.naturalOrder())));
     }
 
     private Comparator<ReportDTO> getReportComparator(String property) {
@@ -792,175 +865,71 @@ public class ReportServiceImpl implements ReportService {
         };
     }
 
-    private Map<Integer, Double> calculateAllTermAveragesForYear(Long studentId, int academicYearStart, int academicYearEnd) {
-        List<Assessment> allAssessments = assessmentRepository.findByStudentId(studentId);
-
-        List<Assessment> filteredAssessments = allAssessments.stream()
-                .filter(a -> a.getAcademicYearStart() != null && a.getAcademicYearEnd() != null &&
-                        a.getAcademicYearStart() == academicYearStart &&
-                        a.getAcademicYearEnd() == academicYearEnd)
-                .toList();
-
-        Map<Integer, List<Assessment>> assessmentsByTerm = filteredAssessments.stream()
-                .collect(Collectors.groupingBy(Assessment::getTerm));
-
-        Map<Integer, Double> termAverages = new HashMap<>();
-
-        for (Map.Entry<Integer, List<Assessment>> entry : assessmentsByTerm.entrySet()) {
-            List<StudentSubject> studentSubjects = studentSubjectRepository.findByStudentId(studentId);
-
-            if (studentSubjects.isEmpty()) {
-                termAverages.put(entry.getKey(), 0.0);
-                continue;
-            }
-
-            double totalWeightedScore = 0.0;
-            int totalCoefficient = 0;
-
-            for (StudentSubject studentSubject : studentSubjects) {
-                Subject subject = studentSubject.getSubject();
-                List<Assessment> subjectAssessments = entry.getValue().stream()
-                        .filter(a -> a.getSubject().getId().equals(subject.getId()))
-                        .collect(Collectors.toList());
-
-                if (!subjectAssessments.isEmpty()) {
-                    double subjectAverage = gradeService.calculateSubjectAverageForTerm(subjectAssessments, entry.getKey());
-                    totalWeightedScore += subjectAverage * subject.getCoefficient();
-                    totalCoefficient += subject.getCoefficient();
-                }
-            }
-
-            double termAverage = totalCoefficient > 0 ? totalWeightedScore / totalCoefficient : 0.0;
-            termAverages.put(entry.getKey(), termAverage);
-        }
-
-        for (int term = 1; term <= 3; term++) {
-            termAverages.putIfAbsent(term, 0.0);
-        }
-
-        return termAverages;
+    private YearlyClassResult getYearlyClassResult(Long classId, int academicYearStart, int academicYearEnd) {
+        String key = "yearly:" + classId + ":" + academicYearStart + "-" + academicYearEnd;
+        return reportCache.get(key, classId,
+                () -> yearlyReportEngine.computeForClass(classId, academicYearStart, academicYearEnd),
+                result -> result.getStudentResults().stream().map(r -> r.getStudent().getId()).toList());
     }
 
-    private List<YearlySubjectReport> calculateYearlySubjectReports(List<ReportDTO> termReports) {
-        Map<String, List<SubjectReport>> subjectReportsByTerm = new HashMap<>();
-
-        for (ReportDTO termReport : termReports) {
-            for (SubjectReport subjectReport : termReport.getSubjectReports()) {
-                String subjectName = subjectReport.getSubjectName();
-                subjectReportsByTerm.computeIfAbsent(subjectName, k -> new ArrayList<>()).add(subjectReport);
-            }
-        }
+    private YearlyReportDTO toYearlyReportDTO(YearlyClassResult.StudentResult result, YearlyClassResult classResult,
+                                              ClassReportHeader classHeader) {
+        ReportStudent student = result.getStudent();
+        String className = result.getClassName();
+        double yearlyAverage = result.getYearlyAverage();
+
+        // The class result is cached, so each report gets its own subject rows
+        List<YearlySubjectReport> subjectReports = result.getSubjectReports().stream()
+                .map(YearlySubjectReport::copy)
+                .collect(Collectors.toCollection(ArrayList::new));
+        int subjectsPassed = (int) subjectReports.stream()
+                .filter(r -> Boolean.TRUE.equals(r.getPassed()))
+                .count();
+        double passRate = subjectReports.isEmpty() ? 0.0 : (subjectsPassed * 100.0) / subjectReports.size();
 
-        List<YearlySubjectReport> yearlySubjectReports = new ArrayList<>();
-
-        for (Map.Entry<String, List<SubjectReport>> entry : subjectReportsByTerm.entrySet()) {
-            String subjectName = entry.getKey();
-            List<SubjectReport> reports = entry.getValue();
-
-            Integer coefficient = reports.stream()
-                    .map(SubjectReport::getCoefficient)
-                    .filter(Objects::nonNull)
-                    .findFirst()
-                    .orElse(1);
-
-            Double term1Avg = getTermAverage(reports, termReports, 1);
-            Double term2Avg = getTermAverage(reports, termReports, 2);
-            Double term3Avg = getTermAverage(reports, termReports, 3);
-
-            double yearlyAvg = calculateYearlySubjectAverage(term1Avg, term2Avg, term3Avg);
-
-            String className = !termReports.isEmpty() ? termReports.getFirst().getClassName() : "";
-            String yearlyGrade = gradeService.calculateLetterGrade(yearlyAvg, className);
-            boolean passed = gradeService.isSubjectPassing(yearlyGrade, className);
-
-            yearlySubjectReports.add(YearlySubjectReport.builder()
-                    .subjectName(subjectName)
-                    .coefficient(coefficient)
-                    .term1Average(term1Avg)
-                    .term2Average(term2Avg)
-                    .term3Average(term3Avg)
-                    .yearlyAverage(yearlyAvg)
-                    .yearlyGrade(yearlyGrade)
-                    .passed(passed)
+        List<TermReportSummary> termSummaries = new ArrayList<>();
+        for (int term = 1; term <= 3; term++) {
+            double termAverage = result.getTermAverages().get(term);
+            termSummaries.add(TermReportSummary.builder()
+                    .term(term)
+                    .termAverage(termAverage)
+                    .formattedAverage(String.format("%.2f/20", termAverage))
+                    .rankInClass(result.getTermRanks().get(term))
+                    .remarks(gradeService.generateRemarks(termAverage))
+                    .passed(gradeService.isPassing(termAverage))
                     .build());
         }
 
-        return yearlySubjectReports;
-    }
-
-    private Double getTermAverage(List<SubjectReport> reports, List<ReportDTO> termReports, int term) {
-        return reports.stream()
-                .filter(r -> isReportInTerm(r, termReports, term))
-                .map(SubjectReport::getSubjectAverage)
-                .filter(Objects::nonNull)
-                .findFirst()
-                .orElse(null);
-    }
-
-    private boolean isReportInTerm(SubjectReport subjectReport, List<ReportDTO> termReports, int term) {
-        for (ReportDTO termReport : termReports) {
-            if (termReport.getTerm() == term && termReport.getSubjectReports().contains(subjectReport)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private Integer getTermRank(List<ReportDTO> termReports, int term) {
-        return termReports.stream()
-                .filter(r -> r.getTerm() == term)
-                .map(ReportDTO::getRankInClass)
-                .findFirst()
-                .orElse(null);
-    }
-
-    private Integer calculateYearlyRankForYear(Long studentId, Long classId, int academicYearStart, int academicYearEnd) {
-        List<Student> students = studentRepository.findByClassRoomIdAndAcademicYear(classId, academicYearStart, academicYearEnd);
-
-        Map<Long, Double> studentYearlyAverages = new HashMap<>();
-        for (Student student : students) {
-            Map<Integer, Double> termAverages = calculateAllTermAveragesForYear(student.getId(), academicYearStart, academicYearEnd);
-            double yearlyAvg = termAverages.values().stream()
-                    .mapToDouble(Double::doubleValue)
-                    .average()
-                    .orElse(0.0);
-            studentYearlyAverages.put(student.getId(), yearlyAvg);
-        }
-
-        List<Map.Entry<Long, Double>> sorted = studentYearlyAverages.entrySet().stream()
-                .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
-                .toList();
-
-        for (int i = 0; i < sorted.size(); i++) {
-            if (sorted.get(i).getKey().equals(studentId)) {
-                return i + 1;
-            }
-        }
-
-        return students.size();
-    }
-
-    private int calculateTotalPassedInClassForYear(Long classId, int academicYearStart, int academicYearEnd) {
-        List<Student> students = studentRepository.findByClassRoomIdAndAcademicYear(classId, academicYearStart, academicYearEnd);
-        int passedCount = 0;
-
-        for (Student student : students) {
-            try {
-                Map<Integer, Double> termAverages = calculateAllTermAveragesForYear(student.getId(), academicYearStart, academicYearEnd);
-                double yearlyAverage = termAverages.values().stream()
-                        .mapToDouble(Double::doubleValue)
-                        .average()
-                        .orElse(0.0);
-
-                if (gradeService.isPassing(yearlyAverage)) {
-                    passedCount++;
-                }
-            } catch (Exception e) {
-                log.warn("Could not calculate pass/fail for student {}: {}", student.getId(), e.getMessage());
-            }
-        }
-
-        return passedCount;
+        return YearlyReportDTO.builder()
+                .student(student)
+                .classHeader(classHeader)
+                .studentFullName(student.getFullName())
+                .rollNumber(student.getRollNumber())
+                .className(className)
+                .department(student.getDepartment() != null ? student.getDepartment() : "")
+                .specialty(student.getSpecialty())
+                .academicYear(classResult.getAcademicYearStart())
+                .yearlyAverage(yearlyAverage)
+                .formattedYearlyAverage(String.format("%.2f/20", yearlyAverage))
+                .passRate(passRate)
+                .formattedPassRate(String.format("%.1f%%", passRate))
+                .yearlyRank(result.getYearlyRank())
+                .yearlyDepartmentRank(result.getYearlyDepartmentRank())
+                .term1Rank(result.getTermRanks().get(1))
+                .term2Rank(result.getTermRanks().get(2))
+                .term3Rank(result.getTermRanks().get(3))
+                .remarks(generateYearlyRemarks(yearlyAverage, passRate))
+                .passed(result.isPassed())
+                .overallGrade(gradeService.calculateLetterGrade(yearlyAverage, className))
+                .totalStudentsInClass(classResult.getTotalStudents())
+                .totalPassed(classResult.getTotalPassed())
+                .totalFailed(classResult.getTotalStudents() - classResult.getTotalPassed())
+                .subjectsPassed(subjectsPassed)
+                .totalSubjects(subjectReports.size())
+                .subjectReports(subjectReports)
+                .termSummaries(termSummaries)
+                .action(generateYearlyStudentAction(yearlyAverage, passRate, result.isPassed()))
+                .build();
     }
 
     private String generateYearlyRemarks(Double yearlyAverage, Double passRate) {
@@ -1020,7 +989,8 @@ public class ReportServiceImpl implements ReportService {
 
         return ReportDTO.builder()
                 .id(student.getId())
-                .student(student)
+                .student(ReportStudent.from(student))
+                .classHeader(ClassReportHeader.from(student.getClassRoom()))
                 .studentFullName(student.getFullName())
                 .rollNumber(student.getRollNumber())
                 .className(student.getClassRoom() != null ? student.getClassRoom().getName() : "")
@@ -1037,19 +1007,25 @@ public class ReportServiceImpl implements ReportService {
                 .remarks("No assessment data available")
                 .subjectReports(new ArrayList<>())
                 .academicYear(academicYear)
-                .classTeacher(student.getClassRoom() != null && student.getClassRoom().getClassTeacher() != null ?
-                        student.getClassRoom().getClassTeacher() : "Not Assigned")
                 .action("No action recommendation available due to missing data")
                 .build();
     }
 
     private YearlyReportDTO createEmptyYearlyReport(Student student) {
+        return createEmptyYearlyReport(ReportStudent.from(student),
+                student.getClassRoom() != null ? student.getClassRoom().getName() : "",
+                ClassReportHeader.from(student.getClassRoom()));
+    }
+
+    private YearlyReportDTO createEmptyYearlyReport(ReportStudent student, String className,
+                                                    ClassReportHeader classHeader) {
         return YearlyReportDTO.builder()
                 .student(student)
+                .classHeader(classHeader)
                 .studentFullName(student.getFullName())
                 .rollNumber(student.getRollNumber())
-                .className(student.getClassRoom() != null ? student.getClassRoom().getName() : "")
-                .department(student.getDepartment() != null ? student.getDepartment().getName() : "")
+                .className(className)
+                .department(student.getDepartment() != null ? student.getDepartment() : "")
                 .specialty(student.getSpecialty())
                 .academicYear(Year.now().getValue())
                 .yearlyAverage(0.0)
@@ -1071,28 +1047,6 @@ public class ReportServiceImpl implements ReportService {
                 .build();
     }
 
-    private TermReportSummary createEmptyTermSummary(Integer term) {
-        return TermReportSummary.builder()
-                .term(term)
-                .termAverage(0.0)
-                .formattedAverage("0.00/20")
-                .rankInClass(0)
-                .remarks("No data")
-                .passed(false)
-                .build();
-    }
-
-    private double calculateYearlySubjectAverage(Double term1Avg, Double term2Avg, Double term3Avg) {
-        double total = 0.0;
-        int count = 0;
-
-        if (term1Avg != null) { total += term1Avg; count++; }
-        if (term2Avg != null) { total += term2Avg; count++; }
-        if (term3Avg != null) { total += term3Avg; count++; }
-
-        return count > 0 ? total / count : 0.0;
-    }
-
     // ========== DEPRECATED METHODS ==========
 
     @Override
@@ -1146,12 +1100,20 @@ public class ReportServiceImpl implements ReportService {
     public YearlySummaryDTO getYearlySummary(String academicYear) {
         log.info("Generating yearly summary for academic year: {}", academicYear);
 
-        int[] years = parseAcademicYear(academicYear);
+        int[] years = AcademicYearUtil.parseOrDefault(academicYear);
         int academicYearStart = years[0];
         int academicYearEnd = years[1];
 
         List<ClassRoom> classes = classRoomRepository.findAll();
 
+        // Each class is computed in its own read-only transaction on the report pool; once the pool's
+        // queue is full the remaining classes are computed on this thread rather than rejected
+        List<CompletableFuture<ClassSummaryDTO>> futures = classes.stream()
+                .map(classRoom -> CompletableFuture.supplyAsync(
+                        () -> summarizeClassForYear(classRoom, academicYearStart, academicYearEnd),
+                        reportTaskExecutor))
+                .toList();
+
         int totalStudents = 0;
         int totalClasses = classes.size();
         int totalPassed = 0;
@@ -1159,43 +1121,18 @@ public class ReportServiceImpl implements ReportService {
 
         List<ClassSummaryDTO> classSummaries = new ArrayList<>();
 
-        for (ClassRoom classRoom : classes) {
-            List<Student> students = studentRepository.findByClassRoomId(classRoom.getId());
-
-            int classSize = students.size();
-            totalStudents += classSize;
-
-            double classTotal = 0.0;
-            int classPassed = 0;
-
-            for (Student student : students) {
-                try {
-                    YearlyReportDTO report = getYearlyReportForStudentAndYear(student.getId(), academicYear);
-                    if (report.getYearlyAverage() != null) {
-                        classTotal += report.getYearlyAverage();
-                        overallAverage += report.getYearlyAverage();
-                    }
-                    if (report.getPassed()) {
-                        classPassed++;
-                        totalPassed++;
-                    }
-                } catch (Exception e) {
-                    log.warn("Could not generate report for student {}: {}", student.getId(), e.getMessage());
-                }
+        for (CompletableFuture<ClassSummaryDTO> future : futures) {
+            ClassSummaryDTO classSummary;
+            try {
+                classSummary = future.join();
+            } catch (CompletionException e) {
+                // A class that could not be summarized would skew the school totals; fail the summary instead
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
             }
-
-            double classAverage = classSize > 0 ? classTotal / classSize : 0.0;
-            double passRate = classSize > 0 ? (classPassed * 100.0) / classSize : 0.0;
-
-            classSummaries.add(ClassSummaryDTO.builder()
-                    .className(classRoom.getName())
-                    .classTeacher(classRoom.getClassTeacher())
-                    .classSize(classSize)
-                    .classAverage(classAverage)
-                    .passRate(passRate)
-                    .totalPassed(classPassed)
-                    .totalFailed(classSize - classPassed)
-                    .build());
+            totalStudents += classSummary.getClassSize();
+            totalPassed += classSummary.getTotalPassed();
+            overallAverage += classSummary.getClassAverage() * classSummary.getClassSize();
+            classSummaries.add(classSummary);
         }
 
         overallAverage = totalStudents > 0 ? overallAverage / totalStudents : 0.0;
@@ -1213,13 +1150,37 @@ public class ReportServiceImpl implements ReportService {
                 .build();
     }
 
+    private ClassSummaryDTO summarizeClassForYear(ClassRoom classRoom, int academicYearStart, int academicYearEnd) {
+        // Same class result as the yearly reports, so the summary always matches them
+        YearlyClassResult classResult = getYearlyClassResult(classRoom.getId(), academicYearStart, academicYearEnd);
+        int classSize = classResult.getTotalStudents();
+        int classPassed = classResult.getTotalPassed();
+        double classTotal = 0.0;
+        for (YearlyClassResult.StudentResult studentResult : classResult.getStudentResults()) {
+            classTotal += studentResult.getYearlyAverage();
+        }
+
+        double classAverage = classSize > 0 ? classTotal / classSize : 0.0;
+        double passRate = classSize > 0 ? (classPassed * 100.0) / classSize : 0.0;
+
+        return ClassSummaryDTO.builder()
+                .className(classRoom.getName())
+                .classTeacher(classRoom.getClassTeacher())
+                .classSize(classSize)
+                .classAverage(classAverage)
+                .passRate(passRate)
+                .totalPassed(classPassed)
+                .totalFailed(classSize - classPassed)
+                .build();
+    }
+
     @Override
     public Page<YearlyReportDTO> getPaginatedYearlyReportsForClassAndYear(Long classId,
                                                                           String academicYear, Pageable pageable) {
         log.info("Generating paginated yearly reports for class ID: {} for academic year: {}",
                 classId, academicYear);
 
-        int[] years = parseAcademicYear(academicYear);
+        int[] years = AcademicYearUtil.parseOrDefault(academicYear);
         int academicYearStart = years[0];
         int academicYearEnd = years[1];
 
@@ -1238,11 +1199,16 @@ public class ReportServiceImpl implements ReportService {
 
         List<Student> pageStudents = students.subList(start, end);
 
+        // Ranks and class totals need the whole class, so compute it once and only map the page
+        YearlyClassResult classResult = getYearlyClassResult(classRoom.getId(), academicYearStart, academicYearEnd);
+        Map<Long, YearlyClassResult.StudentResult> resultsByStudent = classResult.getStudentResults().stream()
+                .collect(Collectors.toMap(r -> r.getStudent().getId(), r -> r));
+
+        ClassReportHeader classHeader = ClassReportHeader.from(classRoom);
         List<YearlyReportDTO> yearlyReports = new ArrayList<>();
         for (Student student : pageStudents) {
             try {
-                YearlyReportDTO yearlyReport = getYearlyReportForStudentAndYear(student.getId(), academicYear);
-                yearlyReports.add(yearlyReport);
+                yearlyReports.add(toYearlyReportDTO(resultsByStudent.get(student.getId()), classResult, classHeader));
             } catch (Exception e) {
                 log.error("Error generating yearly report for student {}: {}", student.getId(), e.getMessage());
                 yearlyReports.add(createEmptyYearlyReport(student));
@@ -1289,28 +1255,11 @@ public class ReportServiceImpl implements ReportService {
     }
 
     @Override
-    @Async
     public CompletableFuture<List<ReportDTO>> generateReportsForClassAsync(Long classId, Integer term) {
         log.info("Starting async generation of term {} reports for class ID: {}", term, classId);
-        return CompletableFuture.supplyAsync(() -> getTermReportsForClassAndYear(classId, term, "2025-2026"));
-    }
-
-    @Cacheable(value = "studentTermAssessments", key = "#studentId + '-' + #term")
-    public List<Assessment> getCachedStudentTermAssessmentsInternal(Long studentId, Integer term) {
-        log.debug("Cache miss for student {} term {} assessments", studentId, term);
-        return assessmentRepository.findByStudentIdAndTerm(studentId, term);
-    }
-
-    @Cacheable(value = "classStudents", key = "#classId")
-    public List<Student> getCachedClassStudentsInternal(Long classId) {
-        log.debug("Cache miss for class {} students", classId);
-        return studentRepository.findByClassRoomId(classId);
-    }
-
-    @Cacheable(value = "classStudentsForYear", key = "#classId + '-' + #academicYearStart + '-' + #academicYearEnd")
-    public List<Student> getCachedClassStudentsForYearInternal(Long classId, int academicYearStart, int academicYearEnd) {
-        log.debug("Cache miss for class {} students for academic year {}-{}",
-                classId, academicYearStart, academicYearEnd);
-        return studentRepository.findByClassRoomIdAndAcademicYear(classId, academicYearStart, academicYearEnd);
+        // Go through the proxy so the worker thread gets its own read-only transaction
+        ReportService self = applicationContext.getBean(ReportService.class);
+        return CompletableFuture.supplyAsync(
+                () -> self.getTermReportsForClassAndYear(classId, term, "2025-2026"), reportTaskExecutor);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.akentech.schoolreport.util;
+
+import com.akentech.schoolreport.exception.BusinessRuleException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parses academic years given as "2025-2026", or as "2025" for the year starting then.
+ */
+@Slf4j
+public class AcademicYearUtil {
+
+    public static final int[] DEFAULT_ACADEMIC_YEAR = {2025, 2026};
+
+    private AcademicYearUtil() {
+    }
+
+    /**
+     * Start and end year of the academic year; throws a {@link BusinessRuleException} when it cannot be read.
+     */
+    public static int[] parse(String academicYear) {
+        try {
+            String[] parts = academicYear.split("-");
+            if (parts.length > 2) {
+                throw new IllegalArgumentException("Too many parts");
+            }
+            int start = Integer.parseInt(parts[0].trim());
+            return new int[]{start, parts.length > 1 ? Integer.parseInt(parts[1].trim()) : start + 1};
+        } catch (Exception e) {
+            throw new BusinessRuleException("Invalid academic year: " + academicYear);
+        }
+    }
+
+    /**
+     * Like {@link #parse}, but falls back to the default academic year for a missing or unreadable value.
+     */
+    public static int[] parseOrDefault(String academicYear) {
+        if (academicYear == null || academicYear.trim().isEmpty()) {
+            return DEFAULT_ACADEMIC_YEAR.clone();
+        }
+        try {
+            return parse(academicYear);
+        } catch (BusinessRuleException e) {
+            log.warn("Invalid academic year format: {}, using {}-{}", academicYear,
+                    DEFAULT_ACADEMIC_YEAR[0], DEFAULT_ACADEMIC_YEAR[1]);
+            return DEFAULT_ACADEMIC_YEAR.clone();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.akentech.schoolreport.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic tree of (average, student ID) pairs, kept as a treap ordered by descending average
+ * and then ascending student ID. Every node knows the size of its subtree, so inserting, removing and
+ * counting the averages strictly above a value are O(log N) on average. Not thread-safe.
+ */
+public class AverageRankTree {
+
+    private Node root;
+
+    public int size() {
+        return size(root);
+    }
+
+    public void insert(double average, long studentId) {
+        root = insert(root, new Node(average, studentId));
+    }
+
+    public void remove(double average, long studentId) {
+        root = remove(root, average, studentId);
+    }
+
+    /**
+     * Number of entries with an average strictly greater than the given one; the competition rank
+     * (1, 1, 3) of that average is this count plus one.
+     */
+    public int countGreater(double average) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.average > average) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Student IDs from the highest average to the lowest.
+     */
+    public List<Long> studentIdsInRankOrder() {
+        List<Long> ids = new ArrayList<>(size());
+        collect(root, ids);
+        return ids;
+    }
+
+    private static void collect(Node node, List<Long> ids) {
+        if (node == null) {
+            return;
+        }
+        collect(node.left, ids);
+        ids.add(node.studentId);
+        collect(node.right, ids);
+    }
+
+    private static int compare(double average, long studentId, Node node) {
+        int byAverage = Double.compare(node.average, average);
+        return byAverage != 0 ? byAverage : Long.compare(studentId, node.studentId);
+    }
+
+    private static Node insert(Node node, Node created) {
+        if (node == null) {
+            return created;
+        }
+        if (compare(created.average, created.studentId, node) < 0) {
+            node.left = insert(node.left, created);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, created);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node remove(Node node, double average, long studentId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(average, studentId, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, average, studentId);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, average, studentId);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static class Node {
+        private final double average;
+        private final long studentId;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(double average, long studentId) {
+            this.average = average;
+            this.studentId = studentId;
+        }
+
+        private void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.akentech.schoolreport.util;
+
+import com.akentech.schoolreport.dto.ClassRankingSnapshot;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live ranking of one class/term/academic year. Students are kept in an order-statistic tree for the
+ * class, one per department, one per specialty and one per subject, so a changed average repositions
+ * only that student and every rank or subject position is answered in O(log N). The immutable
+ * {@link ClassRankingSnapshot} view is derived on demand and dropped whenever an average changes.
+ */
+public class ClassRankIndex {
+
+    private final Long classId;
+    private final Integer term;
+    private final String academicYear;
+    private final Map<Long, Member> members = new HashMap<>();
+    private final AverageRankTree classTree = new AverageRankTree();
+    private final Map<Long, AverageRankTree> departmentTrees = new HashMap<>();
+    private final Map<Object, AverageRankTree> specialtyTrees = new HashMap<>();
+    private final Map<Long, AverageRankTree> subjectTrees = new HashMap<>();
+
+    private ClassRankingSnapshot snapshot;
+
+    private ClassRankIndex(ClassRankingSnapshot snapshot) {
+        this.classId = snapshot.getClassId();
+        this.term = snapshot.getTerm();
+        this.academicYear = snapshot.getAcademicYear();
+        this.snapshot = snapshot;
+
+        for (ClassRankingSnapshot.Entry entry : snapshot.getEntries().values()) {
+            Member member = new Member(entry.getStudentFullName(), entry.getRollNumber(), entry.getDepartmentId(),
+                    entry.getSpecialty(), entry.getAverage(), new HashMap<>(entry.getSubjectAverages()));
+            members.put(entry.getStudentId(), member);
+            insert(entry.getStudentId(), member);
+        }
+
+        // Subjects nobody has an average in yet still count, with no one placed
+        snapshot.getSubjectCounts().keySet().forEach(subjectId ->
+                subjectTrees.computeIfAbsent(subjectId, k -> new AverageRankTree()));
+    }
+
+    /**
+     * Seeds the index from a fully computed snapshot, which is also kept as its first view.
+     */
+    public static ClassRankIndex of(ClassRankingSnapshot snapshot) {
+        return new ClassRankIndex(snapshot);
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public synchronized int getTotalStudents() {
+        return members.size();
+    }
+
+    public synchronized boolean containsStudent(Long studentId) {
+        return members.containsKey(studentId);
+    }
+
+    public synchronized boolean containsAnyStudent(Iterable<Long> studentIds) {
+        for (Long studentId : studentIds) {
+            if (members.containsKey(studentId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves each student to the new term average and subject averages (subjects without an average
+     * left out). Callers apply updates one at a time, in the order the averages were read.
+     */
+    public synchronized void update(Map<Long, Double> averages, Map<Long, Map<Long, Double>> subjectAverages) {
+        averages.forEach((studentId, average) -> {
+            Member member = members.get(studentId);
+            if (member == null) {
+                return;
+            }
+            remove(studentId, member);
+            member.average = average;
+            member.subjectAverages = new HashMap<>(subjectAverages.getOrDefault(studentId, Map.of()));
+            insert(studentId, member);
+        });
+        snapshot = null;
+    }
+
+    private void insert(Long studentId, Member member) {
+        classTree.insert(member.average, studentId);
+        if (member.departmentId != null) {
+            departmentTrees.computeIfAbsent(member.departmentId, k -> new AverageRankTree())
+                    .insert(member.average, studentId);
+        }
+        if (member.specialtyGroup != null) {
+            specialtyTrees.computeIfAbsent(member.specialtyGroup, k -> new AverageRankTree())
+                    .insert(member.average, studentId);
+        }
+        member.subjectAverages.forEach((subjectId, average) ->
+                subjectTrees.computeIfAbsent(subjectId, k -> new AverageRankTree()).insert(average, studentId));
+    }
+
+    private void remove(Long studentId, Member member) {
+        classTree.remove(member.average, studentId);
+        if (member.departmentId != null) {
+            departmentTrees.get(member.departmentId).remove(member.average, studentId);
+        }
+        if (member.specialtyGroup != null) {
+            specialtyTrees.get(member.specialtyGroup).remove(member.average, studentId);
+        }
+        member.subjectAverages.forEach((subjectId, average) -> subjectTrees.get(subjectId).remove(average, studentId));
+    }
+
+    public synchronized Integer rankInClass(Long studentId) {
+        Member member = members.get(studentId);
+        return member != null ? classTree.countGreater(member.average) + 1 : null;
+    }
+
+    public synchronized Integer rankInDepartment(Long studentId) {
+        Member member = members.get(studentId);
+        if (member == null || member.departmentId == null) {
+            return null;
+        }
+        return departmentTrees.get(member.departmentId).countGreater(member.average) + 1;
+    }
+
+    public synchronized Integer rankInSpecialty(Long studentId) {
+        Member member = members.get(studentId);
+        if (member == null || member.specialtyGroup == null) {
+            return null;
+        }
+        return specialtyTrees.get(member.specialtyGroup).countGreater(member.average) + 1;
+    }
+
+    /**
+     * Class rank a student with the given average would take; used for students outside the ranked population.
+     */
+    public synchronized int rankFor(double average) {
+        return classTree.countGreater(average) + 1;
+    }
+
+    public synchronized int departmentRankFor(Long departmentId, double average) {
+        AverageRankTree departmentTree = departmentTrees.get(departmentId);
+        return departmentTree != null ? departmentTree.countGreater(average) + 1 : 1;
+    }
+
+    /**
+     * Ranked student's entry as it would appear in the snapshot, or null when the student is not ranked here.
+     */
+    public synchronized ClassRankingSnapshot.Entry entry(Long studentId) {
+        Member member = members.get(studentId);
+        if (member == null) {
+            return null;
+        }
+        Map<Long, Integer> subjectPositions = new HashMap<>();
+        member.subjectAverages.forEach((subjectId, average) ->
+                subjectPositions.put(subjectId, subjectTrees.get(subjectId).countGreater(average) + 1));
+
+        return ClassRankingSnapshot.Entry.builder()
+                .studentId(studentId)
+                .studentFullName(member.fullName)
+                .rollNumber(member.rollNumber)
+                .departmentId(member.departmentId)
+                .specialty(member.specialty)
+                .average(member.average)
+                .rankInClass(rankInClass(studentId))
+                .rankInDepartment(rankInDepartment(studentId))
+                .rankInSpecialty(rankInSpecialty(studentId))
+                .subjectAverages(Map.copyOf(member.subjectAverages))
+                .subjectPositions(subjectPositions)
+                .build();
+    }
+
+    /**
+     * Number of ranked students with an average in each subject, the "out of" of subject positions.
+     */
+    public synchronized Map<Long, Integer> subjectCounts() {
+        Map<Long, Integer> counts = new HashMap<>();
+        subjectTrees.forEach((subjectId, tree) -> counts.put(subjectId, tree.size()));
+        return counts;
+    }
+
+    /**
+     * Immutable view in rank order, rebuilt from the trees after the last change.
+     */
+    public synchronized ClassRankingSnapshot snapshot() {
+        if (snapshot == null) {
+            List<Long> ordered = classTree.studentIdsInRankOrder();
+            Map<Long, ClassRankingSnapshot.Entry> entries = new LinkedHashMap<>(ordered.size() * 2);
+            for (Long studentId : ordered) {
+                entries.put(studentId, entry(studentId));
+            }
+            snapshot = new ClassRankingSnapshot(classId, term, academicYear, entries, subjectCounts());
+        }
+        return snapshot;
+    }
+
+    private static class Member {
+        private final String fullName;
+        private final String rollNumber;
+        private final Long departmentId;
+        private final String specialty;
+        private final Object specialtyGroup;
+        private double average;
+        private Map<Long, Double> subjectAverages;
+
+        private Member(String fullName, String rollNumber, Long departmentId, String specialty,
+                       double average, Map<Long, Double> subjectAverages) {
+            this.fullName = fullName;
+            this.rollNumber = rollNumber;
+            this.departmentId = departmentId;
+            this.specialty = specialty;
+            this.specialtyGroup = ClassRanker.specialtyGroup(departmentId, specialty);
+            this.average = average;
+            this.subjectAverages = subjectAverages;
+        }
+    }
+}
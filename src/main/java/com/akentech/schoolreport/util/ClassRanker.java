@@ -0,0 +1,234 @@
+package com.akentech.schoolreport.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranks the students of one class on every dimension a report card shows: class rank, department rank,
+ * specialty rank and position per subject. All dimensions use competition ranking (1, 1, 3) on the
+ * exact average, so two students with the same average always share a rank whatever the dimension.
+ * <p>
+ * Students are addressed by row (0..n-1). The overall averages are sorted once as primitives; class,
+ * department and specialty ranks are then assigned in a single pass over that order. Each subject
+ * column is sorted once and positions are read back by binary search.
+ */
+public final class ClassRanker {
+
+    /** Group ID of a student without a department or specialty. */
+    public static final int NO_GROUP = -1;
+
+    private ClassRanker() {
+    }
+
+    public static Result rank(double[] averages) {
+        return rank(averages, null, null, null);
+    }
+
+    /**
+     * @param averages        overall average per student
+     * @param departments     department group per student, or {@code null} to skip department ranks
+     * @param specialties     specialty group per student, or {@code null} to skip specialty ranks
+     * @param subjectAverages one column per subject holding each student's subject average, {@code NaN}
+     *                        when the student has no average in it; {@code null} to skip subject positions
+     */
+    public static Result rank(double[] averages, int[] departments, int[] specialties, double[][] subjectAverages) {
+        int n = averages.length;
+
+        double[] sorted = averages.clone();
+        Arrays.sort(sorted);
+
+        int[] classRanks = new int[n];
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            classRanks[i] = n - upperBound(sorted, n, averages[i]) + 1;
+            keys[i] = ((long) classRanks[i] << 32) | i;
+        }
+
+        // Rank, then row: the order the single pass below walks
+        Arrays.sort(keys);
+        int[] order = new int[n];
+        for (int k = 0; k < n; k++) {
+            order[k] = (int) keys[k];
+        }
+
+        int[] departmentRanks = departments != null ? new int[n] : null;
+        int[] specialtyRanks = specialties != null ? new int[n] : null;
+        GroupCounter departmentCounter = departments != null ? new GroupCounter(departments) : null;
+        GroupCounter specialtyCounter = specialties != null ? new GroupCounter(specialties) : null;
+
+        for (int i : order) {
+            if (departmentCounter != null) {
+                departmentRanks[i] = departmentCounter.next(departments[i], averages[i]);
+            }
+            if (specialtyCounter != null) {
+                specialtyRanks[i] = specialtyCounter.next(specialties[i], averages[i]);
+            }
+        }
+
+        int[][] subjectPositions = null;
+        int[] subjectCounts = null;
+        if (subjectAverages != null) {
+            subjectPositions = new int[subjectAverages.length][];
+            subjectCounts = new int[subjectAverages.length];
+            for (int j = 0; j < subjectAverages.length; j++) {
+                subjectPositions[j] = positions(subjectAverages[j]);
+                subjectCounts[j] = countRanked(subjectAverages[j]);
+            }
+        }
+
+        return new Result(order, classRanks, departmentRanks, specialtyRanks, subjectPositions, subjectCounts);
+    }
+
+    /**
+     * Specialty group of a student. Specialties are free text on the student, so the same name under two
+     * departments is two groups; a blank or "N/A" specialty is no group ({@code null}).
+     */
+    public static Object specialtyGroup(Long departmentId, String specialty) {
+        if (specialty == null || specialty.isBlank() || specialty.equals("N/A")) {
+            return null;
+        }
+        return Arrays.asList(departmentId, specialty.trim());
+    }
+
+    /**
+     * Dense group IDs for the given keys, in order of first appearance; {@code null} keys get {@link #NO_GROUP}.
+     */
+    public static int[] groupIds(List<?> keys) {
+        Map<Object, Integer> ids = new HashMap<>();
+        int[] groups = new int[keys.size()];
+        for (int i = 0; i < groups.length; i++) {
+            Object key = keys.get(i);
+            groups[i] = key != null ? ids.computeIfAbsent(key, k -> ids.size()) : NO_GROUP;
+        }
+        return groups;
+    }
+
+    private static int[] positions(double[] column) {
+        double[] ranked = new double[column.length];
+        int count = 0;
+        for (double value : column) {
+            if (!Double.isNaN(value)) {
+                ranked[count++] = value;
+            }
+        }
+        Arrays.sort(ranked, 0, count);
+
+        int[] positions = new int[column.length];
+        for (int i = 0; i < column.length; i++) {
+            positions[i] = Double.isNaN(column[i]) ? 0 : count - upperBound(ranked, count, column[i]) + 1;
+        }
+        return positions;
+    }
+
+    private static int countRanked(double[] column) {
+        int count = 0;
+        for (double value : column) {
+            if (!Double.isNaN(value)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Index of the first element strictly greater than the value in the ascending range [0, length),
+     * so {@code length - upperBound} is the number of strictly greater elements.
+     */
+    private static int upperBound(double[] ascending, int length, double value) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(ascending[mid], value) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Competition ranking per group, fed in descending average order.
+     */
+    private static class GroupCounter {
+        private final int[] position;
+        private final int[] rank;
+        private final double[] lastAverage;
+
+        private GroupCounter(int[] groups) {
+            int groupCount = 0;
+            for (int group : groups) {
+                groupCount = Math.max(groupCount, group + 1);
+            }
+            this.position = new int[groupCount];
+            this.rank = new int[groupCount];
+            this.lastAverage = new double[groupCount];
+        }
+
+        private int next(int group, double average) {
+            if (group == NO_GROUP) {
+                return 0;
+            }
+            position[group]++;
+            if (position[group] == 1 || Double.compare(average, lastAverage[group]) != 0) {
+                rank[group] = position[group];
+                lastAverage[group] = average;
+            }
+            return rank[group];
+        }
+    }
+
+    /**
+     * Ranks by student row. A department, specialty or subject rank of 0 means the student is not ranked
+     * in that dimension.
+     */
+    public static class Result {
+        private final int[] order;
+        private final int[] classRanks;
+        private final int[] departmentRanks;
+        private final int[] specialtyRanks;
+        private final int[][] subjectPositions;
+        private final int[] subjectCounts;
+
+        private Result(int[] order, int[] classRanks, int[] departmentRanks, int[] specialtyRanks,
+                       int[][] subjectPositions, int[] subjectCounts) {
+            this.order = order;
+            this.classRanks = classRanks;
+            this.departmentRanks = departmentRanks;
+            this.specialtyRanks = specialtyRanks;
+            this.subjectPositions = subjectPositions;
+            this.subjectCounts = subjectCounts;
+        }
+
+        /**
+         * Student rows by class rank, ties in row order.
+         */
+        public int[] order() {
+            return order;
+        }
+
+        public int classRank(int row) {
+            return classRanks[row];
+        }
+
+        public Integer departmentRank(int row) {
+            return departmentRanks != null && departmentRanks[row] > 0 ? departmentRanks[row] : null;
+        }
+
+        public Integer specialtyRank(int row) {
+            return specialtyRanks != null && specialtyRanks[row] > 0 ? specialtyRanks[row] : null;
+        }
+
+        public Integer subjectPosition(int subject, int row) {
+            return subjectPositions != null && subjectPositions[subject][row] > 0 ? subjectPositions[subject][row] : null;
+        }
+
+        /**
+         * Number of students with an average in the subject.
+         */
+        public int subjectCount(int subject) {
+            return subjectCounts != null ? subjectCounts[subject] : 0;
+        }
+    }
+}
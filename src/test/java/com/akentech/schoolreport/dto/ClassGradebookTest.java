@@ -0,0 +1,102 @@
+package com.akentech.schoolreport.dto;
+
+import com.akentech.schoolreport.model.Assessment;
+import com.akentech.schoolreport.model.Student;
+import com.akentech.schoolreport.model.StudentSubject;
+import com.akentech.schoolreport.model.Subject;
+import com.akentech.schoolreport.model.enums.AssessmentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassGradebookTest {
+
+	private final Student student = Student.builder().id(1L).build();
+	private final Subject maths = Subject.builder().id(10L).name("Maths").coefficient(4).build();
+	private final Subject english = Subject.builder().id(11L).name("English").coefficient(2).build();
+
+	private final List<Assessment> assessments = new ArrayList<>();
+
+	@Test
+	void averagesBothAssessmentsOfTermOneAndTwo() {
+		score(1, AssessmentType.ASSESSMENT_1, maths, 12.0);
+		score(1, AssessmentType.ASSESSMENT_2, maths, 16.0);
+		score(2, AssessmentType.ASSESSMENT_3, maths, 8.0);
+		score(2, AssessmentType.ASSESSMENT_4, maths, 10.0);
+
+		assertEquals(14.0, gradebook(1).subjectAverage(0, 0));
+		assertEquals(9.0, gradebook(2).subjectAverage(0, 0));
+	}
+
+	@Test
+	void usesTheOnlyScoreWhenOneAssessmentIsMissing() {
+		score(1, AssessmentType.ASSESSMENT_2, maths, 11.0);
+
+		ClassGradebook gradebook = gradebook(1);
+
+		assertTrue(Double.isNaN(gradebook.firstScore(0, 0)));
+		assertEquals(11.0, gradebook.subjectAverage(0, 0));
+		assertTrue(gradebook.hasData(0, 0));
+	}
+
+	@Test
+	void termThreeUsesTheExamOnly() {
+		score(3, AssessmentType.ASSESSMENT_5, maths, 15.0);
+
+		ClassGradebook gradebook = gradebook(3);
+
+		assertEquals(15.0, gradebook.subjectAverage(0, 0));
+		assertTrue(Double.isNaN(gradebook.secondScore(0, 0)));
+	}
+
+	@Test
+	void ignoresScoresOfOtherTermsAndTypes() {
+		score(2, AssessmentType.ASSESSMENT_3, maths, 18.0);
+		// Mislabelled row: a term 1 assessment carrying a term 2 type has no slot in term 1
+		score(1, AssessmentType.ASSESSMENT_3, maths, 4.0);
+
+		ClassGradebook gradebook = gradebook(1);
+
+		assertFalse(gradebook.hasData(0, 0));
+		assertTrue(Double.isNaN(gradebook.subjectAverage(0, 0)));
+		assertTrue(Double.isNaN(gradebook.score(0, 0, AssessmentType.ASSESSMENT_3)));
+	}
+
+	@Test
+	void weightsSubjectAveragesByCoefficient() {
+		score(1, AssessmentType.ASSESSMENT_1, maths, 16.0);
+		score(1, AssessmentType.ASSESSMENT_2, maths, 16.0);
+		score(1, AssessmentType.ASSESSMENT_1, english, 10.0);
+
+		// (16 * 4 + 10 * 2) / 6
+		assertEquals(14.0, gradebook(1).weightedAverage(0), 1e-9);
+	}
+
+	@Test
+	void weightedAverageIsZeroWithoutScores() {
+		assertEquals(0.0, gradebook(1).weightedAverage(0));
+	}
+
+	private ClassGradebook gradebook(int term) {
+		List<StudentSubject> enrollments = List.of(
+				StudentSubject.builder().student(student).subject(maths).build(),
+				StudentSubject.builder().student(student).subject(english).build());
+		return ClassGradebook.of(term, List.of(student), enrollments, assessments);
+	}
+
+	private void score(int term, AssessmentType type, Subject subject, double score) {
+		assessments.add(Assessment.builder()
+				.id((long) assessments.size() + 1)
+				.term(term)
+				.type(type)
+				.score(score)
+				.student(student)
+				.subject(subject)
+				.build());
+	}
+}
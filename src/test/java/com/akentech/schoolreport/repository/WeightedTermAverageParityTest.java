@@ -0,0 +1,192 @@
+package com.akentech.schoolreport.repository;
+
+import com.akentech.schoolreport.dto.ClassGradebook;
+import com.akentech.schoolreport.dto.StudentSubjectAverageView;
+import com.akentech.schoolreport.dto.StudentTermAverageView;
+import com.akentech.schoolreport.model.Assessment;
+import com.akentech.schoolreport.model.ClassRoom;
+import com.akentech.schoolreport.model.Student;
+import com.akentech.schoolreport.model.StudentSubject;
+import com.akentech.schoolreport.model.Subject;
+import com.akentech.schoolreport.model.enums.AssessmentType;
+import com.akentech.schoolreport.model.enums.ClassLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The weighted term average query and the in-memory gradebook must agree, including when an
+ * assessment type was entered more than once; so must the per-subject query the rank index reads.
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:parity;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class WeightedTermAverageParityTest {
+
+	private static final int YEAR_START = 2025;
+	private static final int YEAR_END = 2026;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private AssessmentRepository assessmentRepository;
+
+	@Autowired
+	private StudentSubjectRepository studentSubjectRepository;
+
+	private Student first;
+	private Student second;
+	private Subject maths;
+	private Subject english;
+
+	@BeforeEach
+	void setUp() {
+		ClassRoom classRoom = entityManager.persist(ClassRoom.builder()
+				.name("Form 1")
+				.code(ClassLevel.FORM_1)
+				.build());
+		maths = entityManager.persist(Subject.builder().name("Maths").coefficient(4).subjectCode("MAT").build());
+		english = entityManager.persist(Subject.builder().name("English").coefficient(2).subjectCode("ENG").build());
+		first = student("S1", classRoom);
+		second = student("S2", classRoom);
+
+		enroll(first, maths);
+		enroll(first, english);
+		enroll(second, maths);
+
+		score(first, maths, 1, AssessmentType.ASSESSMENT_1, 12.0, YEAR_START);
+		// Entered twice: only the earlier score counts
+		score(first, maths, 1, AssessmentType.ASSESSMENT_1, 20.0, YEAR_START);
+		score(first, maths, 1, AssessmentType.ASSESSMENT_2, 14.0, YEAR_START);
+		score(first, english, 1, AssessmentType.ASSESSMENT_2, 9.5, YEAR_START);
+		score(second, maths, 1, AssessmentType.ASSESSMENT_1, 7.0, YEAR_START);
+		// Not enrolled: ignored by both
+		score(second, english, 1, AssessmentType.ASSESSMENT_1, 18.0, YEAR_START);
+		// Same type in the previous year: earlier ID, but outside the year-scoped rule
+		score(second, maths, 1, AssessmentType.ASSESSMENT_2, 3.0, YEAR_START - 1);
+		score(second, maths, 1, AssessmentType.ASSESSMENT_2, 11.0, YEAR_START);
+
+		score(first, maths, 3, AssessmentType.ASSESSMENT_5, 15.0, YEAR_START);
+		score(first, maths, 3, AssessmentType.ASSESSMENT_5, 5.0, YEAR_START);
+
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void yearScopedQueryMatchesGradebook() {
+		for (int term : new int[]{1, 3}) {
+			List<Assessment> assessments = assessmentRepository.findByStudentIdInAndTermAndAcademicYear(
+					studentIds(), term, YEAR_START, YEAR_END);
+			Map<Long, Double> sql = byStudent(assessmentRepository.findWeightedTermAverages(
+					studentIds(), term, YEAR_START, YEAR_END));
+
+			assertParity(term, assessments, sql);
+		}
+	}
+
+	@Test
+	void allYearsQueryMatchesGradebook() {
+		List<Assessment> assessments = assessmentRepository.findByStudentIdInAndTerm(studentIds(), 1);
+		Map<Long, Double> sql = byStudent(assessmentRepository.findWeightedTermAverages(studentIds(), 1));
+
+		assertParity(1, assessments, sql);
+	}
+
+	@Test
+	void duplicateTypeCountsOnce() {
+		Map<Long, Double> sql = byStudent(assessmentRepository.findWeightedTermAverages(
+				studentIds(), 1, YEAR_START, YEAR_END));
+
+		// Maths (12 + 14) / 2 = 13 at coefficient 4, English 9.5 at coefficient 2
+		assertEquals((13.0 * 4 + 9.5 * 2) / 6, sql.get(first.getId()), 1e-9);
+	}
+
+	@Test
+	void subjectAveragesAddUpToTheWeightedAverage() {
+		Map<Long, Double> weighted = byStudent(assessmentRepository.findWeightedTermAverages(
+				studentIds(), 1, YEAR_START, YEAR_END));
+
+		Map<Long, double[]> totals = new HashMap<>();
+		for (StudentSubjectAverageView row : assessmentRepository.findSubjectTermAverages(
+				studentIds(), 1, YEAR_START, YEAR_END)) {
+			if (row.getStudentId().equals(first.getId()) && row.getSubjectId().equals(maths.getId())) {
+				assertEquals(13.0, row.getSubjectAverage(), 1e-9);
+			}
+			double[] total = totals.computeIfAbsent(row.getStudentId(), k -> new double[2]);
+			total[0] += row.getSubjectAverage() * row.getCoefficient();
+			total[1] += row.getCoefficient();
+		}
+
+		assertEquals(weighted.keySet(), totals.keySet());
+		totals.forEach((studentId, total) ->
+				assertEquals(weighted.get(studentId), total[0] / total[1], 1e-9));
+	}
+
+	private void assertParity(int term, List<Assessment> assessments, Map<Long, Double> sql) {
+		List<Student> students = List.of(first, second);
+		ClassGradebook gradebook = ClassGradebook.of(term, students,
+				studentSubjectRepository.findByStudentIdInWithSubject(studentIds()), assessments);
+
+		for (Student student : students) {
+			int row = gradebook.indexOf(student.getId());
+			double expected = sql.getOrDefault(student.getId(), 0.0);
+			assertEquals(expected, gradebook.weightedAverage(row), 1e-9,
+					"term " + term + " average of student " + student.getStudentId());
+		}
+	}
+
+	private List<Long> studentIds() {
+		return List.of(first.getId(), second.getId());
+	}
+
+	private static Map<Long, Double> byStudent(List<StudentTermAverageView> rows) {
+		return rows.stream().collect(Collectors.toMap(StudentTermAverageView::getStudentId,
+				StudentTermAverageView::getWeightedAverage));
+	}
+
+	private Student student(String studentId, ClassRoom classRoom) {
+		return entityManager.persist(Student.builder()
+				.studentId(studentId)
+				.firstName("First " + studentId)
+				.lastName("Last " + studentId)
+				.rollNumber(studentId)
+				.classRoom(classRoom)
+				.academicYearStart(YEAR_START)
+				.academicYearEnd(YEAR_END)
+				.build());
+	}
+
+	private void enroll(Student student, Subject subject) {
+		entityManager.persist(StudentSubject.builder().student(student).subject(subject).build());
+	}
+
+	private void score(Student student, Subject subject, int term, AssessmentType type, double score, int yearStart) {
+		entityManager.persist(Assessment.builder()
+				.student(student)
+				.subject(subject)
+				.term(term)
+				.type(type)
+				.score(score)
+				.academicYearStart(yearStart)
+				.academicYearEnd(yearStart + 1)
+				.build());
+	}
+}
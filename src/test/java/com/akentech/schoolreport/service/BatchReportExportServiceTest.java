@@ -0,0 +1,201 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ReportDTO;
+import com.akentech.schoolreport.model.Student;
+import com.akentech.schoolreport.repository.ClassRoomRepository;
+import com.akentech.schoolreport.repository.StudentRepository;
+import com.lowagie.text.Document;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfWriter;
+import com.lowagie.text.pdf.SimpleBookmark;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchReportExportServiceTest {
+
+	private static final String ACADEMIC_YEAR = "2025-2026";
+
+	private final ReportService reportService = mock(ReportService.class);
+	private final TermReportPdfService termReportPdfService = mock(TermReportPdfService.class);
+	private final YearlyReportPdfService yearlyReportPdfService = mock(YearlyReportPdfService.class);
+	private final StudentRepository studentRepository = mock(StudentRepository.class);
+	private final ClassRoomRepository classRoomRepository = mock(ClassRoomRepository.class);
+	private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+	private final RecordingListener listener = new RecordingListener();
+
+	private BatchReportExportService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		executor.setCorePoolSize(3);
+		executor.setMaxPoolSize(3);
+		executor.initialize();
+		service = new BatchReportExportService(reportService, termReportPdfService, yearlyReportPdfService,
+				new PdfRenderPool(executor, 3), studentRepository, classRoomRepository);
+
+		List<Student> students = List.of(student(1L, "R001", "Ama", "Mensah"),
+				student(2L, "R002", "Kofi", "Boateng"), student(3L, "R003", "Esi", "Owusu"));
+		when(studentRepository.findByClassRoomId(7L)).thenReturn(students);
+		when(reportService.getTermReportsForClassAndYear(7L, 1, ACADEMIC_YEAR)).thenReturn(List.of(
+				ReportDTO.builder().id(1L).build(), ReportDTO.builder().id(2L).build(), ReportDTO.builder().id(3L).build()));
+		// The second student's report runs over two pages
+		when(termReportPdfService.generateTermReportPdf(any())).thenAnswer(invocation -> {
+			ReportDTO report = invocation.getArgument(0);
+			return pdf("Report of student " + report.getId(), report.getId() == 2L ? 2 : 1);
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void zipHasOneEntryPerStudentInClassOrder() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		service.writeZip(7L, "term", 1, ACADEMIC_YEAR, out, listener);
+
+		List<String> names = new ArrayList<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+				names.add(entry.getName());
+				byte[] content = zip.readAllBytes();
+				assertTrue(content.length > 0);
+				assertArrayEquals("%PDF".getBytes(), Arrays.copyOf(content, 4));
+			}
+		}
+		assertEquals(List.of(
+				"R001_Ama_Mensah_Term_1_2025-2026.pdf",
+				"R002_Kofi_Boateng_Term_1_2025-2026.pdf",
+				"R003_Esi_Owusu_Term_1_2025-2026.pdf"), names);
+		assertEquals(3, listener.total);
+		assertEquals(3, listener.completed.get());
+	}
+
+	@Test
+	void failedStudentGetsAnErrorEntry() throws Exception {
+		doAnswer(invocation -> {
+			ReportDTO report = invocation.getArgument(0);
+			if (report.getId() == 2L) {
+				throw new IllegalStateException("No scores");
+			}
+			return pdf("Report of student " + report.getId(), 1);
+		}).when(termReportPdfService).generateTermReportPdf(any());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		service.writeZip(7L, "term", 1, ACADEMIC_YEAR, out, listener);
+
+		List<String> names = new ArrayList<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+				names.add(entry.getName());
+			}
+		}
+		assertEquals(List.of(
+				"R001_Ama_Mensah_Term_1_2025-2026.pdf",
+				"ERROR_R002_Kofi_Boateng_2025-2026.pdf",
+				"R003_Esi_Owusu_Term_1_2025-2026.pdf"), names);
+	}
+
+	@Test
+	void cancelledZipStopsBeforeTheNextStudent() {
+		listener.cancelAfter = 1;
+
+		assertThrows(CancellationException.class,
+				() -> service.writeZip(7L, "term", 1, ACADEMIC_YEAR, new ByteArrayOutputStream(), listener));
+		assertEquals(1, listener.completed.get());
+	}
+
+	@Test
+	void bookletHasOneBookmarkPerStudentAtTheirFirstPage() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		service.writeBooklet(7L, "term", 1, ACADEMIC_YEAR, out, listener);
+
+		PdfReader reader = new PdfReader(out.toByteArray());
+		try {
+			assertEquals(4, reader.getNumberOfPages());
+
+			List<? extends Map<String, Object>> bookmarks = SimpleBookmark.getBookmark(reader);
+			assertEquals(3, bookmarks.size());
+			assertEquals(List.of("R001 - Ama Mensah", "R002 - Kofi Boateng", "R003 - Esi Owusu"),
+					bookmarks.stream().map(bookmark -> bookmark.get("Title")).toList());
+			// The second student takes two pages, so the third starts on page 4
+			assertEquals(List.of("1", "2", "4"),
+					bookmarks.stream().map(bookmark -> ((String) bookmark.get("Page")).split(" ")[0]).toList());
+		} finally {
+			reader.close();
+		}
+		assertEquals(3, listener.completed.get());
+	}
+
+	private static Student student(Long id, String rollNumber, String firstName, String lastName) {
+		return Student.builder()
+				.id(id)
+				.studentId("STU" + id)
+				.rollNumber(rollNumber)
+				.firstName(firstName)
+				.lastName(lastName)
+				.build();
+	}
+
+	private static byte[] pdf(String text, int pages) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Document document = new Document();
+		PdfWriter.getInstance(document, out);
+		document.open();
+		for (int page = 1; page <= pages; page++) {
+			if (page > 1) {
+				document.newPage();
+			}
+			document.add(new Paragraph(text + ", page " + page));
+		}
+		document.close();
+		return out.toByteArray();
+	}
+
+	private static class RecordingListener implements ReportProgressListener {
+		private final AtomicInteger completed = new AtomicInteger();
+		private volatile int total;
+		private volatile int cancelAfter = Integer.MAX_VALUE;
+
+		@Override
+		public void onStart(int totalStudents) {
+			total = totalStudents;
+		}
+
+		@Override
+		public void onStudentCompleted() {
+			completed.incrementAndGet();
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return completed.get() >= cancelAfter;
+		}
+	}
+}
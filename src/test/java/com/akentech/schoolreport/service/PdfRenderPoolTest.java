@@ -0,0 +1,79 @@
+package com.akentech.schoolreport.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PdfRenderPoolTest {
+
+	private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+	private PdfRenderPool pool;
+
+	@BeforeEach
+	void setUp() {
+		executor.setCorePoolSize(4);
+		executor.setMaxPoolSize(4);
+		executor.initialize();
+		pool = new PdfRenderPool(executor, 4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void handsResultsBackInItemOrderWhenRendersFinishOutOfOrder() throws IOException {
+		List<Integer> items = List.of(0, 1, 2, 3, 4, 5, 6, 7);
+		List<CountDownLatch> finished = new ArrayList<>();
+		items.forEach(item -> finished.add(new CountDownLatch(1)));
+		List<Integer> completionOrder = new CopyOnWriteArrayList<>();
+		List<Integer> consumed = new ArrayList<>();
+
+		pool.renderInOrder(items, item -> {
+			// Each render waits for the next one, so every window of renders finishes last to first
+			if (item + 1 < items.size() && item % 4 != 3) {
+				assertTrue(finished.get(item + 1).await(5, TimeUnit.SECONDS));
+			}
+			completionOrder.add(item);
+			finished.get(item).countDown();
+			return "pdf-" + item;
+		}, (item, result) -> {
+			assertEquals("pdf-" + item, result);
+			consumed.add(item);
+		});
+
+		assertEquals(items, consumed);
+		assertEquals(List.of(3, 2, 1, 0, 7, 6, 5, 4), completionOrder);
+		assertEquals(8L, pool.getStats().get("rendered"));
+	}
+
+	@Test
+	void failingRenderStopsTheRun() {
+		List<Integer> consumed = new ArrayList<>();
+
+		IOException failure = assertThrows(IOException.class, () -> pool.renderInOrder(List.of(0, 1, 2),
+				item -> {
+					if (item == 1) {
+						throw new IOException("Broken template");
+					}
+					return "pdf-" + item;
+				},
+				(item, result) -> consumed.add(item)));
+
+		assertEquals("Broken template", failure.getMessage());
+		assertEquals(List.of(0), consumed);
+	}
+}
@@ -0,0 +1,70 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.event.AssessmentsChangedEvent;
+import com.akentech.schoolreport.event.StudentsChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReportCacheTest {
+
+	private final ReportCache cache = new ReportCache(2, Duration.ofMinutes(30));
+
+	@Test
+	void valueComputedAcrossAnEvictionIsNotStored() {
+		List<Long> computed = cache.get("class-1", 1L, () -> {
+			// A score changes while the result is being computed
+			cache.onAssessmentsChanged(new AssessmentsChangedEvent(Set.of(5L)));
+			return List.of(5L, 6L);
+		}, students -> students);
+
+		assertEquals(List.of(5L, 6L), computed);
+		assertNull(cache.getIfPresent("class-1"));
+
+		// The next load is stored as usual
+		cache.get("class-1", 1L, () -> List.of(5L, 6L), students -> students);
+		assertEquals(List.of(5L, 6L), cache.getIfPresent("class-1"));
+	}
+
+	@Test
+	void evictsOnlyResultsOfTheChangedStudents() {
+		cache.get("class-1", 1L, () -> List.of(1L, 2L), students -> students);
+		cache.get("class-2", 2L, () -> List.of(3L), students -> students);
+
+		cache.onAssessmentsChanged(new AssessmentsChangedEvent(Set.of(2L)));
+
+		assertNull(cache.getIfPresent("class-1"));
+		assertEquals(List.of(3L), cache.getIfPresent("class-2"));
+	}
+
+	@Test
+	void evictsResultsOfAChangedClass() {
+		cache.get("class-1", 1L, () -> List.of(1L), students -> students);
+		cache.get("class-2", 2L, () -> List.of(3L), students -> students);
+
+		// A student joining class 2 was not part of its cached result
+		cache.onStudentsChanged(new StudentsChangedEvent(Set.of(9L), Set.of(2L)));
+
+		assertEquals(List.of(1L), cache.getIfPresent("class-1"));
+		assertNull(cache.getIfPresent("class-2"));
+	}
+
+	@Test
+	void dropsTheLeastRecentlyUsedEntryWhenFull() {
+		cache.get("class-1", 1L, () -> List.of(1L), students -> students);
+		cache.get("class-2", 2L, () -> List.of(2L), students -> students);
+		cache.getIfPresent("class-1");
+
+		cache.get("class-3", 3L, () -> List.of(3L), students -> students);
+
+		assertEquals(List.of(1L), cache.getIfPresent("class-1"));
+		assertNull(cache.getIfPresent("class-2"));
+		assertEquals(List.of(3L), cache.getIfPresent("class-3"));
+		assertEquals(1L, cache.getStats().get("evictions"));
+	}
+}
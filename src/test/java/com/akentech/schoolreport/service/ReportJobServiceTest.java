@@ -0,0 +1,175 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ReportJobStatus;
+import com.akentech.schoolreport.exception.EntityNotFoundException;
+import com.akentech.schoolreport.repository.ClassRoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReportJobServiceTest {
+
+	private static final String ACADEMIC_YEAR = "2025-2026";
+
+	private final ReportService reportService = mock(ReportService.class);
+	private final ClassRoomRepository classRoomRepository = mock(ClassRoomRepository.class);
+	private final BatchReportExportService batchReportExportService = mock(BatchReportExportService.class);
+	private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+	@BeforeEach
+	void setUp() {
+		// One job at a time, so a second job stays queued behind a running one
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(10);
+		executor.initialize();
+		when(classRoomRepository.existsById(any())).thenReturn(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void cancellingAQueuedJobKeepsItFromRunning() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(reportService.getTermReportsForClassAndYear(eq(1L), eq(1), eq(ACADEMIC_YEAR), any()))
+				.thenAnswer(invocation -> {
+					started.countDown();
+					release.await(5, TimeUnit.SECONDS);
+					return List.of();
+				});
+		ReportJobService service = service(Duration.ofHours(1));
+
+		ReportJobStatus running = service.submit(1L, 1, ACADEMIC_YEAR);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		ReportJobStatus queued = service.submit(2L, 1, ACADEMIC_YEAR);
+
+		assertEquals(ReportJobStatus.State.CANCELLED, service.cancel(queued.getJobId()).getState());
+
+		release.countDown();
+		awaitState(service, running.getJobId(), ReportJobStatus.State.COMPLETED);
+		assertEquals(ReportJobStatus.State.CANCELLED, service.getStatus(queued.getJobId()).getState());
+		verify(reportService, never()).getTermReportsForClassAndYear(eq(2L), any(), any(), any());
+	}
+
+	@Test
+	void cancellingARunningJobStopsItBeforeTheNextStudent() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		when(reportService.getTermReportsForClassAndYear(eq(1L), eq(1), eq(ACADEMIC_YEAR), any()))
+				.thenAnswer(invocation -> {
+					ReportProgressListener listener = invocation.getArgument(3);
+					listener.onStart(30);
+					listener.onStudentCompleted();
+					started.countDown();
+					// Stands in for the generation loop checking before each student
+					long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+					while (!listener.isCancelled() && System.nanoTime() < deadline) {
+						Thread.sleep(5);
+					}
+					throw new CancellationException("Report generation cancelled");
+				});
+		ReportJobService service = service(Duration.ofHours(1));
+
+		ReportJobStatus job = service.submit(1L, 1, ACADEMIC_YEAR);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		assertEquals(ReportJobStatus.State.RUNNING, service.cancel(job.getJobId()).getState());
+
+		ReportJobStatus cancelled = awaitState(service, job.getJobId(), ReportJobStatus.State.CANCELLED);
+		assertEquals(30, cancelled.getTotalStudents());
+		assertEquals(1, cancelled.getProcessedStudents());
+	}
+
+	@Test
+	void expiredJobIsPurgedWithItsZip() throws Exception {
+		CountDownLatch written = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			OutputStream out = invocation.getArgument(4);
+			out.write(new byte[]{'P', 'K'});
+			written.countDown();
+			return null;
+		}).when(batchReportExportService)
+				.writeZip(eq(1L), eq("term"), eq(1), eq(ACADEMIC_YEAR), any(OutputStream.class), any());
+		// Jobs expire as soon as they finish
+		ReportJobService service = service(Duration.ZERO);
+
+		ReportJobStatus job = service.submitBatchZip(1L, "term", 1, ACADEMIC_YEAR);
+		assertTrue(written.await(5, TimeUnit.SECONDS));
+		Path zip = findZip(job.getJobId());
+		assertTrue(Files.exists(zip));
+
+		awaitCondition(() -> {
+			try {
+				service.getStatus(job.getJobId());
+				return false;
+			} catch (EntityNotFoundException e) {
+				return true;
+			}
+		});
+		assertThrows(EntityNotFoundException.class, () -> service.getZipResult(job.getJobId()));
+		assertFalse(Files.exists(zip));
+	}
+
+	private ReportJobService service(Duration retention) {
+		return new ReportJobService(reportService, classRoomRepository, batchReportExportService, executor, retention);
+	}
+
+	private static Path findZip(String jobId) throws IOException {
+		try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+			return files.filter(file -> file.getFileName().toString().startsWith("report-job-" + jobId + "-"))
+					.findFirst()
+					.orElseThrow(() -> new AssertionError("No ZIP written for report job " + jobId));
+		}
+	}
+
+	private static ReportJobStatus awaitState(ReportJobService service, String jobId, ReportJobStatus.State state) {
+		AtomicReference<ReportJobStatus> status = new AtomicReference<>();
+		awaitCondition(() -> {
+			status.set(service.getStatus(jobId));
+			return status.get().getState() == state;
+		});
+		return status.get();
+	}
+
+	private static void awaitCondition(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "Timed out waiting for the report job");
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new AssertionError(e);
+			}
+		}
+	}
+}
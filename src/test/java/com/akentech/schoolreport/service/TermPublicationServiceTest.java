@@ -0,0 +1,105 @@
+package com.akentech.schoolreport.service;
+
+import com.akentech.schoolreport.dto.ReportDTO;
+import com.akentech.schoolreport.event.TermPublishedEvent;
+import com.akentech.schoolreport.exception.BusinessRuleException;
+import com.akentech.schoolreport.model.PublishedTermResult;
+import com.akentech.schoolreport.model.TermPublicationAudit;
+import com.akentech.schoolreport.repository.ClassRoomRepository;
+import com.akentech.schoolreport.repository.PublishedTermResultRepository;
+import com.akentech.schoolreport.repository.TermPublicationAuditRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TermPublicationServiceTest {
+
+	private static final String ACADEMIC_YEAR = "2025-2026";
+	private static final byte[] PAYLOAD = {1, 2, 3};
+
+	private final ReportService reportService = mock(ReportService.class);
+	private final PublishedTermStore publishedTermStore = mock(PublishedTermStore.class);
+	private final PublishedTermResultRepository publishedTermResultRepository = mock(PublishedTermResultRepository.class);
+	private final TermPublicationAuditRepository termPublicationAuditRepository = mock(TermPublicationAuditRepository.class);
+	private final ClassRoomRepository classRoomRepository = mock(ClassRoomRepository.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+	private final TermPublicationService service = new TermPublicationService(reportService, publishedTermStore,
+			publishedTermResultRepository, termPublicationAuditRepository, classRoomRepository, eventPublisher);
+
+	private final PublishedTermResult published = PublishedTermResult.builder()
+			.id(5L)
+			.classId(1L)
+			.term(2)
+			.academicYearStart(2025)
+			.academicYearEnd(2026)
+			.version(1)
+			.studentCount(1)
+			.payload(new byte[]{9})
+			.publishedAt(LocalDateTime.of(2026, 1, 10, 8, 0))
+			.publishedBy("registrar")
+			.build();
+
+	@BeforeEach
+	void setUp() {
+		when(classRoomRepository.existsById(1L)).thenReturn(true);
+		when(publishedTermResultRepository.findByClassIdAndTermAndAcademicYear(1L, 2, 2025, 2026))
+				.thenReturn(Optional.of(published));
+	}
+
+	@Test
+	void republishWithoutAReasonIsRejected() {
+		assertThrows(BusinessRuleException.class,
+				() -> service.republish(1L, 2, ACADEMIC_YEAR, "registrar", "  "));
+		assertThrows(BusinessRuleException.class,
+				() -> service.republish(1L, 2, ACADEMIC_YEAR, "registrar", null));
+
+		verify(reportService, never()).computeTermReportsForClassAndYear(any(), any(), any());
+		verify(publishedTermResultRepository, never()).save(any());
+		verify(termPublicationAuditRepository, never()).save(any());
+	}
+
+	@Test
+	void republishBumpsTheVersionAndAuditsTheReason() {
+		List<ReportDTO> reports = List.of(ReportDTO.builder().id(11L).build(), ReportDTO.builder().id(12L).build());
+		when(reportService.computeTermReportsForClassAndYear(1L, 2, ACADEMIC_YEAR)).thenReturn(reports);
+		when(publishedTermStore.encode(reports)).thenReturn(PAYLOAD);
+
+		PublishedTermResult result = service.republish(1L, 2, ACADEMIC_YEAR, "principal", "Maths score corrected");
+
+		assertEquals(2, result.getVersion());
+		assertEquals(2, result.getStudentCount());
+		assertArrayEquals(PAYLOAD, result.getPayload());
+		assertEquals("principal", result.getPublishedBy());
+		verify(publishedTermResultRepository).save(published);
+
+		ArgumentCaptor<TermPublicationAudit> audit = ArgumentCaptor.forClass(TermPublicationAudit.class);
+		verify(termPublicationAuditRepository).save(audit.capture());
+		assertEquals(TermPublicationAudit.Action.REPUBLISH, audit.getValue().getAction());
+		assertEquals(2, audit.getValue().getVersion());
+		assertEquals("Maths score corrected", audit.getValue().getReason());
+		assertEquals("principal", audit.getValue().getPerformedBy());
+		verify(eventPublisher).publishEvent(any(TermPublishedEvent.class));
+	}
+
+	@Test
+	void publishingAPublishedTermIsRejected() {
+		assertThrows(BusinessRuleException.class, () -> service.publish(1L, 2, ACADEMIC_YEAR, "registrar"));
+
+		verify(publishedTermResultRepository, never()).save(any());
+	}
+}
@@ -0,0 +1,101 @@
+package com.akentech.schoolreport.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AverageRankTreeTest {
+
+	private final AverageRankTree tree = new AverageRankTree();
+
+	@Test
+	void ordersByAverageThenStudentId() {
+		tree.insert(12.0, 3);
+		tree.insert(15.5, 7);
+		tree.insert(12.0, 1);
+		tree.insert(9.0, 2);
+
+		assertEquals(List.of(7L, 1L, 3L, 2L), tree.studentIdsInRankOrder());
+		assertEquals(4, tree.size());
+	}
+
+	@Test
+	void tiesShareACompetitionRank() {
+		tree.insert(14.0, 1);
+		tree.insert(14.0, 2);
+		tree.insert(11.0, 3);
+
+		// 1, 1, 3
+		assertEquals(0, tree.countGreater(14.0));
+		assertEquals(2, tree.countGreater(11.0));
+		assertEquals(3, tree.countGreater(5.0));
+		assertEquals(0, tree.countGreater(20.0));
+	}
+
+	@Test
+	void removesOnlyTheMatchingEntry() {
+		tree.insert(10.0, 1);
+		tree.insert(10.0, 2);
+		tree.insert(8.0, 3);
+
+		tree.remove(10.0, 2);
+
+		assertEquals(List.of(1L, 3L), tree.studentIdsInRankOrder());
+		assertEquals(1, tree.countGreater(8.0));
+
+		// Unknown entries are ignored
+		tree.remove(10.0, 9);
+		tree.remove(8.5, 3);
+		assertEquals(2, tree.size());
+	}
+
+	@Test
+	void repositionsAStudentByRemoveAndInsert() {
+		tree.insert(16.0, 1);
+		tree.insert(12.0, 2);
+		tree.insert(12.0, 3);
+
+		tree.remove(12.0, 3);
+		tree.insert(16.0, 3);
+
+		assertEquals(List.of(1L, 3L, 2L), tree.studentIdsInRankOrder());
+		assertEquals(0, tree.countGreater(16.0));
+		assertEquals(2, tree.countGreater(12.0));
+	}
+
+	@Test
+	void matchesASortedListUnderRandomChanges() {
+		Random random = new Random(42);
+		List<double[]> entries = new ArrayList<>();
+		for (long id = 0; id < 200; id++) {
+			double average = random.nextInt(41) / 2.0;
+			entries.add(new double[]{average, id});
+			tree.insert(average, id);
+		}
+
+		for (int step = 0; step < 500; step++) {
+			double[] entry = entries.get(random.nextInt(entries.size()));
+			double average = random.nextInt(41) / 2.0;
+			tree.remove(entry[0], (long) entry[1]);
+			tree.insert(average, (long) entry[1]);
+			entry[0] = average;
+		}
+
+		entries.sort(Comparator.<double[]>comparingDouble(e -> -e[0]).thenComparingDouble(e -> e[1]));
+		List<Long> expected = new ArrayList<>();
+		for (double[] entry : entries) {
+			expected.add((long) entry[1]);
+		}
+		assertEquals(expected, tree.studentIdsInRankOrder());
+
+		for (double[] entry : entries) {
+			long greater = entries.stream().filter(e -> e[0] > entry[0]).count();
+			assertEquals(greater, tree.countGreater(entry[0]));
+		}
+	}
+}
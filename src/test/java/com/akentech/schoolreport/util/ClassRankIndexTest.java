@@ -0,0 +1,78 @@
+package com.akentech.schoolreport.util;
+
+import com.akentech.schoolreport.dto.ClassRankingSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClassRankIndexTest {
+
+	private static final long MATHS = 10L;
+	private static final long ENGLISH = 20L;
+
+	@Test
+	void repositionsOnEveryDimension() {
+		ClassRankIndex index = ClassRankIndex.of(snapshot(
+				entry(1L, 1L, "Science", 15.0, Map.of(MATHS, 16.0, ENGLISH, 14.0)),
+				entry(2L, 1L, "Science", 12.0, Map.of(MATHS, 12.0)),
+				entry(3L, 2L, "N/A", 10.0, Map.of(MATHS, 8.0, ENGLISH, 12.0))));
+
+		index.update(Map.of(2L, 17.0), Map.of(2L, Map.of(MATHS, 18.0, ENGLISH, 16.0)));
+
+		ClassRankingSnapshot.Entry moved = index.entry(2L);
+		assertEquals(1, moved.getRankInClass());
+		assertEquals(1, moved.getRankInDepartment());
+		assertEquals(1, moved.getRankInSpecialty());
+		assertEquals(Map.of(MATHS, 1, ENGLISH, 1), moved.getSubjectPositions());
+
+		ClassRankingSnapshot.Entry passed = index.entry(1L);
+		assertEquals(2, passed.getRankInClass());
+		assertEquals(2, passed.getRankInSpecialty());
+		assertEquals(Map.of(MATHS, 2, ENGLISH, 2), passed.getSubjectPositions());
+
+		assertNull(index.entry(3L).getRankInSpecialty());
+		assertEquals(Map.of(MATHS, 3, ENGLISH, 3), index.subjectCounts());
+		assertEquals(List.of(2L, 1L, 3L), List.copyOf(index.snapshot().getEntries().keySet()));
+	}
+
+	@Test
+	void studentLosingTheirScoresLeavesSubjectPositions() {
+		ClassRankIndex index = ClassRankIndex.of(snapshot(
+				entry(1L, null, null, 14.0, Map.of(MATHS, 14.0)),
+				entry(2L, null, null, 11.0, Map.of(MATHS, 11.0))));
+
+		index.update(Map.of(1L, 0.0), Map.of());
+
+		assertNull(index.entry(1L).getSubjectPositions().get(MATHS));
+		assertEquals(1, index.entry(2L).getSubjectPositions().get(MATHS));
+		assertEquals(Map.of(MATHS, 1, ENGLISH, 0), index.subjectCounts());
+		assertEquals(2, index.rankInClass(1L));
+	}
+
+	private static ClassRankingSnapshot snapshot(ClassRankingSnapshot.Entry... entries) {
+		Map<Long, ClassRankingSnapshot.Entry> byStudent = new LinkedHashMap<>();
+		for (ClassRankingSnapshot.Entry entry : entries) {
+			byStudent.put(entry.getStudentId(), entry);
+		}
+		return new ClassRankingSnapshot(1L, 1, "2025-2026", byStudent, Map.of(MATHS, 0, ENGLISH, 0));
+	}
+
+	// Seed entries only need averages; the index derives every rank itself
+	private static ClassRankingSnapshot.Entry entry(Long studentId, Long departmentId, String specialty,
+			double average, Map<Long, Double> subjectAverages) {
+		return ClassRankingSnapshot.Entry.builder()
+				.studentId(studentId)
+				.studentFullName("Student " + studentId)
+				.departmentId(departmentId)
+				.specialty(specialty)
+				.average(average)
+				.subjectAverages(subjectAverages)
+				.subjectPositions(Map.of())
+				.build();
+	}
+}
@@ -0,0 +1,79 @@
+package com.akentech.schoolreport.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClassRankerTest {
+
+	@Test
+	void tiesShareAClassRankAndSkipTheNext() {
+		ClassRanker.Result ranking = ClassRanker.rank(new double[]{12.0, 15.0, 12.0, 9.5});
+
+		assertEquals(1, ranking.classRank(1));
+		assertEquals(2, ranking.classRank(0));
+		assertEquals(2, ranking.classRank(2));
+		assertEquals(4, ranking.classRank(3));
+		// Ties keep row order
+		assertArrayEquals(new int[]{1, 0, 2, 3}, ranking.order());
+	}
+
+	@Test
+	void ranksOneOneThree() {
+		ClassRanker.Result ranking = ClassRanker.rank(new double[]{14.0, 14.0, 11.0});
+
+		assertEquals(1, ranking.classRank(0));
+		assertEquals(1, ranking.classRank(1));
+		assertEquals(3, ranking.classRank(2));
+	}
+
+	@Test
+	void ranksWithinDepartmentsAndSpecialties() {
+		double[] averages = {16.0, 13.0, 13.0, 10.0, 18.0};
+		int[] departments = ClassRanker.groupIds(Arrays.asList(1L, 2L, 1L, 1L, null));
+		int[] specialties = ClassRanker.groupIds(Arrays.asList("Science", null, "Science", "Arts", "Arts"));
+
+		ClassRanker.Result ranking = ClassRanker.rank(averages, departments, specialties, null);
+
+		assertEquals(1, ranking.departmentRank(0));
+		assertEquals(1, ranking.departmentRank(1));
+		assertEquals(2, ranking.departmentRank(2));
+		assertEquals(3, ranking.departmentRank(3));
+		assertNull(ranking.departmentRank(4));
+
+		assertEquals(1, ranking.specialtyRank(0));
+		assertNull(ranking.specialtyRank(1));
+		assertEquals(2, ranking.specialtyRank(2));
+		assertEquals(2, ranking.specialtyRank(3));
+		assertEquals(1, ranking.specialtyRank(4));
+	}
+
+	@Test
+	void subjectPositionsSkipStudentsWithoutAnAverage() {
+		double[][] subjects = {
+				{12.0, Double.NaN, 12.0, 8.0},
+				{Double.NaN, Double.NaN, Double.NaN, Double.NaN}
+		};
+
+		ClassRanker.Result ranking = ClassRanker.rank(new double[4], null, null, subjects);
+
+		assertEquals(1, ranking.subjectPosition(0, 0));
+		assertNull(ranking.subjectPosition(0, 1));
+		assertEquals(1, ranking.subjectPosition(0, 2));
+		assertEquals(3, ranking.subjectPosition(0, 3));
+		assertEquals(3, ranking.subjectCount(0));
+		assertNull(ranking.subjectPosition(1, 0));
+		assertEquals(0, ranking.subjectCount(1));
+	}
+
+	@Test
+	void groupIdsFollowFirstAppearance() {
+		assertArrayEquals(new int[]{0, 1, 0, ClassRanker.NO_GROUP, 2},
+				ClassRanker.groupIds(Arrays.asList("B", "A", "B", null, List.of(1))));
+	}
+}